@@ -0,0 +1,43 @@
+package com.ticket.service.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks once per thread count with allocation profiling enabled
+ *
+ * Takes the usual JMH command line, e.g. a regex of the benchmarks to run or -p venue=9x33.
+ * The thread counts are 1, 2, 4 and so on up to the number of cores; -t picks one instead.
+ */
+public class BenchmarkRunner {
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        int[] threadCounts;
+        if(commandLine.getThreads().hasValue()) {
+            threadCounts = new int[] {commandLine.getThreads().get()};
+        } else {
+            threadCounts = new int[32 - Integer.numberOfLeadingZeros(cores)];
+            for(int i = 0; i < threadCounts.length; i++) {
+                threadCounts[i] = 1 << i;
+            }
+        }
+
+        for(int threads : threadCounts) {
+            ChainedOptionsBuilder options = new OptionsBuilder()
+                    .parent(commandLine)
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class);
+            if(commandLine.getIncludes().isEmpty()) {
+                options.include("com.ticket.service.benchmarks.*");
+            }
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.Impl.HashedWheelExpiryScheduler;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks how fast expired holds are processed
+ *
+ * scheduleAndExpire measures the wheel on its own: a batch of timeouts due right away is
+ * scheduled and the invocation ends once every one of them has run. expireHolds measures
+ * the release of held seats back into the venue.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HoldExpiryBenchmark {
+    private static final int BATCH = 10000;
+
+    @Param({"legacy", "concurrent"})
+    public String implementation;
+
+    @Param({"9x33", "400x250"})
+    public String venue;
+
+    private ExpiryScheduler wheel;
+    private ManualExpiryScheduler scheduler;
+    private TicketService ticketService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        wheel = new HashedWheelExpiryScheduler(1, 512, null);
+        scheduler = new ManualExpiryScheduler();
+        ticketService = Venues.create(implementation, venue, scheduler);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        wheel.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void scheduleAndExpire() throws InterruptedException {
+        final CountDownLatch latch = new CountDownLatch(BATCH);
+        Runnable task = latch::countDown;
+        for(int i = 0; i < BATCH; i++) {
+            wheel.schedule(task, 0);
+        }
+        latch.await();
+    }
+
+    @Benchmark
+    public int expireHolds() {
+        //Holds pairs until the venue sells out, then expires them all
+        int held;
+        do {
+            held = ticketService.findAndHoldSeats(2, "123@gmail.com").getNumberOfSeatsOnHold();
+        } while(held > 0);
+        return scheduler.expireAll();
+    }
+}
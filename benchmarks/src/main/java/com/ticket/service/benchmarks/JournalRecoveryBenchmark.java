@@ -0,0 +1,113 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.Impl.ConcurrentTicketServiceImpl;
+import com.ticket.service.TicketJournalFactory;
+import com.ticket.service.interfaces.TicketEvents;
+import com.ticket.service.interfaces.TicketJournal;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks how long a venue takes to start from a journal of a million events
+ *
+ * The journal is a sale on a 400x250 venue: 500,000 holds of two seats, 450,000 of them
+ * expired and 50,000 of the rest reserved. recover rebuilds the whole venue from it and
+ * replay only reads the events back. recoverFromSnapshot starts from a snapshot taken at
+ * the end of the journal, so only the 50,000 live holds are read.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 10)
+@Fork(1)
+public class JournalRecoveryBenchmark {
+    private static final int HOLDS = 500000;
+    private static final int ACTIVE_HOLDS = 50000;
+
+    private Path file;
+    private Path snapshot;
+    private TicketJournal journal;
+
+    @Setup(Level.Trial)
+    public void writeJournal() throws IOException {
+        file = Files.createTempFile("venue", ".journal");
+        Files.delete(file);
+        TicketJournal writer = TicketJournalFactory.create(file);
+        long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+        for(int hold = 0; hold < HOLDS; hold++) {
+            int pair = hold % ACTIVE_HOLDS;
+            writer.hold(hold, "customer" + pair + "@gmail.com", expiresAt, new int[] {pair * 2, pair * 2 + 1});
+            if(hold < HOLDS - ACTIVE_HOLDS) {
+                writer.expire(hold);
+            } else {
+                writer.reserve(hold);
+            }
+        }
+        snapshot = file.resolveSibling(file.getFileName() + ".snapshot");
+        new ConcurrentTicketServiceImpl(400, 250, 3600, new ManualExpiryScheduler(), writer).writeSnapshot(snapshot);
+        writer.close();
+    }
+
+    @Setup(Level.Invocation)
+    public void openJournal() {
+        journal = TicketJournalFactory.create(file);
+    }
+
+    @TearDown(Level.Invocation)
+    public void closeJournal() {
+        journal.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteJournal() throws IOException {
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(snapshot);
+    }
+
+    @Benchmark
+    public int recover() {
+        return new ConcurrentTicketServiceImpl(400, 250, 3600, new ManualExpiryScheduler(), journal).numSeatsAvailable();
+    }
+
+    @Benchmark
+    public int recoverFromSnapshot() {
+        return new ConcurrentTicketServiceImpl(400, 250, 3600, new ManualExpiryScheduler(), journal, snapshot).numSeatsAvailable();
+    }
+
+    @Benchmark
+    public int replay() {
+        final int[] events = new int[1];
+        journal.replay(new TicketEvents() {
+            @Override
+            public void hold(int seatHoldId, String customerEmail, long expiresAt, int[] seatIds) {
+                events[0]++;
+            }
+
+            @Override
+            public void reserve(int seatHoldId) {
+                events[0]++;
+            }
+
+            @Override
+            public void expire(int seatHoldId) {
+                events[0]++;
+            }
+
+            @Override
+            public void release(int seatHoldId, int[] seatIds) {
+                events[0]++;
+            }
+
+            @Override
+            public void extend(int seatHoldId, long expiresAt) {
+                events[0]++;
+            }
+        });
+        return events[0];
+    }
+}
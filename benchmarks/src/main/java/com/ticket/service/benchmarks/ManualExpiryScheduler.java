@@ -0,0 +1,81 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.interfaces.ExpiryScheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Expiry Scheduler that only expires holds when asked
+ *
+ * Lets a benchmark hand held seats back to the venue at a point it controls, so the
+ * venue never sells out during a measurement and no wheel thread runs alongside it.
+ */
+public class ManualExpiryScheduler implements ExpiryScheduler {
+    private final Queue<ManualTimeout> timeouts = new ConcurrentLinkedQueue<>(); //Timeouts waiting to be expired
+
+    @Override
+    public Timeout schedule(Runnable task, long delay) {
+        ManualTimeout timeout = new ManualTimeout(task);
+        timeouts.add(timeout);
+        return timeout;
+    }
+
+    /**
+     * Expires every timeout scheduled so far, whatever its delay
+     *
+     * @return the number of tasks run
+     */
+    public int expireAll() {
+        int expired = 0;
+        ManualTimeout timeout;
+        while((timeout = timeouts.poll()) != null) {
+            if(timeout.expire()) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    @Override
+    public void shutdown() {
+        timeouts.clear();
+    }
+
+    /**
+     * A task waiting to be expired
+     */
+    private static final class ManualTimeout implements Timeout {
+        private final Runnable task;
+        private final AtomicBoolean cancelled = new AtomicBoolean();
+        private final AtomicBoolean expired = new AtomicBoolean();
+
+        ManualTimeout(Runnable task) {
+            this.task = task;
+        }
+
+        boolean expire() {
+            if(cancelled.get() || !expired.compareAndSet(false, true)) {
+                return false;
+            }
+            task.run();
+            return true;
+        }
+
+        @Override
+        public boolean cancel() {
+            return !expired.get() && cancelled.compareAndSet(false, true);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return cancelled.get();
+        }
+
+        @Override
+        public boolean isExpired() {
+            return expired.get();
+        }
+    }
+}
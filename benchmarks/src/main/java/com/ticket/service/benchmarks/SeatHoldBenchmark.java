@@ -0,0 +1,39 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks rendering the seats of a hold, which every reservation confirmation does
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SeatHoldBenchmark {
+    @Param({"legacy", "concurrent"})
+    public String implementation;
+
+    @Param({"2", "8", "50"})
+    public int partySize;
+
+    private SeatHold seatHold;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        TicketService ticketService = Venues.create(implementation, "30x33", new ManualExpiryScheduler());
+        //Takes a few seats first so the hold spans the middle of a row and the next one
+        ticketService.findAndHoldSeats(20, "abc@gmail.com");
+        seatHold = ticketService.findAndHoldSeats(partySize, "123@gmail.com");
+    }
+
+    @Benchmark
+    public String displaySeatsOnHold() {
+        return seatHold.displaySeatsOnHold();
+    }
+}
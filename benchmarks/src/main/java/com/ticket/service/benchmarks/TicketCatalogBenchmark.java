@@ -0,0 +1,65 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.Impl.PartitionedTicketCatalog;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketCatalog;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Benchmarks holds spread over many shows, run with more threads to see the catalog scale
+ *
+ * Each benchmark thread sticks to its own show, the way the load of an on-sale day is
+ * spread over many shows.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketCatalogBenchmark {
+    private static final int SHOWS = 64;
+
+    @Param({"1", "2", "4", "8"})
+    public int partitions;
+
+    private TicketCatalog ticketCatalog;
+    private ManualExpiryScheduler scheduler;
+    private final AtomicInteger nextShow = new AtomicInteger();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        scheduler = new ManualExpiryScheduler();
+        ticketCatalog = new PartitionedTicketCatalog(partitions, scheduler);
+        for(int show = 0; show < SHOWS; show++) {
+            ticketCatalog.addShow("show" + show, 100, 100, Venues.HOLD_DURATION);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        ticketCatalog.shutdown();
+    }
+
+    @State(Scope.Thread)
+    public static class ThreadShow {
+        String showId;
+
+        @Setup(Level.Trial)
+        public void setUp(TicketCatalogBenchmark benchmark) {
+            showId = "show" + benchmark.nextShow.getAndIncrement() % SHOWS;
+        }
+    }
+
+    @Benchmark
+    public SeatHold findAndHoldSeats(ThreadShow threadShow) {
+        SeatHold seatHold = ticketCatalog.findAndHoldSeats(threadShow.showId, 4, "123@gmail.com");
+        if(seatHold.getNumberOfSeatsOnHold() == 0) {
+            scheduler.expireAll();
+        }
+        return seatHold;
+    }
+}
@@ -0,0 +1,79 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the TicketService hot paths
+ *
+ * The state is shared by every benchmark thread so the numbers include the contention
+ * of the implementation. Holds are handed back to the venue by a ManualExpiryScheduler
+ * whenever it sells out, so findAndHoldSeats stays on its normal path. Reserved seats
+ * never come back, so the reserve benchmark rebuilds the venue once it sells out; that
+ * cost is spread over rows * cols / partySize operations.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TicketServiceBenchmark {
+    private static final String EMAIL = "123@gmail.com";
+
+    @Param({"legacy", "concurrent"})
+    public String implementation;
+
+    @Param({"9x33", "100x100", "400x250"})
+    public String venue;
+
+    @Param({"1", "4"})
+    public int partySize;
+
+    private volatile TicketService ticketService;
+    private ManualExpiryScheduler scheduler;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        scheduler = new ManualExpiryScheduler();
+        ticketService = Venues.create(implementation, venue, scheduler);
+    }
+
+    @Benchmark
+    public SeatHold findAndHoldSeats() {
+        SeatHold seatHold = ticketService.findAndHoldSeats(partySize, EMAIL);
+        if(seatHold.getNumberOfSeatsOnHold() == 0) {
+            scheduler.expireAll();
+        }
+        return seatHold;
+    }
+
+    @Benchmark
+    public Reservation findAndHoldThenReserveSeats() {
+        TicketService current = ticketService;
+        SeatHold seatHold = current.findAndHoldSeats(partySize, EMAIL);
+        if(seatHold.getNumberOfSeatsOnHold() == 0) {
+            soldOut(current);
+        }
+        return current.reserveSeats(seatHold.getId(), EMAIL);
+    }
+
+    @Benchmark
+    public int numSeatsAvailable() {
+        return ticketService.numSeatsAvailable();
+    }
+
+    /**
+     * Swaps in a fresh venue, once, for every thread that saw this one sell out
+     */
+    private synchronized void soldOut(TicketService current) {
+        if(ticketService == current) {
+            scheduler.shutdown();
+            ticketService = Venues.create(implementation, venue, scheduler);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.interfaces.TicketService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks how long a new venue takes before it can take traffic
+ *
+ * create only builds the venue, firstHold builds it and holds a party of four, so seats
+ * made on first use show up in the time too. 27x37037 is a million numbered seats, the
+ * most the lettered rows allow, and 1000x1000 is a million seats that are mostly lawn.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VenueStartupBenchmark {
+    @Param({"legacy", "concurrent"})
+    public String implementation;
+
+    @Param({"9x33", "27x37037", "1000x1000"})
+    public String venue;
+
+    @Benchmark
+    public TicketService create() {
+        return Venues.create(implementation, venue, new ManualExpiryScheduler());
+    }
+
+    @Benchmark
+    public int firstHold() {
+        return Venues.create(implementation, venue, new ManualExpiryScheduler()).findAndHoldSeats(4, "123@gmail.com").getNumberOfSeatsOnHold();
+    }
+}
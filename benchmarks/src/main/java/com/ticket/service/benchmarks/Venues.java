@@ -0,0 +1,37 @@
+package com.ticket.service.benchmarks;
+
+import com.ticket.service.TicketServiceFactory;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.TicketService;
+
+/**
+ * Builds the venues the benchmarks run against
+ */
+final class Venues {
+    static final long HOLD_DURATION = 3600; //Long enough that no hold expires on its own during a run
+
+    private Venues() {
+    }
+
+    /**
+     * Creates a ticket service
+     *
+     * @param implementation "legacy" for TicketServiceImpl, "concurrent" for ConcurrentTicketServiceImpl
+     * @param venue the size of the venue as rows x cols, e.g. 9x33
+     * @param scheduler the scheduler that expires the holds
+     * @return the ticket service
+     */
+    static TicketService create(String implementation, String venue, ExpiryScheduler scheduler) {
+        String[] size = venue.split("x");
+        int rows = Integer.parseInt(size[0]);
+        int cols = Integer.parseInt(size[1]);
+        switch(implementation) {
+            case "legacy":
+                return TicketServiceFactory.create(rows, cols, HOLD_DURATION, scheduler);
+            case "concurrent":
+                return TicketServiceFactory.createConcurrent(rows, cols, HOLD_DURATION, scheduler);
+            default:
+                throw new RuntimeException("Unknown implementation " + implementation);
+        }
+    }
+}
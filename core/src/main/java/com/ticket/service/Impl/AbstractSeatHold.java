@@ -0,0 +1,196 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.SeatHold;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hold lifecycle shared by the seat hold implementations
+ *
+ * A hold moves from held to reserved or from held to released exactly once, so a hold that
+ * is being reserved at the same moment it expires can never give its seats back to the venue.
+ * The moves are made under the lock of the hold, which also guards giving back part of the
+ * seats, so a hold never loses seats while it is being reserved or released.
+ *
+ * Extending a hold only moves its deadline. The expiry already scheduled is kept, and when
+ * it fires early it schedules itself once more for the time left, so a hold extended many
+ * times still costs one timeout at a time.
+ */
+abstract class AbstractSeatHold implements SeatHold {
+    private static final int HELD = 0; //Seats are on hold
+    private static final int RESERVED = 1; //Seats have been reserved by the customer
+    private static final int RELEASED = 2; //Hold expired and the seats went back to the venue
+
+    private int id; //Identification of the SeatHold
+    private String customerEmail; // customer email
+    private volatile long duration; // duration of the expiration hold in milliseconds, grows when extended
+    private long startTime; // Start time for the seat hold, System.nanoTime so reading the clock allocates nothing
+    private final AtomicInteger state; //Determines if the seats are held, reserved or released
+    private volatile ExpiryScheduler.Timeout holdExpires; //The scheduled release of the seats once the hold times expires
+    private volatile ExpiryScheduler scheduler; //Scheduler of the expiry, null until it is scheduled
+
+    /**
+     * Abstract Seat Hold Constructor for a hold that already has an id
+     *
+     * @param id - identification of the SeatHold
+     * @param customerEmail - customer email
+     * @param duration - duration of the expiration hold in milliseconds
+     */
+    AbstractSeatHold(int id, String customerEmail, long duration) {
+        this.customerEmail = customerEmail;
+        this.duration = duration;
+        this.startTime = System.nanoTime();
+        this.state = new AtomicInteger(HELD);
+        this.id = id;
+    }
+
+    /**
+     * Returns the seats of the hold to the venue, called once when the hold expires
+     */
+    protected abstract void releaseSeats();
+
+    /**
+     * Releases the seats that the hold was reserving, or waits longer if the hold was extended
+     */
+    private void holdExpires() {
+        synchronized(this) {
+            if(state.get() != HELD) {
+                return;
+            }
+            long remaining = holdTimeRemaining();
+            if(remaining > 0 && scheduler != null) {
+                holdExpires = scheduler.schedule(this::holdExpires, remaining);
+                return;
+            }
+            state.set(RELEASED);
+        }
+        //Only a hold that gave seats back counts as an expiry
+        if(scheduler != null && getNumberOfSeatsOnHold() > 0) {
+            scheduler.expired(System.nanoTime() - startTime - TimeUnit.MILLISECONDS.toNanos(duration));
+        }
+        releaseSeats();
+    }
+
+    /**
+     * Releases the seats right away, as if the hold had expired
+     *
+     * @return true if the hold was released, false if it was already reserved or released
+     */
+    boolean release() {
+        synchronized(this) {
+            if(state.get() != HELD) {
+                return false;
+            }
+            state.set(RELEASED);
+            ExpiryScheduler.Timeout timeout = holdExpires;
+            if(timeout != null) {
+                timeout.cancel();
+            }
+        }
+        releaseSeats();
+        return true;
+    }
+
+    /**
+     * Moves the deadline of the hold later
+     *
+     * @param millis milliseconds added to the hold
+     * @return true if the hold was extended, false if it was already reserved, released or past its deadline
+     */
+    synchronized boolean extend(long millis) {
+        if(state.get() != HELD || holdTimeRemaining() <= 0) {
+            return false;
+        }
+        duration += millis;
+        return true;
+    }
+
+    /**
+     * Checks that the hold is still on hold, for subclasses changing the seats under the lock of the hold
+     *
+     * @return true if the seats are on hold
+     */
+    boolean isHeld() {
+        return state.get() == HELD;
+    }
+
+    /**
+     * Schedules one expiry for a batch of holds made together
+     *
+     * Every hold of the batch has the same deadline, so a single timeout releases all of
+     * them. A hold of the batch that is reserved first is simply skipped when it fires, and a
+     * hold that got no seats is left out.
+     *
+     * @param scheduler the scheduler that fires the expiry
+     * @param seatHolds the holds of the batch, all made by AbstractSeatHold implementations
+     */
+    static void scheduleExpiry(ExpiryScheduler scheduler, SeatHold[] seatHolds) {
+        int held = 0;
+        for(SeatHold seatHold : seatHolds) {
+            //A hold that got no seats has nothing to expire
+            if(seatHold.getNumberOfSeatsOnHold() > 0) {
+                ((AbstractSeatHold) seatHold).scheduler = scheduler;
+                held++;
+            }
+        }
+        if(held == 0) {
+            return;
+        }
+        scheduler.schedule(() -> {
+            for(SeatHold seatHold : seatHolds) {
+                if(seatHold.getNumberOfSeatsOnHold() > 0) {
+                    ((AbstractSeatHold) seatHold).holdExpires();
+                }
+            }
+        }, seatHolds[0].holdTimeRemaining());
+    }
+
+    @Override
+    public int getId() {
+        return id;
+    }
+
+    @Override
+    public long holdTimeRemaining() {
+        return duration - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+    }
+
+    @Override
+    public String getEmail() {
+        return customerEmail;
+    }
+
+    @Override
+    public void scheduleExpiry(ExpiryScheduler scheduler) {
+        this.scheduler = scheduler;
+        holdExpires = scheduler.schedule(this::holdExpires, holdTimeRemaining());
+    }
+
+    @Override
+    public boolean hasReserved() {
+        return state.get() == RESERVED;
+    }
+
+    /**
+     * Determines if the hold expired and gave its seats back to the venue
+     *
+     * @return true if the seats were released
+     */
+    boolean isReleased() {
+        return state.get() == RELEASED;
+    }
+
+    @Override
+    public synchronized boolean markReserved() {
+        if(!state.compareAndSet(HELD, RESERVED)) {
+            return false;
+        }
+        ExpiryScheduler.Timeout timeout = holdExpires;
+        if(timeout != null) {
+            timeout.cancel();
+        }
+        return true;
+    }
+}
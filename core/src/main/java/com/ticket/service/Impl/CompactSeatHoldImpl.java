@@ -0,0 +1,128 @@
+package com.ticket.service.Impl;
+
+import java.util.Arrays;
+import java.util.function.Consumer;
+
+/**
+ * Seat Hold Implementation that keeps the seats as ids
+ *
+ * A seat id is row * cols + the position of the seat in the row, so the hold is one int
+ * per seat and the customer readable labels are only built when they are displayed.
+ */
+public class CompactSeatHoldImpl extends AbstractSeatHold {
+    private int cols; //Number of seats across the row
+    private volatile int[] seatIds; //Ids of the seats on hold, replaced and never changed in place when part of them is given back
+    private Consumer<int[]> seatReleaser; //Returns the seats to the venue once the hold expires
+
+    /**
+     * Compact SeatHold Constructor
+     *
+     * @param id - identification of the SeatHold
+     * @param seatIds - ids of the seats on hold
+     * @param customerEmail - customer email
+     * @param duration - duration of the expiration hold in milliseconds
+     * @param cols - number of seats across the row
+     * @param seatReleaser - returns the seats to the venue once the hold expires
+     */
+    public CompactSeatHoldImpl(int id, int[] seatIds, String customerEmail, long duration, int cols, Consumer<int[]> seatReleaser) {
+        super(id, customerEmail, duration);
+        this.seatIds = seatIds;
+        this.cols = cols;
+        this.seatReleaser = seatReleaser;
+    }
+
+    @Override
+    protected void releaseSeats() {
+        seatReleaser.accept(seatIds);
+    }
+
+    /**
+     * Takes part of the seats out of the hold, the caller gives them back to the venue
+     *
+     * Every seat has to be on hold and at least one seat has to stay, a hold gives back all
+     * of its seats by being released.
+     *
+     * @param droppedSeats ids of the seats to take out
+     * @return true if the seats were taken out, false if one is not on hold, none would stay
+     * or the hold was already reserved or released
+     */
+    synchronized boolean dropSeats(int[] droppedSeats) {
+        int[] heldSeats = seatIds;
+        if(!isHeld() || droppedSeats.length == 0 || droppedSeats.length >= heldSeats.length) {
+            return false;
+        }
+        boolean[] dropped = new boolean[heldSeats.length];
+        for(int seatId : droppedSeats) {
+            int index = indexOf(heldSeats, seatId);
+            if(index < 0 || dropped[index]) {
+                return false;
+            }
+            dropped[index] = true;
+        }
+        //The seats that stay keep their order, which keeps them grouped by row
+        int[] keptSeats = new int[heldSeats.length - droppedSeats.length];
+        int kept = 0;
+        for(int index = 0; index < heldSeats.length; index++) {
+            if(!dropped[index]) {
+                keptSeats[kept++] = heldSeats[index];
+            }
+        }
+        seatIds = keptSeats;
+        return true;
+    }
+
+    private static int indexOf(int[] seatIds, int seatId) {
+        for(int index = 0; index < seatIds.length; index++) {
+            if(seatIds[index] == seatId) {
+                return index;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the ids of the seats on hold
+     *
+     * @return the seat ids, row * cols + position in the row
+     */
+    @Override
+    public int[] getSeatIds() {
+        return seatIds;
+    }
+
+    @Override
+    public String displaySeatsOnHold() {
+        StringBuilder seatsOnHoldBuilder = new StringBuilder(seatIds.length * 6);
+
+        //Ids go row by row and left to right, so sorting them sorts the labels
+        int[] sortedSeats = seatIds.clone();
+        Arrays.sort(sortedSeats);
+        for(int index = 0; index < sortedSeats.length; index++) {
+            if(index > 0) {
+                seatsOnHoldBuilder.append(", ");
+            }
+            appendSeatNumber(seatsOnHoldBuilder, sortedSeats[index], cols);
+        }
+        return seatsOnHoldBuilder.toString();
+    }
+
+    @Override
+    public int getNumberOfSeatsOnHold() {
+        return seatIds.length;
+    }
+
+    /**
+     * Appends the customer readable seat number of a seat id
+     *
+     * @param builder where the seat number is appended
+     * @param seatId the seat id
+     * @param cols number of seats across the row
+     */
+    static void appendSeatNumber(StringBuilder builder, int seatId, int cols) {
+        String letter = TicketServiceImpl.convertToLetter(seatId / cols);
+        builder.append(letter);
+        if(!letter.equals("Lawn")) {
+            builder.append(':').append(seatId % cols + 1);
+        }
+    }
+}
@@ -0,0 +1,1215 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.SeatHoldFactory;
+import com.ticket.service.interfaces.CustomerIndexedTicketService;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.HoldChangingTicketService;
+import com.ticket.service.interfaces.PriceTier;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatMap;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.SeatMapTicketService;
+import com.ticket.service.interfaces.TicketEvents;
+import com.ticket.service.interfaces.TicketJournal;
+import com.ticket.service.interfaces.TicketService;
+import com.ticket.service.interfaces.TieredTicketService;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.StampedLock;
+import java.util.function.Predicate;
+
+/**
+ * Thread safe Ticket Service Implementation
+ *
+ * The venue is a set of rows, each a bitset of dense seat ids (row * cols + position) behind
+ * its own lock, grouped from the stage back into price tiers that keep their own counters,
+ * so requests only contend when they take seats from the same row and a hold kept to some
+ * tiers never looks at the others. Groups get the best block of seats side by side, or the
+ * best seats anywhere when no row has one, and holds keep only the ids they took, indexed by
+ * customer email for lookups, idempotent retries and the limit on the seats of a customer.
+ * A hold can give back part of its seats or be extended without a new timeout, holds that
+ * expire in the same tick give their seats back row by row as one batch, and the seat map is
+ * copied under optimistic reads of the row locks, sharing the rows that have not changed.
+ * With a journal each change is durable before its request returns, and a venue built on
+ * one replays it from its last snapshot.
+ */
+public class ConcurrentTicketServiceImpl implements CustomerIndexedTicketService, TieredTicketService,
+        HoldChangingTicketService, SeatMapTicketService {
+    private static final int TAKE = 0; //Takes seats out of their rows
+    private static final int RELEASE = 1; //Returns seats to their rows
+    private static final int RESERVE = 2; //Marks seats taken out of their rows as reserved
+    private static final String GENERAL = "General"; //Name of the one tier of a venue built without tiers
+    private static final int OPTIMISTIC_COPIES = 8; //Copies a seat map tries without locks before it locks the rows
+
+    private SeatRow[] seatRows; //The rows of the venue, each one a lock stripe
+    private StampedLock[] rowLocks; //Lock of each row, the seat map only ever reads them optimistically
+    private final AtomicReference<SeatMapImpl> seatMap = new AtomicReference<>(); //Latest seat map, shared by the readers until a row changes
+    private final StampedLock spanLock = new StampedLock(); //Read locked by every change that spans rows, write locked by a seat map copying under the row locks
+    private VenueTier[] tiers; //Price tiers of the venue from the stage back, each with its own count and run index
+    private VenueTier[] rowTiers; //Tier of each row
+    private List<PriceTier> priceTiers; //The price tiers as they were given
+    private int[] rankToPosition; //Position in the row of each seat ordered from the best seat, shared by every row
+    private HoldRegistry seatHolder; //Registry that holds all the seat holds objects
+    private CustomerIndex customers; //Holds of each customer
+    private ExpiryScheduler expiryScheduler; //Scheduler that controls the expiration of holds
+    private ExpiryBatcher<ExpiredHold> expiredSeats; //Expired holds waiting for their seats to go back to their rows
+    private long duration; //The duration of the expiration hold in seconds
+    private int cols; //Number of seats across the row
+    private TicketJournal journal; //Journal every change is appended to, null if the venue is not journaled
+
+    /**
+     * Concurrent Ticket Service Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public ConcurrentTicketServiceImpl(int rows, int cols, long duration) throws RuntimeException {
+        this(rows, cols, duration, HashedWheelExpiryScheduler.getDefault());
+    }
+
+    /**
+     * Concurrent Ticket Service Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @param expiryScheduler - scheduler that releases the seats of expired holds
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public ConcurrentTicketServiceImpl(int rows, int cols, long duration, ExpiryScheduler expiryScheduler) throws RuntimeException {
+        this(rows, cols, duration, expiryScheduler, null);
+    }
+
+    /**
+     * Concurrent Ticket Service Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @param expiryScheduler - scheduler that releases the seats of expired holds
+     * @param journal - journal the venue is recovered from and appends its changes to, null for none
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public ConcurrentTicketServiceImpl(int rows, int cols, long duration, ExpiryScheduler expiryScheduler, TicketJournal journal) throws RuntimeException {
+        this(rows, cols, duration, expiryScheduler, journal, null);
+    }
+
+    /**
+     * Concurrent Ticket Service Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @param expiryScheduler - scheduler that releases the seats of expired holds
+     * @param journal - journal the venue is recovered from and appends its changes to, null for none
+     * @param snapshot - snapshot the venue is recovered from before the rest of the journal, used if it exists and is not corrupt
+     * @throws RuntimeException if rows or cols is 0, or the snapshot is of another venue
+     */
+    public ConcurrentTicketServiceImpl(int rows, int cols, long duration, ExpiryScheduler expiryScheduler, TicketJournal journal, Path snapshot) throws RuntimeException {
+        this(generalAdmission(rows), cols, duration, expiryScheduler, journal, snapshot);
+    }
+
+    /**
+     * Concurrent Ticket Service Constructor for a venue sold by price tier
+     * @param priceTiers - tiers of the venue from the stage back, their rows make up the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @param expiryScheduler - scheduler that releases the seats of expired holds
+     * @param journal - journal the venue is recovered from and appends its changes to, null for none
+     * @param snapshot - snapshot the venue is recovered from before the rest of the journal, used if it exists and is not corrupt
+     * @throws RuntimeException if there are no tiers or cols is 0, two tiers share a name, or the snapshot is of another venue
+     */
+    public ConcurrentTicketServiceImpl(PriceTier[] priceTiers, int cols, long duration, ExpiryScheduler expiryScheduler, TicketJournal journal, Path snapshot) throws RuntimeException {
+        if(priceTiers.length == 0 || cols == 0) {
+            throw new RuntimeException("Rows and Columns cannot be zero!");
+        }
+        Set<String> names = new HashSet<>();
+        int rows = 0;
+        for(PriceTier priceTier : priceTiers) {
+            if(!names.add(priceTier.getName())) {
+                throw new RuntimeException("Price tier names must be unique!");
+            }
+            rows += priceTier.getRows();
+        }
+        this.cols = cols;
+        this.duration = duration;
+        this.priceTiers = Collections.unmodifiableList(new ArrayList<>(Arrays.asList(priceTiers)));
+        seatHolder = new HoldRegistry(duration * 1000);
+        customers = new CustomerIndex();
+        seatRows = new SeatRow[rows];
+        rowLocks = new StampedLock[rows];
+        rowTiers = new VenueTier[rows];
+        tiers = new VenueTier[priceTiers.length];
+        createAllSeats(priceTiers, cols);
+        this.expiryScheduler = expiryScheduler;
+        this.expiredSeats = new ExpiryBatcher<>(expiryScheduler, this::releaseExpiredSeats);
+        this.journal = journal;
+        if(journal != null) {
+            recover(journal, snapshot);
+        }
+    }
+
+    /**
+     * Counts the seats available, the seats of holds that expired count even before they are back in their rows
+     */
+    @Override
+    public int numSeatsAvailable() {
+        int seatsAvailable = 0;
+        for(VenueTier tier : tiers) {
+            seatsAvailable += tier.numSeatsAvailable();
+        }
+        return seatsAvailable;
+    }
+
+    @Override
+    public int numSeatsAvailable(String tierName) throws RuntimeException {
+        for(VenueTier tier : tiers) {
+            if(tier.priceTier.getName().equals(tierName)) {
+                return tier.numSeatsAvailable();
+            }
+        }
+        throw new RuntimeException("No price tier named " + tierName + "!");
+    }
+
+    @Override
+    public List<PriceTier> getPriceTiers() {
+        return priceTiers;
+    }
+
+    @Override
+    public SeatHold findAndHoldSeats(int numSeats, String customerEmail) {
+        return findAndHoldSeats(numSeats, customerEmail, null);
+    }
+
+    @Override
+    public SeatHold findAndHoldSeats(int numSeats, String customerEmail, String idempotencyKey) {
+        return findAndHoldSeats(numSeats, customerEmail, idempotencyKey, tiers);
+    }
+
+    /**
+     * Finds and holds the best seats of the tiers the customer accepts
+     *
+     * Only the tiers accepted are claimed from or searched, the first of them from the stage
+     * back with a block long enough seats the group together.
+     */
+    @Override
+    public SeatHold findAndHoldSeatsInTiers(int numSeats, String customerEmail, Predicate<PriceTier> accepted) {
+        List<VenueTier> eligible = new ArrayList<>(tiers.length);
+        for(VenueTier tier : tiers) {
+            if(accepted.test(tier.priceTier)) {
+                eligible.add(tier);
+            }
+        }
+        return findAndHoldSeats(numSeats, customerEmail, null, eligible.toArray(new VenueTier[0]));
+    }
+
+    /**
+     * Finds and holds seats in the tiers given, once per idempotency key
+     *
+     * @param numSeats the number of seats
+     * @param customerEmail the email address of the customer
+     * @param idempotencyKey key of the request chosen by the client, null for none
+     * @param eligible the tiers the seats can come from, from the stage back
+     * @return the hold, with no seats if not enough seats are available
+     */
+    private SeatHold findAndHoldSeats(int numSeats, String customerEmail, String idempotencyKey, VenueTier[] eligible) {
+        SeatHold seatHold;
+        if(customerEmail == null) {
+            seatHold = holdSeats(numSeats, null, eligible);
+        } else {
+            seatHold = customers.hold(customerEmail, idempotencyKey, numSeats, seats -> holdSeats(seats, customerEmail, eligible));
+            if(seatHold == null) {
+                //The customer is at the seat limit
+                seatHold = createHold(new int[0], customerEmail);
+            }
+        }
+
+        if(journal != null) {
+            journal.flush();
+        }
+        return seatHold;
+    }
+
+    @Override
+    public SeatHold findHold(String customerEmail, String idempotencyKey) {
+        return customers.find(customerEmail, idempotencyKey);
+    }
+
+    @Override
+    public List<SeatHold> findHolds(String customerEmail) {
+        return customers.find(customerEmail);
+    }
+
+    /**
+     * Sets the most seats a customer can have on hold and reserved at once
+     *
+     * A hold that would take the customer past the limit gets no seats.
+     *
+     * @param maxSeats the limit, Integer.MAX_VALUE for none
+     */
+    public void setMaxSeatsPerCustomer(int maxSeats) {
+        customers.setMaxSeats(maxSeats);
+    }
+
+    /**
+     * Gives back part of the seats of a hold
+     *
+     * The seats come out of the hold and go back to their rows like the seats of an expired
+     * hold, and the expiry of the hold stays scheduled for the seats left.
+     */
+    @Override
+    public boolean releaseSeats(int seatHoldId, String customerEmail, int[] seatIds) {
+        CompactSeatHoldImpl seatHold = findHeld(seatHoldId, customerEmail);
+        if(seatHold == null || seatIds.length == 0) {
+            return false;
+        }
+        int[] releasedSeats = seatIds.clone();
+        Arrays.sort(releasedSeats);
+        int[] heldSeats = seatHold.getSeatIds().clone();
+        Arrays.sort(heldSeats);
+
+        boolean released;
+        if(Arrays.equals(releasedSeats, heldSeats)) {
+            released = seatHold.release();
+            //The customer gets the seats back before the request returns, not on the next tick
+            expiredSeats.release();
+        } else {
+            released = customers.drop(seatHold, seatIds.length, () -> seatHold.dropSeats(seatIds));
+            if(released) {
+                //Appended before the seats are back, so a later hold of them is always after it in the journal
+                if(journal != null) {
+                    journal.release(seatHoldId, releasedSeats);
+                }
+                releaseSeats(releasedSeats);
+            }
+        }
+        if(released && journal != null) {
+            journal.flush();
+        }
+        return released;
+    }
+
+    /**
+     * Moves the deadline of a hold later
+     *
+     * The expiry already scheduled is kept and waits out the time added once it fires.
+     */
+    @Override
+    public boolean extendHold(int seatHoldId, String customerEmail, long millis) throws RuntimeException {
+        if(millis <= 0) {
+            throw new RuntimeException("Extension must be positive!");
+        }
+        CompactSeatHoldImpl seatHold = findHeld(seatHoldId, customerEmail);
+        if(seatHold == null || !seatHold.extend(millis)) {
+            return false;
+        }
+        if(journal != null) {
+            journal.extend(seatHoldId, System.currentTimeMillis() + seatHold.holdTimeRemaining());
+            journal.flush();
+        }
+        return true;
+    }
+
+    /**
+     * Finds and holds seats for a batch of customers
+     *
+     * When a venue of one tier can fill the whole batch its seats are claimed from the counter
+     * in one go, otherwise each request claims its own seats in order and the ones that can not
+     * be filled get a hold with no seats. The holds of the batch share one scheduled expiry.
+     *
+     * With a seat limit each request is held on its own, so it is checked against the
+     * holds of its customer.
+     */
+    @Override
+    public SeatHold[] findAndHoldSeats(int[] numSeats, String[] customerEmails) {
+        TicketService.checkBatch(numSeats.length, customerEmails.length);
+        if(customers.isLimited()) {
+            return CustomerIndexedTicketService.super.findAndHoldSeats(numSeats, customerEmails);
+        }
+        long totalSeats = 0;
+        for(int seats : numSeats) {
+            totalSeats += Math.max(seats, 0);
+        }
+        boolean claimed = tiers.length == 1 && totalSeats <= Integer.MAX_VALUE && claimSeats(tiers[0], (int) totalSeats);
+
+        SeatHold[] seatHolds = new SeatHold[numSeats.length];
+        for(int index = 0; index < numSeats.length; index++) {
+            int[] heldSeats = claimed ? takeSeats(tiers[0], numSeats[index]) : findSeats(numSeats[index], tiers);
+            seatHolds[index] = createHold(heldSeats, customerEmails[index]);
+            registerHold(seatHolds[index], heldSeats);
+            if(heldSeats.length > 0 && customerEmails[index] != null) {
+                customers.add(seatHolds[index]);
+            }
+        }
+
+        AbstractSeatHold.scheduleExpiry(expiryScheduler, seatHolds);
+        if(journal != null) {
+            //One wait on the disk for the whole batch
+            journal.flush();
+        }
+        return seatHolds;
+    }
+
+    @Override
+    public Reservation reserveSeats(int seatHoldId, String customerEmail) {
+        Reservation reservation = reserveAndMark(seatHoldId, customerEmail);
+        if(journal != null) {
+            journal.flush();
+        }
+        return reservation;
+    }
+
+    @Override
+    public Reservation[] reserveSeats(int[] seatHoldIds, String[] customerEmails) {
+        TicketService.checkBatch(seatHoldIds.length, customerEmails.length);
+        Reservation[] reservations = new Reservation[seatHoldIds.length];
+        for(int index = 0; index < seatHoldIds.length; index++) {
+            reservations[index] = reserveAndMark(seatHoldIds[index], customerEmails[index]);
+        }
+        if(journal != null) {
+            journal.flush();
+        }
+        return reservations;
+    }
+
+    /**
+     * Gets the status of every seat of the venue
+     *
+     * The map is the whole venue as it was at one moment, so a hold that spans rows shows up
+     * in all of its rows or in none. Every row counts its own changes and the changes that
+     * span rows read lock the span lock while they are made, so single row changes share
+     * nothing across the venue. A copy reads the changes of every row, checks that no change
+     * spanning rows is under way, copies the rows that changed since the last map and reads
+     * the changes again, and is only kept when none of them moved in between.
+     *
+     * After a few copies spoiled by writers the map is copied under the span lock and the
+     * read locks of the rows, which holds up the writers for one copy of the rows that
+     * changed, so a reader never starves however busy the venue is.
+     *
+     * Every map kept gets the version after the map it replaced, so two maps with one
+     * version are always the same.
+     */
+    @Override
+    public SeatMap getSeatMap() {
+        for(int attempt = 0; ; attempt++) {
+            SeatMapImpl last = seatMap.get();
+            SeatMapImpl taken = attempt < OPTIMISTIC_COPIES ? copyOptimistically(last) : copyLocked(last);
+            if(taken == null) {
+                //A writer holds a row for a handful of instructions
+                Thread.yield();
+            } else if(taken == last || seatMap.compareAndSet(last, taken)) {
+                return taken;
+            }
+            //Otherwise another reader kept a map first, and the next copy starts from its map
+        }
+    }
+
+    /**
+     * Copies the venue without taking a lock
+     *
+     * @param last the last map kept, null if none was taken yet
+     * @return the map, the last map if no row changed since, null if a writer got in during the copy
+     */
+    private SeatMapImpl copyOptimistically(SeatMapImpl last) {
+        long[] rowChanges = new long[seatRows.length];
+        for(int row = 0; row < seatRows.length; row++) {
+            rowChanges[row] = readChanges(row);
+            if(rowChanges[row] < 0) {
+                return null;
+            }
+        }
+        if(unchanged(last, rowChanges)) {
+            return last;
+        }
+        //A change spanning rows that was under way when the changes were read still holds the span lock
+        if(spanLock.isReadLocked()) {
+            return null;
+        }
+        long[][] free = new long[seatRows.length][];
+        long[][] reserved = new long[seatRows.length][];
+        for(int row = 0; row < seatRows.length; row++) {
+            if(last != null && last.getRowChanges(row) == rowChanges[row]) {
+                free[row] = last.getFree(row);
+                reserved[row] = last.getReserved(row);
+                continue;
+            }
+            free[row] = new long[(cols + 63) >>> 6];
+            reserved[row] = new long[free[row].length];
+            StampedLock lock = rowLocks[row];
+            long stamp = lock.tryOptimisticRead();
+            if(stamp == 0 || seatRows[row].copyTo(free[row], reserved[row]) != rowChanges[row] || !lock.validate(stamp)) {
+                return null;
+            }
+        }
+        //Every row still at the changes first read, so the rows were all as copied at one moment
+        for(int row = 0; row < seatRows.length; row++) {
+            if(readChanges(row) != rowChanges[row]) {
+                return null;
+            }
+        }
+        return new SeatMapImpl(this, cols, free, reserved, rowChanges, last == null ? 1 : last.getVersion() + 1);
+    }
+
+    /**
+     * Copies the venue under the span lock and the read locks of the rows
+     *
+     * @param last the last map kept, null if none was taken yet
+     * @return the map, the last map if no row changed since
+     */
+    private SeatMapImpl copyLocked(SeatMapImpl last) {
+        long spanStamp = spanLock.writeLock();
+        long[] stamps = new long[seatRows.length];
+        try {
+            for(int row = 0; row < seatRows.length; row++) {
+                stamps[row] = rowLocks[row].readLock();
+            }
+            long[] rowChanges = new long[seatRows.length];
+            for(int row = 0; row < seatRows.length; row++) {
+                rowChanges[row] = seatRows[row].getChanges();
+            }
+            if(unchanged(last, rowChanges)) {
+                return last;
+            }
+            long[][] free = new long[seatRows.length][];
+            long[][] reserved = new long[seatRows.length][];
+            for(int row = 0; row < seatRows.length; row++) {
+                if(last != null && last.getRowChanges(row) == rowChanges[row]) {
+                    free[row] = last.getFree(row);
+                    reserved[row] = last.getReserved(row);
+                } else {
+                    free[row] = new long[(cols + 63) >>> 6];
+                    reserved[row] = new long[free[row].length];
+                    seatRows[row].copyTo(free[row], reserved[row]);
+                }
+            }
+            return new SeatMapImpl(this, cols, free, reserved, rowChanges, last == null ? 1 : last.getVersion() + 1);
+        } finally {
+            for(int row = 0; row < seatRows.length; row++) {
+                if(stamps[row] != 0) {
+                    rowLocks[row].unlockRead(stamps[row]);
+                }
+            }
+            spanLock.unlockWrite(spanStamp);
+        }
+    }
+
+    /**
+     * Reads the changes made to a row without taking its lock
+     *
+     * @param row the row
+     * @return the changes, -1 if a writer holds the row
+     */
+    private long readChanges(int row) {
+        StampedLock lock = rowLocks[row];
+        long stamp = lock.tryOptimisticRead();
+        if(stamp == 0) {
+            return -1;
+        }
+        long changes = seatRows[row].getChanges();
+        return lock.validate(stamp) ? changes : -1;
+    }
+
+    /**
+     * Determines if no row changed since a map was taken
+     *
+     * @param last the map, null if none was taken yet
+     * @param rowChanges the changes of each row now
+     * @return true if every row is as it was in the map
+     */
+    private static boolean unchanged(SeatMapImpl last, long[] rowChanges) {
+        if(last == null) {
+            return false;
+        }
+        for(int row = 0; row < rowChanges.length; row++) {
+            if(last.getRowChanges(row) != rowChanges[row]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reserves a hold and marks its seats reserved in their rows
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param customerEmail the email address of the customer
+     * @return the reservation with its confirmation code, otherwise why the seats were not reserved
+     */
+    private Reservation reserveAndMark(int seatHoldId, String customerEmail) {
+        Reservation reservation = reserve(seatHolder, seatHoldId, customerEmail, journal);
+        if(reservation.isReserved()) {
+            //The seat map shows the seats as held until here, reserved seats never go back to their rows
+            changeSeats(reservation.getSeatIds(), RESERVE);
+        }
+        return reservation;
+    }
+
+    /**
+     * Reserves a hold for the customer, safe against the hold expiring at the same moment
+     *
+     * A hold that is reserved is archived in the registry.
+     *
+     * @param seatHolder the registry of the holds
+     * @param seatHoldId the seat hold identifier
+     * @param customerEmail the email address of the customer
+     * @param events receives the reservation once it is made, null for none
+     * @return the reservation with its confirmation code, otherwise why the seats were not reserved
+     */
+    static Reservation reserve(HoldRegistry seatHolder, int seatHoldId, String customerEmail, TicketEvents events) {
+        SeatHold seatHold = seatHolder.get(seatHoldId);
+        if(seatHold == null) {
+            return ReservationImpl.failed(Reservation.Status.NOT_FOUND, seatHoldId, customerEmail, null);
+        } else if(seatHold.hasReserved()) {
+            return ReservationImpl.failed(Reservation.Status.ALREADY_RESERVED, seatHoldId, customerEmail, seatHold);
+        } else if(customerEmail == null || !seatHold.getEmail().equals(customerEmail)) {
+            return ReservationImpl.failed(Reservation.Status.EMAIL_MISMATCH, seatHoldId, customerEmail, seatHold);
+        } else if(seatHold.holdTimeRemaining() > 0 && seatHold.markReserved()) {
+            seatHolder.reserved(seatHold);
+            if(events != null) {
+                events.reserve(seatHoldId);
+            }
+            return ReservationImpl.reserved(seatHold, customerEmail);
+        } else if(seatHold.hasReserved()) {
+            //Another request for the same hold won the reservation
+            return ReservationImpl.failed(Reservation.Status.ALREADY_RESERVED, seatHoldId, customerEmail, seatHold);
+        } else {
+            return ReservationImpl.failed(Reservation.Status.EXPIRED, seatHoldId, customerEmail, seatHold);
+        }
+    }
+
+    /**
+     * Writes a snapshot of the holds and reservations without stopping requests
+     *
+     * @param file snapshot file, replaced once the new snapshot is complete
+     * @throws RuntimeException if the venue has no journal or the snapshot can not be written
+     */
+    public void writeSnapshot(Path file) throws RuntimeException {
+        if(journal == null) {
+            throw new RuntimeException("Snapshots need a journal!");
+        }
+        //Taken first, every change the snapshot might miss is in the journal after it
+        long journalPosition = journal.position();
+        VenueSnapshot.write(file, seatRows.length, cols, journalPosition, seatHolder.values());
+    }
+
+    /**
+     * Finds, holds and registers the seats for one request and starts its expiry
+     *
+     * @param numSeats the number of seats
+     * @param customerEmail the email address of the customer
+     * @param eligible the tiers the seats can come from
+     * @return the hold, with no seats if not enough seats are available
+     */
+    private SeatHold holdSeats(int numSeats, String customerEmail, VenueTier[] eligible) {
+        //Finds and holds the seats, 0 if fail to fill all seats requested
+        int[] heldSeats = findSeats(numSeats, eligible);
+
+        SeatHold seatHold = createHold(heldSeats, customerEmail);
+        //Adds to the seatHolder registry
+        registerHold(seatHold, heldSeats);
+
+        //Starts the hold expiration timer
+        if(heldSeats.length > 0) {
+            seatHold.scheduleExpiry(expiryScheduler);
+        }
+        return seatHold;
+    }
+
+    /**
+     * Finds a hold of a customer
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param customerEmail the email address of the customer
+     * @return the hold, null if there is none or it is for another customer
+     */
+    private CompactSeatHoldImpl findHeld(int seatHoldId, String customerEmail) {
+        SeatHold seatHold = seatHolder.get(seatHoldId);
+        if(seatHold == null || customerEmail == null || !customerEmail.equals(seatHold.getEmail())) {
+            return null;
+        }
+        return (CompactSeatHoldImpl) seatHold;
+    }
+
+    /**
+     * Creates the hold for the seats taken with the next id of the registry
+     *
+     * @param heldSeats ids of the seats taken
+     * @param customerEmail the email address of the customer
+     * @return the hold
+     */
+    private SeatHold createHold(int[] heldSeats, String customerEmail) {
+        int seatHoldId = seatHolder.nextId();
+        return SeatHoldFactory.create(seatHoldId, heldSeats, customerEmail, duration * 1000, cols, seatIds -> expireSeats(seatHoldId, customerEmail, seatIds));
+    }
+
+    /**
+     * Adds a hold to the registry and then appends it to the journal
+     *
+     * A snapshot that starts after the append is sure to find the hold in the registry, and
+     * one that starts before it replays the append. Holds that got no seats are neither
+     * registered nor journaled, there is nothing they can be reserved for.
+     *
+     * @param seatHold the hold
+     * @param heldSeats ids of the seats taken
+     */
+    private void registerHold(SeatHold seatHold, int[] heldSeats) {
+        if(heldSeats.length == 0) {
+            return;
+        }
+        seatHolder.add(seatHold);
+        if(journal != null) {
+            journal.hold(seatHold.getId(), seatHold.getEmail(), System.currentTimeMillis() + seatHold.holdTimeRemaining(), heldSeats);
+        }
+    }
+
+    /**
+     * Rebuilds the holds and reservations of the snapshot and the journal after it
+     *
+     * Holds that expired while the venue was down are dropped, their seats never left the
+     * venue. The rest take their seats back, and the ones not reserved expire when they
+     * would have if the venue had kept running.
+     *
+     * @param journal the journal to replay
+     * @param snapshot the snapshot to start from, null, missing or corrupt to replay the whole journal
+     */
+    private void recover(TicketJournal journal, Path snapshot) {
+        JournalReplay replay = new JournalReplay();
+        long journalPosition = 0;
+        if(snapshot != null && Files.exists(snapshot)) {
+            journalPosition = VenueSnapshot.read(snapshot, seatRows.length, cols, replay);
+            if(journalPosition < 0) {
+                //The journal holds every change, the snapshot only saves replaying the start of it
+                System.err.println("Snapshot " + snapshot + " is corrupt, replaying the whole journal");
+                journalPosition = 0;
+            }
+        }
+        journal.replay(replay, journalPosition);
+
+        long now = System.currentTimeMillis();
+        for(JournalReplay.JournaledHold hold : replay.holds.values()) {
+            long remaining = hold.expiresAt - now;
+            if(!hold.reserved && remaining <= 0) {
+                continue;
+            }
+            changeSeats(hold.seatIds, TAKE);
+
+            int seatHoldId = hold.seatHoldId;
+            String customerEmail = hold.customerEmail;
+            SeatHold seatHold = SeatHoldFactory.create(seatHoldId, hold.seatIds, customerEmail, Math.max(remaining, 0), cols, seatIds -> expireSeats(seatHoldId, customerEmail, seatIds));
+            seatHolder.advancePast(seatHoldId);
+            seatHolder.add(seatHold);
+            if(customerEmail != null) {
+                customers.add(seatHold);
+            }
+            if(hold.reserved) {
+                seatHold.markReserved();
+                seatHolder.reserved(seatHold);
+                changeSeats(hold.seatIds, RESERVE);
+            } else {
+                seatHold.scheduleExpiry(expiryScheduler);
+            }
+        }
+    }
+
+    /**
+     * Makes the one tier of a venue that is not sold by price tier
+     *
+     * @param rows rows of the venue
+     * @return the tier
+     * @throws RuntimeException if rows is 0
+     */
+    private static PriceTier[] generalAdmission(int rows) throws RuntimeException {
+        if(rows == 0) {
+            throw new RuntimeException("Rows and Columns cannot be zero!");
+        }
+        return new PriceTier[] {new PriceTierImpl(GENERAL, rows, 0)};
+    }
+
+    /**
+     * Creates all the seats base on the tiers of the venue, one row per stripe
+     *
+     * Seats are ranked the same way TicketServiceImpl ranks them, so the best seats
+     * are always found in the lowest rows and in the middle of each row.
+     *
+     * @param priceTiers tiers of the venue from the stage back
+     * @param cols cols of the venue
+     */
+    private void createAllSeats(PriceTier[] priceTiers, int cols) {
+        rankToPosition = SeatInventory.rankToPosition(cols);
+        int row = 0;
+        for(int index = 0; index < priceTiers.length; index++) {
+            VenueTier tier = new VenueTier(priceTiers[index], row, cols);
+            tiers[index] = tier;
+            for(int tierRow = 0; tierRow < priceTiers[index].getRows(); tierRow++, row++) {
+                seatRows[row] = new SeatRow(row, cols, rankToPosition);
+                seatRows[row].fill();
+                rowLocks[row] = new StampedLock();
+                rowTiers[row] = tier;
+                tier.runIndex.update(tierRow, cols);
+            }
+        }
+    }
+
+    /**
+     * Finds the best seats of the tiers for the number of seats being held
+     *
+     * The seats are claimed from the counter of a tier before any of its rows is touched, so
+     * once the claim succeeds enough seats are guaranteed to be somewhere in the rows of the
+     * tier. A seat released into a row that was already passed is picked up by scanning the
+     * rows again.
+     *
+     * A group that fits no tier on its own gets the best seats of the tiers in order, claiming
+     * what each tier has left. When the tiers together are short the claims are given back,
+     * and requests claiming at that moment can find those tiers short too.
+     *
+     * @param numSeats the number of seats
+     * @param eligible the tiers the seats can come from, from the stage back
+     * @return the ids of the seats being held otherwise empty array
+     */
+    private int[] findSeats(int numSeats, VenueTier[] eligible) {
+        if(numSeats <= 0 || eligible.length == 0) {
+            return new int[0];
+        }
+        if(eligible.length == 1) {
+            return claimSeats(eligible[0], numSeats) ? takeSeats(eligible[0], numSeats) : new int[0];
+        }
+        if(numSeats <= cols) {
+            for(VenueTier tier : eligible) {
+                if(tier.hasRun(numSeats) && claimSeats(tier, numSeats)) {
+                    return takeSeats(tier, numSeats);
+                }
+            }
+        }
+
+        //No tier can seat the group together, so it gets the best seats of the tiers in order
+        int[] claimed = new int[eligible.length];
+        int total = 0;
+        for(int index = 0; index < eligible.length && total < numSeats; index++) {
+            claimed[index] = claimUpTo(eligible[index], numSeats - total);
+            total += claimed[index];
+        }
+        if(total < numSeats) {
+            for(int index = 0; index < eligible.length; index++) {
+                eligible[index].seatsAvailable.addAndGet(claimed[index]);
+            }
+            return new int[0];
+        }
+        int[] heldSeats = new int[numSeats];
+        int taken = 0;
+        long spanStamp = spanLock.readLock();
+        try {
+            for(int index = 0; index < eligible.length && taken < numSeats; index++) {
+                spreadSeats(eligible[index], claimed[index], heldSeats, taken);
+                taken += claimed[index];
+            }
+        } finally {
+            spanLock.unlockRead(spanStamp);
+        }
+        return heldSeats;
+    }
+
+    /**
+     * Takes the best seats of a tier for seats that were already claimed from its counter
+     *
+     * @param tier the tier the seats were claimed from
+     * @param numSeats the number of seats claimed
+     * @return the ids of the seats being held
+     */
+    private int[] takeSeats(VenueTier tier, int numSeats) {
+        if(numSeats <= 0) {
+            return new int[0];
+        }
+
+        int[] heldSeats = new int[numSeats];
+        if(numSeats <= cols && findBlock(tier, numSeats, heldSeats)) {
+            return heldSeats;
+        }
+
+        //No row can seat the group together, so it gets the best seats wherever they are
+        long spanStamp = spanLock.readLock();
+        try {
+            spreadSeats(tier, numSeats, heldSeats, 0);
+        } finally {
+            spanLock.unlockRead(spanStamp);
+        }
+        return heldSeats;
+    }
+
+    /**
+     * Takes the best seats of a tier wherever they are, for seats already claimed from its counter
+     *
+     * @param tier the tier the seats were claimed from
+     * @param numSeats the number of seats claimed
+     * @param heldSeats array the ids of the seats taken are written to
+     * @param offset index in heldSeats of the first seat taken
+     */
+    private void spreadSeats(VenueTier tier, int numSeats, int[] heldSeats, int offset) {
+        int lastRow = tier.firstRow + tier.priceTier.getRows();
+        int taken = 0;
+        while(taken < numSeats) {
+            for(int row = tier.firstRow; row < lastRow && taken < numSeats; row++) {
+                SeatRow seatRow = seatRows[row];
+                long stamp = rowLocks[row].writeLock();
+                try {
+                    int rowTaken = seatRow.take(numSeats - taken, heldSeats, offset + taken);
+                    if(rowTaken > 0) {
+                        taken += rowTaken;
+                        publishRuns(row, seatRow);
+                    }
+                } finally {
+                    rowLocks[row].unlockWrite(stamp);
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds the first row of a tier with a block long enough and takes the best block in it
+     *
+     * The index can be behind a row that another thread is changing, so a row that turns
+     * out to be too full is skipped and the search tried again, once per row at most.
+     *
+     * @param tier the tier to seat the group in
+     * @param numSeats the number of seats that have to sit together
+     * @param heldSeats array the ids of the seats taken are written to
+     * @return true if the group was seated together, false otherwise
+     */
+    private boolean findBlock(VenueTier tier, int numSeats, int[] heldSeats) {
+        for(int attempt = 0; attempt < tier.priceTier.getRows(); attempt++) {
+            int row;
+            synchronized(tier.runIndex) {
+                row = tier.runIndex.firstRowWithRun(numSeats);
+            }
+            if(row < 0) {
+                return false;
+            }
+            row += tier.firstRow;
+            SeatRow seatRow = seatRows[row];
+            long stamp = rowLocks[row].writeLock();
+            try {
+                if(seatRow.takeBlock(numSeats, heldSeats, 0)) {
+                    publishRuns(row, seatRow);
+                    return true;
+                }
+            } finally {
+                rowLocks[row].unlockWrite(stamp);
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Publishes the longest run of a row to the index of its tier
+     *
+     * Called while the row lock is held, so the index never goes back to a stale value.
+     *
+     * @param row the row that changed
+     * @param seatRow the seats of the row
+     */
+    private void publishRuns(int row, SeatRow seatRow) {
+        VenueTier tier = rowTiers[row];
+        synchronized(tier.runIndex) {
+            tier.runIndex.update(row - tier.firstRow, seatRow.getMaxRun());
+        }
+    }
+
+    /**
+     * Claims seats from the available counter of a tier
+     *
+     * @param tier the tier
+     * @param numSeats the number of seats
+     * @return true if the seats were claimed, false if not enough seats are available
+     */
+    private static boolean claimSeats(VenueTier tier, int numSeats) {
+        int available;
+        do {
+            available = tier.seatsAvailable.get();
+            if(numSeats > available) {
+                return false;
+            }
+        } while(!tier.seatsAvailable.compareAndSet(available, available - numSeats));
+        return true;
+    }
+
+    /**
+     * Claims as many seats as a tier has left, up to max
+     *
+     * @param tier the tier
+     * @param max the most seats to claim
+     * @return the number of seats claimed
+     */
+    private static int claimUpTo(VenueTier tier, int max) {
+        int available;
+        int claimed;
+        do {
+            available = tier.seatsAvailable.get();
+            claimed = Math.min(available, max);
+            if(claimed <= 0) {
+                return 0;
+            }
+        } while(!tier.seatsAvailable.compareAndSet(available, available - claimed));
+        return claimed;
+    }
+
+    /**
+     * Returns the seats of an expired hold back to their rows
+     *
+     * Holds keep their seats grouped by row, so each row is locked once for all of its seats.
+     * The counter of a tier is only increased after the seats are back in its row.
+     *
+     * @param seatIds ids of the seats being released
+     */
+    private void releaseSeats(int[] seatIds) {
+        changeSeats(seatIds, RELEASE);
+    }
+
+    /**
+     * Gives the seats of a batch of expired holds back to their rows in one pass
+     *
+     * The holds leave their customers and are queued for eviction once their seats are back,
+     * so a customer never has more room to hold seats than the venue has seats.
+     *
+     * @param expired the holds being released
+     */
+    private void releaseExpiredSeats(List<ExpiredHold> expired) {
+        List<ExpiredHold> returned = new ArrayList<>(expired.size());
+        int total = 0;
+        for(ExpiredHold expiredHold : expired) {
+            if(expiredHold.markReturned()) {
+                returned.add(expiredHold);
+                total += expiredHold.seatIds.length;
+            }
+        }
+        int[] batch = new int[total];
+        int length = 0;
+        for(ExpiredHold expiredHold : returned) {
+            System.arraycopy(expiredHold.seatIds, 0, batch, length, expiredHold.seatIds.length);
+            length += expiredHold.seatIds.length;
+        }
+        //Sorting the ids groups the seats of every hold by row
+        Arrays.sort(batch);
+        try {
+            releaseSeats(batch);
+        } finally {
+            //The holds were taken back even if their seats did not all make it, so they are never given back twice
+            countExpiring(batch, -1);
+            for(ExpiredHold expiredHold : returned) {
+                seatHolder.expired(expiredHold.seatHoldId);
+                if(expiredHold.customerEmail != null) {
+                    customers.expired(expiredHold.customerEmail, expiredHold.seatHoldId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Counts seats of expired holds on their way back to their rows, or off once they are back
+     *
+     * @param seatIds ids of the seats, grouped by row
+     * @param sign 1 when the hold expires, -1 once its seats are back
+     */
+    private void countExpiring(int[] seatIds, int sign) {
+        int from = 0;
+        while(from < seatIds.length) {
+            VenueTier tier = rowTiers[seatIds[from] / cols];
+            int to = from + 1;
+            while(to < seatIds.length && rowTiers[seatIds[to] / cols] == tier) {
+                to++;
+            }
+            tier.seatsExpiring.addAndGet(sign * (to - from));
+            from = to;
+        }
+    }
+
+    /**
+     * Appends the expiry of a hold to the journal and queues it to go back with the next batch
+     *
+     * The expiry is appended first, so a later hold of the same seats is always after it in the journal.
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param customerEmail the email address of the customer
+     * @param seatIds ids of the seats being released
+     */
+    private void expireSeats(int seatHoldId, String customerEmail, int[] seatIds) {
+        if(seatIds.length == 0) {
+            return;
+        }
+        if(journal != null) {
+            journal.expire(seatHoldId);
+        }
+        //Counted before it is queued, so the count of the venue never misses the seats
+        countExpiring(seatIds, 1);
+        expiredSeats.add(new ExpiredHold(seatHoldId, customerEmail, seatIds));
+    }
+
+    /**
+     * Returns seats to their rows, takes them out or marks them reserved, locking each row once for all of its seats
+     *
+     * Seats returned count towards their tier once they are back in the row, seats taken out
+     * when the journal is replayed are taken off their tier.
+     *
+     * @param seatIds ids of the seats, grouped by row
+     * @param change TAKE, RELEASE or RESERVE
+     */
+    private void changeSeats(int[] seatIds, int change) {
+        //Seats are grouped by row, so the first and the last seat tell if the change spans rows
+        if(seatIds.length == 0 || seatIds[0] / cols == seatIds[seatIds.length - 1] / cols) {
+            changeRows(seatIds, change);
+            return;
+        }
+        long spanStamp = spanLock.readLock();
+        try {
+            changeRows(seatIds, change);
+        } finally {
+            spanLock.unlockRead(spanStamp);
+        }
+    }
+
+    /**
+     * Makes a change to the seats of the venue row by row
+     */
+    private void changeRows(int[] seatIds, int change) {
+        int from = 0;
+        while(from < seatIds.length) {
+            int row = seatIds[from] / cols;
+            int to = from + 1;
+            while(to < seatIds.length && seatIds[to] / cols == row) {
+                to++;
+            }
+            SeatRow seatRow = seatRows[row];
+            long stamp = rowLocks[row].writeLock();
+            try {
+                if(change == RESERVE) {
+                    seatRow.reserve(seatIds, from, to);
+                } else {
+                    if(change == RELEASE) {
+                        seatRow.release(seatIds, from, to);
+                    } else {
+                        seatRow.take(seatIds, from, to);
+                    }
+                    publishRuns(row, seatRow);
+                }
+            } finally {
+                rowLocks[row].unlockWrite(stamp);
+            }
+            if(change == RELEASE) {
+                rowTiers[row].seatsAvailable.addAndGet(to - from);
+            } else if(change == TAKE) {
+                rowTiers[row].seatsAvailable.addAndGet(from - to);
+            }
+            from = to;
+        }
+    }
+
+    /**
+     * A price tier of the venue with the count and run index of its rows
+     */
+    private static final class VenueTier {
+        private final PriceTier priceTier; //Name, rows and price of the tier
+        private final int firstRow; //First row of the tier in the venue
+        private final AtomicInteger seatsAvailable; //Seats of the tier that are neither held nor reserved
+        private final AtomicInteger seatsExpiring; //Seats of expired holds of the tier not yet back in their rows
+        private final RowRunIndex runIndex; //Longest block available in each row of the tier, guarded by itself
+
+        VenueTier(PriceTier priceTier, int firstRow, int cols) {
+            this.priceTier = priceTier;
+            this.firstRow = firstRow;
+            this.seatsAvailable = new AtomicInteger(priceTier.getRows() * cols);
+            this.seatsExpiring = new AtomicInteger();
+            this.runIndex = new RowRunIndex(priceTier.getRows());
+        }
+
+        /**
+         * Seats a customer can have, the seats of expired holds are back with the next release
+         *
+         * The seats come back into their rows before they are counted off as expiring, so
+         * for a moment they can count twice but never go missing.
+         */
+        private int numSeatsAvailable() {
+            return seatsAvailable.get() + seatsExpiring.get();
+        }
+
+        private boolean hasRun(int numSeats) {
+            synchronized(runIndex) {
+                return runIndex.firstRowWithRun(numSeats) >= 0;
+            }
+        }
+    }
+
+    /**
+     * Collects the holds of a snapshot and journal that were not expired, in the order they were made
+     *
+     * Replaying an event twice changes nothing, which lets a snapshot overlap its journal.
+     */
+    private static final class JournalReplay implements TicketEvents {
+        private final LinkedHashMap<Integer, JournaledHold> holds = new LinkedHashMap<>();
+
+        @Override
+        public void hold(int seatHoldId, String customerEmail, long expiresAt, int[] seatIds) {
+            holds.putIfAbsent(seatHoldId, new JournaledHold(seatHoldId, customerEmail, expiresAt, seatIds));
+        }
+
+        @Override
+        public void reserve(int seatHoldId) {
+            JournaledHold hold = holds.get(seatHoldId);
+            if(hold != null) {
+                hold.reserved = true;
+            }
+        }
+
+        @Override
+        public void expire(int seatHoldId) {
+            holds.remove(seatHoldId);
+        }
+
+        @Override
+        public void release(int seatHoldId, int[] seatIds) {
+            JournaledHold hold = holds.get(seatHoldId);
+            if(hold != null) {
+                int[] released = seatIds.clone();
+                Arrays.sort(released);
+                hold.seatIds = Arrays.stream(hold.seatIds).filter(seatId -> Arrays.binarySearch(released, seatId) < 0).toArray();
+            }
+        }
+
+        @Override
+        public void extend(int seatHoldId, long expiresAt) {
+            JournaledHold hold = holds.get(seatHoldId);
+            if(hold != null) {
+                hold.expiresAt = Math.max(hold.expiresAt, expiresAt);
+            }
+        }
+
+        private static final class JournaledHold {
+            private final int seatHoldId;
+            private final String customerEmail;
+            private long expiresAt;
+            private int[] seatIds;
+            private boolean reserved;
+
+            JournaledHold(int seatHoldId, String customerEmail, long expiresAt, int[] seatIds) {
+                this.seatHoldId = seatHoldId;
+                this.customerEmail = customerEmail;
+                this.expiresAt = expiresAt;
+                this.seatIds = seatIds;
+            }
+        }
+    }
+
+    /**
+     * Seats of an expired hold waiting to go back to their rows
+     */
+    private static final class ExpiredHold extends ExpiryBatcher.Expired {
+        private final int seatHoldId; //Identification of the SeatHold
+        private final String customerEmail; //customer email, null for a hold of no customer
+        private final int[] seatIds; //The seats being released
+
+        ExpiredHold(int seatHoldId, String customerEmail, int[] seatIds) {
+            this.seatHoldId = seatHoldId;
+            this.customerEmail = customerEmail;
+            this.seatIds = seatIds;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.Reservation;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Makes the confirmation codes of reservations without threads waiting on each other
+ *
+ * Each thread takes a lane once and then counts within it, so the lane and the count are
+ * never the same twice in the process. The pair is encrypted as one AES block under a key
+ * drawn from SecureRandom when the class loads, which keeps the codes unique and makes
+ * them impossible to guess or to count forward from one seen, while only the key ever
+ * costs SecureRandom. The cipher and its buffers belong to the thread, so a code is one
+ * block encryption with no lock and no allocation.
+ */
+final class ConfirmationCodes {
+    private static final String ALPHABET = "0123456789ABCDEFGHJKMNPQRSTVWXYZ"; //Base 32 digits, no I, L, O or U
+    private static final int CODE_LENGTH = 26; //Base 32 digits of a 128 bit code
+    private static final SecretKeySpec KEY = newKey(); //Key of the codes of this process
+    private static final AtomicLong LANES = new AtomicLong(); //Lanes handed out to threads
+    private static final ThreadLocal<ConfirmationCodes> CODES = ThreadLocal.withInitial(ConfirmationCodes::new);
+
+    private final Cipher cipher; //Encrypts the blocks of this thread
+    private final ByteBuffer plain; //Lane and count being encrypted
+    private final byte[] encrypted; //Last code as bytes
+    private final ByteBuffer code; //Reads the last code as longs
+    private final long lane; //Lane of this thread
+    private long count; //Codes made in the lane
+    private long high; //First half of the last code
+    private long low; //Second half of the last code
+
+    private ConfirmationCodes() {
+        try {
+            cipher = Cipher.getInstance("AES/ECB/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, KEY);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("AES is not available!", e);
+        }
+        plain = ByteBuffer.allocate(16);
+        encrypted = new byte[16];
+        code = ByteBuffer.wrap(encrypted);
+        lane = LANES.getAndIncrement();
+    }
+
+    /**
+     * Gets the codes of the calling thread
+     *
+     * @return the codes, call next before reading a code
+     */
+    static ConfirmationCodes current() {
+        return CODES.get();
+    }
+
+    /**
+     * Makes the next code of the thread
+     */
+    void next() {
+        plain.putLong(0, lane).putLong(8, count++);
+        try {
+            cipher.doFinal(plain.array(), 0, 16, encrypted, 0);
+        } catch (GeneralSecurityException e) {
+            throw new RuntimeException("Confirmation code could not be made!", e);
+        }
+        high = code.getLong(0);
+        low = code.getLong(8);
+    }
+
+    long getHigh() {
+        return high;
+    }
+
+    long getLow() {
+        return low;
+    }
+
+    /**
+     * Renders a code as base 32 digits
+     *
+     * @param high first half of the code
+     * @param low second half of the code
+     * @return the code as the customer sees it
+     */
+    static String render(long high, long low) {
+        char[] digits = new char[CODE_LENGTH];
+        //Each half takes 13 digits, the first digit of each only carries one bit
+        for(int index = CODE_LENGTH / 2 - 1; index >= 0; index--) {
+            digits[index] = ALPHABET.charAt((int) (high & 31));
+            digits[index + CODE_LENGTH / 2] = ALPHABET.charAt((int) (low & 31));
+            high >>>= 5;
+            low >>>= 5;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Writes the confirmation code of a reservation as its two halves
+     *
+     * @param out receives the first and then the second half
+     * @param reservation a reservation that was reserved
+     */
+    static void put(ByteBuffer out, Reservation reservation) {
+        if(reservation instanceof Coded) {
+            Coded coded = (Coded) reservation;
+            out.putLong(coded.getCodeHigh()).putLong(coded.getCodeLow());
+        } else {
+            String code = reservation.getCode();
+            out.putLong(parse(code, 0)).putLong(parse(code, CODE_LENGTH / 2));
+        }
+    }
+
+    /**
+     * Reads half of a code rendered by render
+     *
+     * @param code the code as the customer sees it
+     * @param from index of the first digit of the half
+     * @return the half
+     */
+    private static long parse(String code, int from) {
+        long half = 0;
+        for(int index = from; index < from + CODE_LENGTH / 2; index++) {
+            half = half << 5 | ALPHABET.indexOf(code.charAt(index));
+        }
+        return half;
+    }
+
+    private static SecretKeySpec newKey() {
+        byte[] key = new byte[16];
+        new SecureRandom().nextBytes(key);
+        return new SecretKeySpec(key, "AES");
+    }
+
+    /**
+     * Reservation that keeps its confirmation code as the two halves, so it can be sent without rendering it
+     */
+    interface Coded {
+        long getCodeHigh();
+
+        long getCodeLow();
+    }
+}
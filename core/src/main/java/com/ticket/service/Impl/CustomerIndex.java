@@ -0,0 +1,249 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.SeatHold;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
+import java.util.function.IntFunction;
+
+/**
+ * Index of the holds of each customer, keyed by customer email
+ *
+ * A customer has a handful of holds at most, so each one keeps them in a small array with
+ * the idempotency key of the request that made each hold. Every hold a customer makes runs
+ * under the lock of that customer, so two retries of one request can never both make a
+ * hold and a customer can never go past the seat limit, while different customers never
+ * wait on each other.
+ *
+ * Holds stay in the index while on hold and once reserved, and leave it when they expire.
+ * A customer left with no holds leaves the index too.
+ */
+class CustomerIndex {
+    private final ConcurrentHashMap<String, Customer> customers; //Customers that have holds
+    private volatile int maxSeats; //Most seats a customer can have on hold and reserved at once
+
+    /**
+     * Customer Index Constructor with no seat limit
+     */
+    CustomerIndex() {
+        customers = new ConcurrentHashMap<>();
+        maxSeats = Integer.MAX_VALUE;
+    }
+
+    /**
+     * Sets the most seats a customer can have on hold and reserved at once
+     *
+     * @param maxSeats the limit, Integer.MAX_VALUE for none
+     */
+    void setMaxSeats(int maxSeats) {
+        this.maxSeats = maxSeats;
+    }
+
+    /**
+     * Determines if customers have a seat limit
+     *
+     * @return true if there is a limit
+     */
+    boolean isLimited() {
+        return maxSeats != Integer.MAX_VALUE;
+    }
+
+    /**
+     * Makes a hold for a customer, or finds the one an earlier request with the same key made
+     *
+     * @param customerEmail the email address of the customer
+     * @param idempotencyKey key the client sends again when it retries the request, null for none
+     * @param numSeats the number of seats to hold
+     * @param findAndHold makes the hold, run under the lock of the customer
+     * @return the hold, the earlier one if the key was seen, null if the customer would go past the seat limit
+     */
+    SeatHold hold(String customerEmail, String idempotencyKey, int numSeats, IntFunction<SeatHold> findAndHold) {
+        while(true) {
+            Customer customer = customers.computeIfAbsent(customerEmail, email -> new Customer());
+            synchronized(customer) {
+                if(customer.removed) {
+                    //Left the index while this thread was getting it, tries a fresh one
+                    continue;
+                }
+                if(idempotencyKey != null) {
+                    SeatHold seatHold = customer.find(idempotencyKey);
+                    if(seatHold != null) {
+                        return seatHold;
+                    }
+                }
+                if(numSeats > 0 && (long) customer.seats + numSeats > maxSeats) {
+                    leaveIfEmpty(customerEmail, customer);
+                    return null;
+                }
+                SeatHold seatHold = findAndHold.apply(numSeats);
+                if(seatHold.getNumberOfSeatsOnHold() > 0) {
+                    customer.add(seatHold, idempotencyKey);
+                } else {
+                    leaveIfEmpty(customerEmail, customer);
+                }
+                return seatHold;
+            }
+        }
+    }
+
+    /**
+     * Adds a hold made without going through hold, for holds of a batch or a recovery
+     *
+     * @param seatHold the hold
+     */
+    void add(SeatHold seatHold) {
+        while(true) {
+            Customer customer = customers.computeIfAbsent(seatHold.getEmail(), email -> new Customer());
+            synchronized(customer) {
+                if(!customer.removed) {
+                    customer.add(seatHold, null);
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a hold that expired
+     *
+     * @param customerEmail the email address of the customer
+     * @param seatHoldId the seat hold identifier
+     */
+    void expired(String customerEmail, int seatHoldId) {
+        Customer customer = customers.get(customerEmail);
+        if(customer == null) {
+            return;
+        }
+        synchronized(customer) {
+            customer.remove(seatHoldId);
+            leaveIfEmpty(customerEmail, customer);
+        }
+    }
+
+    /**
+     * Takes part of the seats out of a hold, keeping the seat count of the customer
+     *
+     * The seats are taken out under the lock of the customer, so the count never misses
+     * seats given back by a hold that expires or is indexed at the same moment.
+     *
+     * @param seatHold the hold
+     * @param numSeats the number of seats taken out
+     * @param dropSeats takes the seats out of the hold, run under the lock of the customer
+     * @return true if the seats were taken out
+     */
+    boolean drop(SeatHold seatHold, int numSeats, BooleanSupplier dropSeats) {
+        while(true) {
+            Customer customer = customers.computeIfAbsent(seatHold.getEmail(), email -> new Customer());
+            synchronized(customer) {
+                if(customer.removed) {
+                    continue;
+                }
+                boolean dropped = dropSeats.getAsBoolean();
+                //A hold not indexed yet is counted with the seats it has left once it is
+                if(dropped && customer.contains(seatHold.getId())) {
+                    customer.seats -= numSeats;
+                }
+                leaveIfEmpty(seatHold.getEmail(), customer);
+                return dropped;
+            }
+        }
+    }
+
+    /**
+     * Gets the holds of a customer, on hold or reserved
+     *
+     * @param customerEmail the email address of the customer
+     * @return the holds, oldest first
+     */
+    List<SeatHold> find(String customerEmail) {
+        Customer customer = customerEmail == null ? null : customers.get(customerEmail);
+        if(customer == null) {
+            return Collections.emptyList();
+        }
+        synchronized(customer) {
+            return new ArrayList<>(Arrays.asList(customer.holds).subList(0, customer.size));
+        }
+    }
+
+    /**
+     * Gets the hold an earlier request of a customer made with an idempotency key
+     *
+     * @param customerEmail the email address of the customer
+     * @param idempotencyKey key of the request chosen by the client
+     * @return the hold, null if the customer has none made with the key
+     */
+    SeatHold find(String customerEmail, String idempotencyKey) {
+        Customer customer = customerEmail == null ? null : customers.get(customerEmail);
+        if(customer == null) {
+            return null;
+        }
+        synchronized(customer) {
+            return customer.find(idempotencyKey);
+        }
+    }
+
+    private void leaveIfEmpty(String customerEmail, Customer customer) {
+        if(customer.size == 0) {
+            customer.removed = true;
+            customers.remove(customerEmail, customer);
+        }
+    }
+
+    /**
+     * Holds of one customer, guarded by itself
+     */
+    private static final class Customer {
+        private SeatHold[] holds = new SeatHold[2]; //Holds of the customer, oldest first
+        private String[] keys = new String[2]; //Idempotency key of each hold, null for none
+        private int size; //Number of holds
+        private int seats; //Seats of the holds
+        private boolean removed; //Determines if the customer left the index
+
+        private SeatHold find(String idempotencyKey) {
+            for(int index = 0; index < size; index++) {
+                if(idempotencyKey.equals(keys[index])) {
+                    return holds[index];
+                }
+            }
+            return null;
+        }
+
+        private boolean contains(int seatHoldId) {
+            for(int index = 0; index < size; index++) {
+                if(holds[index].getId() == seatHoldId) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private void add(SeatHold seatHold, String idempotencyKey) {
+            if(size == holds.length) {
+                holds = Arrays.copyOf(holds, size * 2);
+                keys = Arrays.copyOf(keys, size * 2);
+            }
+            holds[size] = seatHold;
+            keys[size] = idempotencyKey;
+            size++;
+            seats += seatHold.getNumberOfSeatsOnHold();
+        }
+
+        private void remove(int seatHoldId) {
+            for(int index = 0; index < size; index++) {
+                if(holds[index].getId() == seatHoldId) {
+                    seats -= holds[index].getNumberOfSeatsOnHold();
+                    size--;
+                    System.arraycopy(holds, index + 1, holds, index, size - index);
+                    System.arraycopy(keys, index + 1, keys, index, size - index);
+                    holds[size] = null;
+                    keys[size] = null;
+                    return;
+                }
+            }
+        }
+    }
+}
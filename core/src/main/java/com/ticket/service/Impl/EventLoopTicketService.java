@@ -0,0 +1,404 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.SeatHoldFactory;
+import com.ticket.service.interfaces.AsyncTicketService;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Ticket Service that runs every change to the venue on a single writer thread
+ *
+ * Callers put their request into a pre-allocated RingBuffer and get a CompletableFuture
+ * back. The writer drains whatever requests are waiting in one pass, so the busier the
+ * service the bigger the batches, and it is the only thread that ever touches the seats,
+ * the holds or the expiry queue, so none of them need a lock.
+ *
+ * Expired holds are released by the same loop between batches. Every hold lasts the same
+ * duration, so the expiry queue is a plain FIFO that is already in deadline order.
+ */
+public class EventLoopTicketService implements AsyncTicketService {
+    private static final int HOLD = 0; //Request to find and hold seats
+    private static final int RESERVE = 1; //Request to reserve a hold
+    private static final int HOLD_BATCH = 2; //Request to find and hold seats for a batch of customers
+    private static final int RESERVE_BATCH = 3; //Request to reserve a batch of holds
+    private static final int SPINS_BEFORE_PARK = 100; //Empty passes before the writer parks
+    private static final long PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1); //Longest the writer sleeps, bounds the expiry lag
+
+    private final RingBuffer<Request> requests; //Requests waiting for the writer
+    private final SeatInventory inventory; //The seats, only touched by the writer
+    private final HoldRegistry seatHolder; //Registry that holds all the seat holds objects, only touched by the writer
+    private final LoopExpiryScheduler expiryScheduler; //Holds waiting to expire, only touched by the writer
+    private final long duration; //The duration of the expiration hold in seconds
+    private final int cols; //Number of seats across the row
+    private final Thread writer; //The only thread that changes the venue
+    private volatile int seatsAvailable; //Number of seats available, published by the writer after each pass
+    private volatile boolean running; //Determines if the service takes new requests
+    private volatile boolean stopped; //Determines if the writer has stopped answering requests
+    private volatile boolean parked; //Determines if the writer is asleep and has to be woken up
+
+    /**
+     * Event Loop Ticket Service Constructor with room for 1024 waiting requests
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public EventLoopTicketService(int rows, int cols, long duration) throws RuntimeException {
+        this(rows, cols, duration, 1024);
+    }
+
+    /**
+     * Event Loop Ticket Service Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @param capacity - number of requests that can wait for the writer
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public EventLoopTicketService(int rows, int cols, long duration, int capacity) throws RuntimeException {
+        if(rows == 0 || cols == 0) {
+            throw new RuntimeException("Rows and Columns cannot be zero!");
+        }
+        this.cols = cols;
+        this.duration = duration;
+        this.inventory = new SeatInventory(rows, cols);
+        this.seatsAvailable = inventory.getSeatsAvailable();
+        this.seatHolder = new HoldRegistry(duration * 1000);
+        this.expiryScheduler = new LoopExpiryScheduler();
+        this.requests = new RingBuffer<>(capacity, Request::new);
+        this.running = true;
+        this.writer = new Thread(this::run, "ticket-writer");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    @Override
+    public int numSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    @Override
+    public CompletableFuture<SeatHold> findAndHoldSeats(int numSeats, String customerEmail) {
+        CompletableFuture<SeatHold> future = new CompletableFuture<>();
+        if(isShutdown(future)) {
+            return future;
+        }
+        long sequence = requests.next();
+        Request request = requests.get(sequence);
+        request.type = HOLD;
+        request.numSeats = numSeats;
+        request.customerEmail = customerEmail;
+        request.holdFuture = future;
+        publish(sequence, future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Reservation> reserveSeats(int seatHoldId, String customerEmail) {
+        CompletableFuture<Reservation> future = new CompletableFuture<>();
+        if(isShutdown(future)) {
+            return future;
+        }
+        long sequence = requests.next();
+        Request request = requests.get(sequence);
+        request.type = RESERVE;
+        request.seatHoldId = seatHoldId;
+        request.customerEmail = customerEmail;
+        request.reserveFuture = future;
+        publish(sequence, future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<SeatHold[]> findAndHoldSeats(int[] numSeats, String[] customerEmails) {
+        TicketService.checkBatch(numSeats.length, customerEmails.length);
+        CompletableFuture<SeatHold[]> future = new CompletableFuture<>();
+        if(isShutdown(future)) {
+            return future;
+        }
+        long sequence = requests.next();
+        Request request = requests.get(sequence);
+        request.type = HOLD_BATCH;
+        request.batch = numSeats;
+        request.customerEmails = customerEmails;
+        request.holdsFuture = future;
+        publish(sequence, future);
+        return future;
+    }
+
+    @Override
+    public CompletableFuture<Reservation[]> reserveSeats(int[] seatHoldIds, String[] customerEmails) {
+        TicketService.checkBatch(seatHoldIds.length, customerEmails.length);
+        CompletableFuture<Reservation[]> future = new CompletableFuture<>();
+        if(isShutdown(future)) {
+            return future;
+        }
+        long sequence = requests.next();
+        Request request = requests.get(sequence);
+        request.type = RESERVE_BATCH;
+        request.batch = seatHoldIds;
+        request.customerEmails = customerEmails;
+        request.reservationsFuture = future;
+        publish(sequence, future);
+        return future;
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        LockSupport.unpark(writer);
+    }
+
+    private boolean isShutdown(CompletableFuture<?> future) {
+        if(!running) {
+            future.completeExceptionally(new RuntimeException("Ticket service has been shut down!"));
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Hands a request to the writer
+     *
+     * A request that claimed its slot after the writer stopped is never read, so it is
+     * failed here. If the writer got to it after all, the future is already complete and
+     * failing it does nothing.
+     *
+     * @param sequence the slot of the request
+     * @param future the future of the request
+     */
+    private void publish(long sequence, CompletableFuture<?> future) {
+        requests.publish(sequence);
+        if(parked) {
+            LockSupport.unpark(writer);
+        }
+        if(stopped) {
+            future.completeExceptionally(new RuntimeException("Ticket service has been shut down!"));
+        }
+    }
+
+    /**
+     * The writer loop, runs until shut down and every claimed request is answered
+     *
+     * Once shut down, the writer marks itself stopped and then looks for claimed requests
+     * once more. A caller that saw the service running claims its slot before it checks
+     * stopped, so its request is either found by that last look or failed by the caller.
+     */
+    private void run() {
+        long next = 0;
+        int idle = 0;
+        while(true) {
+            if(!running && next > requests.lastClaimed()) {
+                if(stopped) {
+                    return;
+                }
+                stopped = true;
+                continue;
+            }
+            long last = requests.publishedUpTo(next);
+            boolean handled = last >= next;
+            for(long sequence = next; sequence <= last; sequence++) {
+                handle(requests.get(sequence));
+            }
+            if(handled) {
+                requests.release(last);
+                next = last + 1;
+            }
+            int expired = expiryScheduler.expireDue();
+            seatsAvailable = inventory.getSeatsAvailable();
+
+            if(handled || expired > 0) {
+                idle = 0;
+            } else if(++idle > SPINS_BEFORE_PARK) {
+                parked = true;
+                if(requests.publishedUpTo(next) < next) {
+                    LockSupport.parkNanos(this, PARK_NANOS);
+                }
+                parked = false;
+                idle = 0;
+            }
+        }
+    }
+
+    /**
+     * Answers one request and clears the slot for its next use
+     *
+     * @param request the request
+     */
+    private void handle(Request request) {
+        CompletableFuture<?> future = request.type == HOLD ? request.holdFuture
+                : request.type == RESERVE ? request.reserveFuture
+                : request.type == HOLD_BATCH ? request.holdsFuture
+                : request.reservationsFuture;
+        try {
+            if(request.type == HOLD) {
+                SeatHold seatHold = hold(request.numSeats, request.customerEmail);
+                //Published before the caller can see the hold
+                seatsAvailable = inventory.getSeatsAvailable();
+                request.holdFuture.complete(seatHold);
+            } else if(request.type == RESERVE) {
+                request.reserveFuture.complete(reserve(request.seatHoldId, request.customerEmail));
+            } else if(request.type == HOLD_BATCH) {
+                SeatHold[] seatHolds = new SeatHold[request.batch.length];
+                for(int index = 0; index < seatHolds.length; index++) {
+                    seatHolds[index] = take(request.batch[index], request.customerEmails[index]);
+                }
+                //The holds of the batch share one deadline and one place in the expiry queue
+                AbstractSeatHold.scheduleExpiry(expiryScheduler, seatHolds);
+                seatsAvailable = inventory.getSeatsAvailable();
+                request.holdsFuture.complete(seatHolds);
+            } else {
+                Reservation[] reservations = new Reservation[request.batch.length];
+                for(int index = 0; index < reservations.length; index++) {
+                    reservations[index] = reserve(request.batch[index], request.customerEmails[index]);
+                }
+                request.reservationsFuture.complete(reservations);
+            }
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+        }
+        request.customerEmail = null;
+        request.batch = null;
+        request.customerEmails = null;
+        request.holdFuture = null;
+        request.reserveFuture = null;
+        request.holdsFuture = null;
+        request.reservationsFuture = null;
+    }
+
+    private SeatHold hold(int numSeats, String customerEmail) {
+        SeatHold seatHold = take(numSeats, customerEmail);
+
+        //Queues the hold expiration on the writer, a hold with no seats has nothing to expire
+        if(seatHold.getNumberOfSeatsOnHold() > 0) {
+            seatHold.scheduleExpiry(expiryScheduler);
+        }
+
+        return seatHold;
+    }
+
+    private SeatHold take(int numSeats, String customerEmail) {
+        //Finds and holds the seats, 0 if fail to fill all seats requested
+        int[] heldSeats = inventory.take(numSeats);
+
+        int seatHoldId = seatHolder.nextId();
+        SeatHold seatHold = SeatHoldFactory.create(seatHoldId, heldSeats, customerEmail, duration * 1000, cols, seatIds -> expire(seatHoldId, seatIds));
+        //Adds to the seatHolder registry, a hold with no seats can not be reserved
+        if(heldSeats.length > 0) {
+            seatHolder.add(seatHold);
+        }
+        return seatHold;
+    }
+
+    private void expire(int seatHoldId, int[] seatIds) {
+        inventory.release(seatIds);
+        seatHolder.expired(seatHoldId);
+    }
+
+    private Reservation reserve(int seatHoldId, String customerEmail) {
+        return ConcurrentTicketServiceImpl.reserve(seatHolder, seatHoldId, customerEmail, null);
+    }
+
+    /**
+     * A slot of the ring, filled in place by the caller and read by the writer
+     */
+    private static final class Request {
+        private int type;
+        private int numSeats;
+        private int seatHoldId;
+        private String customerEmail;
+        private int[] batch; //Seats or hold ids of each request of a batch
+        private String[] customerEmails; //Customer of each request of a batch
+        private CompletableFuture<SeatHold> holdFuture;
+        private CompletableFuture<Reservation> reserveFuture;
+        private CompletableFuture<SeatHold[]> holdsFuture;
+        private CompletableFuture<Reservation[]> reservationsFuture;
+    }
+
+    /**
+     * Expiry queue of the writer, only scheduled and expired from the writer thread
+     *
+     * Holds are queued in the order they were made, which with one hold duration is
+     * deadline order, so scheduling is O(1) and expiring only looks at the head. A
+     * cancelled timeout stays queued until its deadline and is then skipped.
+     */
+    private static final class LoopExpiryScheduler implements ExpiryScheduler {
+        private final ArrayDeque<LoopTimeout> timeouts = new ArrayDeque<>();
+
+        @Override
+        public Timeout schedule(Runnable task, long delay) {
+            LoopTimeout timeout = new LoopTimeout(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay));
+            timeouts.add(timeout);
+            return timeout;
+        }
+
+        /**
+         * Runs the tasks whose deadline has passed
+         *
+         * @return the number of timeouts taken off the queue
+         */
+        int expireDue() {
+            int expired = 0;
+            long now = System.nanoTime();
+            LoopTimeout timeout;
+            while((timeout = timeouts.peek()) != null && timeout.deadline - now <= 0) {
+                timeouts.poll();
+                timeout.expire();
+                expired++;
+            }
+            return expired;
+        }
+
+        @Override
+        public void shutdown() {
+            timeouts.clear();
+        }
+    }
+
+    /**
+     * A hold waiting in the expiry queue of the writer
+     */
+    private static final class LoopTimeout implements ExpiryScheduler.Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state = new AtomicInteger(WAITING);
+
+        LoopTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        void expire() {
+            if(state.compareAndSet(WAITING, EXPIRED)) {
+                task.run();
+            }
+        }
+
+        @Override
+        public boolean cancel() {
+            return state.compareAndSet(WAITING, CANCELLED);
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.ExpiryScheduler;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * Gathers the seats of holds that expire together so the venue takes them back in bulk
+ *
+ * An expired hold only queues its seats. The first one queued since the last release
+ * hands a release to the scheduler, which the timing wheel runs on its next tick, after
+ * every hold due in the tick has queued its seats, so a wave of abandoned holds goes back
+ * to the venue as one batch instead of one lock round-trip per hold.
+ *
+ * A large wave is handed over in chunks, so requests can take the lock of the venue
+ * between two chunks and are never held up by the whole wave at once.
+ *
+ * The venue takes each hold back at most once. The releaser marks a hold returned before
+ * it gives its seats back, and when the releaser fails only the holds it had not marked go
+ * back to the queue, so a failed chunk never gives the same seats back twice.
+ *
+ * Made public so test can run against it
+ *
+ * @param <T> the seats of one hold
+ */
+public final class ExpiryBatcher<T extends ExpiryBatcher.Expired> {
+    private static final int MAX_HOLDS_PER_CHUNK = 1024; //Most holds given back under one acquisition of the lock
+
+    private final ExpiryScheduler expiryScheduler; //Runs the releases
+    private final Consumer<List<T>> releaser; //Gives a chunk of expired seats back to the venue
+    private final Queue<T> expired; //Seats of the holds expired since the last release
+    private final AtomicBoolean scheduled; //Determines if a release is already on its way
+
+    /**
+     * Expiry Batcher Constructor
+     *
+     * @param expiryScheduler - runs the releases
+     * @param releaser - gives a chunk of expired seats back to the venue
+     */
+    public ExpiryBatcher(ExpiryScheduler expiryScheduler, Consumer<List<T>> releaser) {
+        this.expiryScheduler = expiryScheduler;
+        this.releaser = releaser;
+        this.expired = new ConcurrentLinkedQueue<>();
+        this.scheduled = new AtomicBoolean();
+    }
+
+    /**
+     * Queues the seats of an expired hold for the next release
+     *
+     * @param seats the seats of the hold
+     */
+    public void add(T seats) {
+        expired.add(seats);
+        if(scheduled.compareAndSet(false, true)) {
+            try {
+                expiryScheduler.execute(this::release);
+            } catch (RuntimeException | Error e) {
+                //The seats stay queued for the release handed over by the next hold that expires
+                scheduled.set(false);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Determines if seats are waiting for the next release
+     *
+     * @return true if no seats are queued
+     */
+    public boolean isEmpty() {
+        return expired.isEmpty();
+    }
+
+    /**
+     * Gives every seat queued so far back to the venue
+     *
+     * Runs on the scheduler, or on a request that needs the seats back before it returns.
+     * The holds of a chunk the releaser fails on that it had not marked returned yet go back
+     * to the queue, so their seats are given back by the next release instead of being lost.
+     */
+    public void release() {
+        //Cleared first, so a hold queued while this runs schedules the next release
+        scheduled.set(false);
+        List<T> chunk = null;
+        try {
+            while((chunk = nextChunk()) != null) {
+                releaser.accept(chunk);
+            }
+        } finally {
+            if(chunk != null) {
+                for(T seats : chunk) {
+                    if(!((Expired) seats).returned) {
+                        expired.add(seats);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Takes the next chunk of seats off the queue
+     *
+     * @return the chunk, null if no seats are queued
+     */
+    private List<T> nextChunk() {
+        T seats = expired.poll();
+        if(seats == null) {
+            return null;
+        }
+        List<T> chunk = new ArrayList<>();
+        do {
+            chunk.add(seats);
+        } while(chunk.size() < MAX_HOLDS_PER_CHUNK && (seats = expired.poll()) != null);
+        return chunk;
+    }
+
+    /**
+     * Seats of an expired hold, taken back by the venue at most once
+     */
+    public abstract static class Expired {
+        private boolean returned; //Determines if the releaser took the hold, handed between threads by the queue
+
+        /**
+         * Marks the hold as taken back by the venue, called by the releaser before it gives the seats back
+         *
+         * @return true the first time, false if the hold was already taken back
+         */
+        public final boolean markReturned() {
+            if(returned) {
+                return false;
+            }
+            returned = true;
+            return true;
+        }
+    }
+}
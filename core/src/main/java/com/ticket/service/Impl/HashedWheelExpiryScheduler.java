@@ -0,0 +1,300 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.ExpiryScheduler;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashed Timing Wheel Expiry Scheduler
+ *
+ * The wheel is an array of buckets that a single worker thread advances one tick at a time.
+ * Scheduling and cancelling only push the timeout onto a queue, so both are O(1) for the
+ * request threads, and the worker places the timeouts into their bucket on the next tick.
+ * Timeouts further away than one turn of the wheel count down the rounds they have left.
+ *
+ * A timeout runs at most one tick after its deadline, as long as the tasks themselves are
+ * quick. Slow tasks can be handed to an executor so they never hold up the wheel.
+ */
+public class HashedWheelExpiryScheduler implements ExpiryScheduler {
+    private static final int MAX_TRANSFERS_PER_TICK = 100000; //Limits the pending timeouts moved in one tick
+    private static HashedWheelExpiryScheduler defaultScheduler; //Scheduler shared by the services that are not given one
+
+    private final long tickDuration; //Length of one tick in nanoseconds
+    private final Bucket[] wheel; //The buckets of the wheel
+    private final int mask; //Turns a tick into a bucket index, the wheel size is a power of two
+    private final Executor taskExecutor; //Runs the expired tasks
+    private final Queue<WheelTimeout> pendingTimeouts; //Scheduled timeouts waiting for the worker
+    private final Queue<WheelTimeout> cancelledTimeouts; //Cancelled timeouts waiting to leave their bucket
+    private final Thread worker; //Thread that advances the wheel
+    private final long startTime; //Time the wheel started in nanoseconds
+    private volatile boolean running; //Determines if the worker keeps turning the wheel
+    private long tick; //Number of ticks the worker has processed
+
+    /**
+     * Hashed Wheel Expiry Scheduler Constructor with a 10 millisecond tick and 512 buckets
+     */
+    public HashedWheelExpiryScheduler() {
+        this(10, 512, null);
+    }
+
+    /**
+     * Hashed Wheel Expiry Scheduler Constructor
+     *
+     * @param tickMillis - length of one tick in milliseconds, the most an expiry can lag
+     * @param wheelSize - number of buckets, rounded up to a power of two
+     * @param taskExecutor - runs the expired tasks, null to run them on the wheel thread
+     * @throws RuntimeException if tickMillis or wheelSize is not positive
+     */
+    public HashedWheelExpiryScheduler(long tickMillis, int wheelSize, Executor taskExecutor) throws RuntimeException {
+        if(tickMillis <= 0 || wheelSize <= 0) {
+            throw new RuntimeException("Tick and wheel size must be positive!");
+        }
+        int size = Integer.highestOneBit(wheelSize);
+        if(size < wheelSize) {
+            size <<= 1;
+        }
+        this.tickDuration = TimeUnit.MILLISECONDS.toNanos(tickMillis);
+        this.wheel = new Bucket[size];
+        for(int i = 0; i < size; i++) {
+            wheel[i] = new Bucket();
+        }
+        this.mask = size - 1;
+        this.taskExecutor = taskExecutor;
+        this.pendingTimeouts = new ConcurrentLinkedQueue<>();
+        this.cancelledTimeouts = new ConcurrentLinkedQueue<>();
+        this.startTime = System.nanoTime();
+        this.running = true;
+        this.worker = new Thread(this::run, "expiry-wheel");
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Gets the scheduler shared by every service that is not given its own
+     *
+     * @return the default scheduler
+     */
+    public static synchronized HashedWheelExpiryScheduler getDefault() {
+        if(defaultScheduler == null) {
+            defaultScheduler = new HashedWheelExpiryScheduler();
+        }
+        return defaultScheduler;
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(Math.max(delay, 0)) - startTime;
+        WheelTimeout timeout = new WheelTimeout(task, deadline);
+        pendingTimeouts.add(timeout);
+        return timeout;
+    }
+
+    @Override
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+    }
+
+    /**
+     * Turns the wheel until the scheduler is shut down
+     */
+    private void run() {
+        while(running) {
+            long deadline = waitForNextTick();
+            if(deadline < 0) {
+                break;
+            }
+            removeCancelledTimeouts();
+            transferPendingTimeouts();
+            wheel[(int) (tick & mask)].expireTimeouts(deadline);
+            tick++;
+        }
+    }
+
+    /**
+     * Sleeps until the end of the current tick
+     *
+     * @return the time of the tick relative to the start of the wheel, -1 if shut down
+     */
+    private long waitForNextTick() {
+        long deadline = tickDuration * (tick + 1);
+        while(true) {
+            long currentTime = System.nanoTime() - startTime;
+            long sleepTime = deadline - currentTime;
+            if(sleepTime <= 0) {
+                return currentTime;
+            }
+            try {
+                TimeUnit.NANOSECONDS.sleep(sleepTime);
+            } catch (InterruptedException e) {
+                if(!running) {
+                    return -1;
+                }
+            }
+        }
+    }
+
+    /**
+     * Moves the timeouts scheduled since the last tick into their buckets
+     */
+    private void transferPendingTimeouts() {
+        for(int count = 0; count < MAX_TRANSFERS_PER_TICK; count++) {
+            WheelTimeout timeout = pendingTimeouts.poll();
+            if(timeout == null) {
+                return;
+            }
+            if(timeout.isCancelled()) {
+                continue;
+            }
+            long expiryTick = timeout.deadline / tickDuration;
+            timeout.remainingRounds = (expiryTick - tick) / wheel.length;
+            //Deadlines already in the past go into the current bucket
+            wheel[(int) (Math.max(expiryTick, tick) & mask)].add(timeout);
+        }
+    }
+
+    /**
+     * Unlinks the cancelled timeouts from their buckets so they are not kept until their deadline
+     */
+    private void removeCancelledTimeouts() {
+        WheelTimeout timeout;
+        while((timeout = cancelledTimeouts.poll()) != null) {
+            if(timeout.bucket != null) {
+                timeout.bucket.remove(timeout);
+            }
+        }
+    }
+
+    /**
+     * Doubly linked list of the timeouts that fall on the same slot of the wheel
+     *
+     * Only touched by the worker thread.
+     */
+    private final class Bucket {
+        private WheelTimeout head;
+        private WheelTimeout tail;
+
+        void add(WheelTimeout timeout) {
+            timeout.bucket = this;
+            if(head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        /**
+         * Runs the timeouts that are due and counts down the rounds of the rest
+         *
+         * @param deadline the time of the current tick
+         */
+        void expireTimeouts(long deadline) {
+            WheelTimeout timeout = head;
+            while(timeout != null) {
+                WheelTimeout next = timeout.next;
+                if(timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    if(timeout.deadline <= deadline) {
+                        timeout.expire();
+                    } else {
+                        //Placed in the wrong bucket, which can only happen if the clock jumped
+                        wheel[(int) ((tick + 1) & mask)].add(timeout);
+                    }
+                } else if(timeout.isCancelled()) {
+                    remove(timeout);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+
+        void remove(WheelTimeout timeout) {
+            if(timeout.bucket != this) {
+                return;
+            }
+            if(timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if(timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = null;
+            timeout.next = null;
+            timeout.bucket = null;
+        }
+    }
+
+    /**
+     * A task waiting on the wheel
+     */
+    private final class WheelTimeout implements Timeout {
+        private static final int WAITING = 0;
+        private static final int CANCELLED = 1;
+        private static final int EXPIRED = 2;
+
+        private final Runnable task; //The task to run once the deadline passes
+        private final long deadline; //Deadline relative to the start of the wheel in nanoseconds
+        private final AtomicInteger state; //Determines if the timeout is waiting, cancelled or expired
+        private long remainingRounds; //Turns of the wheel left before the deadline
+        private Bucket bucket; //Bucket the timeout is linked into, only touched by the worker
+        private WheelTimeout next;
+        private WheelTimeout prev;
+
+        WheelTimeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+            this.state = new AtomicInteger(WAITING);
+        }
+
+        @Override
+        public boolean cancel() {
+            if(!state.compareAndSet(WAITING, CANCELLED)) {
+                return false;
+            }
+            cancelledTimeouts.add(this);
+            return true;
+        }
+
+        @Override
+        public boolean isCancelled() {
+            return state.get() == CANCELLED;
+        }
+
+        @Override
+        public boolean isExpired() {
+            return state.get() == EXPIRED;
+        }
+
+        /**
+         * Runs the task unless it was cancelled first
+         */
+        void expire() {
+            if(!state.compareAndSet(WAITING, EXPIRED)) {
+                return;
+            }
+            if(taskExecutor != null) {
+                taskExecutor.execute(task);
+            } else {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    //A failing task must not stop the wheel for every other hold, so it goes to the
+                    //uncaught exception handler of the wheel thread without ending the thread
+                    Thread wheelThread = Thread.currentThread();
+                    wheelThread.getUncaughtExceptionHandler().uncaughtException(wheelThread, e);
+                }
+            }
+        }
+    }
+}
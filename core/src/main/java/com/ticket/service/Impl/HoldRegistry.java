@@ -0,0 +1,273 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.SeatHold;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Registry of the holds of a venue, keyed by hold id
+ *
+ * Ids are handed out in sequence, so two holds of a venue never share one. The holds are
+ * kept in open addressing tables of int keys split into segments, each segment locked on
+ * its own, so a lookup costs no boxing and no entry object is kept per hold.
+ *
+ * A hold leaves the registry once it can no longer change:
+ * - a hold that expired is kept for the retention period, so a late customer still learns
+ * the hold expired, and is then evicted
+ * - a reserved hold is archived, moved out of the table of live holds into one that only
+ * grows with the seats sold, which the venue bounds
+ * - a hold that got no seats is never registered
+ */
+class HoldRegistry {
+    private static final int SEGMENTS = 64; //Number of segments, a power of two
+    private static final int EMPTY = 0; //Key of an empty slot, ids start at 1
+
+    private final AtomicInteger lastId; //Last id handed out
+    private final Segment[] held; //Holds that are on hold or expired within the retention period
+    private final Segment[] reserved; //Archive of the reserved holds
+    private final long retention; //Milliseconds an expired hold is kept before it is evicted
+    private int[] expiredIds; //Ids of the expired holds waiting to be evicted, oldest first, guarded by held
+    private long[] expiredAt; //Time each of them expired, guarded by held
+    private int expiredHead; //Index of the oldest expired hold, guarded by held
+    private int expiredCount; //Number of expired holds waiting to be evicted, guarded by held
+
+    /**
+     * Hold Registry Constructor
+     * @param retention - milliseconds an expired hold is kept before it is evicted
+     */
+    HoldRegistry(long retention) {
+        this.retention = retention;
+        lastId = new AtomicInteger();
+        held = new Segment[SEGMENTS];
+        reserved = new Segment[SEGMENTS];
+        for(int segment = 0; segment < SEGMENTS; segment++) {
+            held[segment] = new Segment();
+            reserved[segment] = new Segment();
+        }
+        expiredIds = new int[64];
+        expiredAt = new long[64];
+    }
+
+    /**
+     * Hands out the id of a new hold
+     *
+     * @return the next id
+     */
+    int nextId() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Makes sure ids handed out from now on come after an id that is already taken
+     *
+     * @param id an id recovered from a journal
+     */
+    void advancePast(int id) {
+        int last;
+        do {
+            last = lastId.get();
+        } while(id > last && !lastId.compareAndSet(last, id));
+    }
+
+    /**
+     * Registers a new hold
+     *
+     * @param seatHold the hold
+     */
+    void add(SeatHold seatHold) {
+        segment(held, seatHold.getId()).put(seatHold.getId(), seatHold);
+    }
+
+    /**
+     * Finds a hold that is on hold, reserved, or expired within the retention period
+     *
+     * @param id the seat hold identifier
+     * @return the hold, null if none was found
+     */
+    SeatHold get(int id) {
+        SeatHold seatHold = segment(held, id).get(id);
+        return seatHold != null ? seatHold : segment(reserved, id).get(id);
+    }
+
+    /**
+     * Archives a hold that was just reserved
+     *
+     * The hold is in the archive before it leaves the live table, so a lookup always finds it.
+     *
+     * @param seatHold the hold
+     */
+    void reserved(SeatHold seatHold) {
+        segment(reserved, seatHold.getId()).put(seatHold.getId(), seatHold);
+        segment(held, seatHold.getId()).remove(seatHold.getId());
+    }
+
+    /**
+     * Queues a hold that just expired for eviction and evicts the ones past the retention period
+     *
+     * Every hold of a venue lasts as long, so holds expire in the order they were queued.
+     *
+     * @param id the seat hold identifier
+     */
+    void expired(int id) {
+        long now = System.currentTimeMillis();
+        synchronized(held) {
+            while(expiredCount > 0 && now - expiredAt[expiredHead] >= retention) {
+                int evicted = expiredIds[expiredHead];
+                segment(held, evicted).remove(evicted);
+                expiredHead = (expiredHead + 1) & (expiredIds.length - 1);
+                expiredCount--;
+            }
+            if(expiredCount == expiredIds.length) {
+                growExpired();
+            }
+            int tail = (expiredHead + expiredCount) & (expiredIds.length - 1);
+            expiredIds[tail] = id;
+            expiredAt[tail] = now;
+            expiredCount++;
+        }
+    }
+
+    /**
+     * Copies out every hold of the registry, live and archived
+     *
+     * Each segment is copied under its lock, so the list is not one consistent view.
+     *
+     * @return the holds
+     */
+    List<SeatHold> values() {
+        List<SeatHold> seatHolds = new ArrayList<>();
+        for(int segment = 0; segment < SEGMENTS; segment++) {
+            held[segment].copyTo(seatHolds);
+            reserved[segment].copyTo(seatHolds);
+        }
+        return seatHolds;
+    }
+
+    /**
+     * Gets the number of holds in the registry, live and archived
+     *
+     * @return the number of holds
+     */
+    int size() {
+        int size = 0;
+        for(int segment = 0; segment < SEGMENTS; segment++) {
+            size += held[segment].size() + reserved[segment].size();
+        }
+        return size;
+    }
+
+    private void growExpired() {
+        int[] ids = new int[expiredIds.length * 2];
+        long[] times = new long[ids.length];
+        for(int index = 0; index < expiredCount; index++) {
+            int from = (expiredHead + index) & (expiredIds.length - 1);
+            ids[index] = expiredIds[from];
+            times[index] = expiredAt[from];
+        }
+        expiredIds = ids;
+        expiredAt = times;
+        expiredHead = 0;
+    }
+
+    private static Segment segment(Segment[] segments, int id) {
+        return segments[id & (SEGMENTS - 1)];
+    }
+
+    /**
+     * Open addressing table of int keys with linear probing
+     *
+     * Removal shifts the entries after the slot back instead of leaving tombstones, so
+     * the table never fills up with deleted entries however long the venue runs.
+     */
+    private static final class Segment {
+        private int[] keys = new int[16]; //Hold ids, EMPTY for a free slot
+        private SeatHold[] values = new SeatHold[16]; //Hold in the slot of each key
+        private int size; //Number of holds in the table
+
+        synchronized SeatHold get(int key) {
+            int mask = keys.length - 1;
+            for(int slot = hash(key) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                if(keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return null;
+        }
+
+        synchronized void put(int key, SeatHold value) {
+            //Kept at most half full so probes stay short
+            if((size + 1) * 2 > keys.length) {
+                resize();
+            }
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while(keys[slot] != EMPTY && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if(keys[slot] == EMPTY) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+
+        synchronized void remove(int key) {
+            int mask = keys.length - 1;
+            int slot = hash(key) & mask;
+            while(keys[slot] != key) {
+                if(keys[slot] == EMPTY) {
+                    return;
+                }
+                slot = (slot + 1) & mask;
+            }
+            size--;
+            //Moves back every entry after the hole that can no longer be reached past it
+            int hole = slot;
+            for(slot = (hole + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+                int home = hash(keys[slot]) & mask;
+                if(((slot - home) & mask) >= ((slot - hole) & mask)) {
+                    keys[hole] = keys[slot];
+                    values[hole] = values[slot];
+                    hole = slot;
+                }
+            }
+            keys[hole] = EMPTY;
+            values[hole] = null;
+        }
+
+        synchronized void copyTo(List<SeatHold> seatHolds) {
+            for(int slot = 0; slot < keys.length; slot++) {
+                if(keys[slot] != EMPTY) {
+                    seatHolds.add(values[slot]);
+                }
+            }
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        private void resize() {
+            int[] oldKeys = keys;
+            SeatHold[] oldValues = values;
+            keys = new int[oldKeys.length * 2];
+            values = new SeatHold[keys.length];
+            size = 0;
+            for(int slot = 0; slot < oldKeys.length; slot++) {
+                if(oldKeys[slot] != EMPTY) {
+                    put(oldKeys[slot], oldValues[slot]);
+                }
+            }
+        }
+
+        /**
+         * Spreads the ids of a segment, which all share their low bits, over the table
+         */
+        private static int hash(int key) {
+            int hash = key * 0x9E3779B9;
+            return hash ^ (hash >>> 16);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.ExpiryScheduler;
+
+/**
+ * Expiry Scheduler that records every expiry and how late it ran
+ *
+ * The lag is the time from the deadline of a hold to when it expired, which is what a
+ * customer waiting for released seats sees on top of the hold. Each hold tells the
+ * scheduler once it expires, so the tasks are handed to the scheduler being measured as
+ * they are, with nothing wrapped around them.
+ */
+public class InstrumentedExpiryScheduler implements ExpiryScheduler {
+    private final ExpiryScheduler expiryScheduler; //The scheduler being measured
+    private final TicketMetrics metrics; //Where the measurements go
+
+    /**
+     * Instrumented Expiry Scheduler Constructor
+     * @param expiryScheduler - the scheduler being measured
+     * @param metrics - where the measurements go
+     */
+    public InstrumentedExpiryScheduler(ExpiryScheduler expiryScheduler, TicketMetrics metrics) {
+        this.expiryScheduler = expiryScheduler;
+        this.metrics = metrics;
+    }
+
+    @Override
+    public Timeout schedule(Runnable task, long delay) {
+        return expiryScheduler.schedule(task, delay);
+    }
+
+    @Override
+    public void expired(long lagNanos) {
+        metrics.recordExpiry(lagNanos);
+        expiryScheduler.expired(lagNanos);
+    }
+
+    /**
+     * Runs the task on the scheduler being measured, it is not an expiry
+     */
+    @Override
+    public void execute(Runnable task) {
+        expiryScheduler.execute(task);
+    }
+
+    /**
+     * Shuts down the scheduler being measured
+     */
+    @Override
+    public void shutdown() {
+        expiryScheduler.shutdown();
+    }
+}
@@ -0,0 +1,134 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.CustomerIndexedTicketService;
+import com.ticket.service.interfaces.HoldChangingTicketService;
+import com.ticket.service.interfaces.PriceTier;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.SeatMap;
+import com.ticket.service.interfaces.SeatMapTicketService;
+import com.ticket.service.interfaces.TicketService;
+import com.ticket.service.interfaces.TieredTicketService;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * Ticket Service that records the metrics of the service it wraps
+ *
+ * Each call is timed with System.nanoTime and recorded into TicketMetrics, which adds two
+ * clock reads and a few atomic increments to a request and allocates nothing. A batch is
+ * timed as a whole and each of its requests is recorded with its share of the time. The
+ * optional features are passed on to the service wrapped, which throws
+ * UnsupportedOperationException for the ones it does not have.
+ */
+public class InstrumentedTicketService implements CustomerIndexedTicketService, TieredTicketService,
+        HoldChangingTicketService, SeatMapTicketService {
+    private final TicketService ticketService; //The service being measured
+    private final TicketMetrics metrics; //Where the measurements go
+
+    /**
+     * Instrumented Ticket Service Constructor
+     * @param ticketService - the service being measured
+     * @param metrics - where the measurements go, its seats available gauge reads this service
+     */
+    public InstrumentedTicketService(TicketService ticketService, TicketMetrics metrics) {
+        this.ticketService = ticketService;
+        this.metrics = metrics;
+        metrics.gauge(ticketService::numSeatsAvailable);
+    }
+
+    @Override
+    public int numSeatsAvailable() {
+        return ticketService.numSeatsAvailable();
+    }
+
+    @Override
+    public SeatHold findAndHoldSeats(int numSeats, String customerEmail) {
+        long start = System.nanoTime();
+        SeatHold seatHold = ticketService.findAndHoldSeats(numSeats, customerEmail);
+        metrics.recordHold(System.nanoTime() - start, seatHold.getNumberOfSeatsOnHold() > 0);
+        return seatHold;
+    }
+
+    @Override
+    public SeatHold findAndHoldSeats(int numSeats, String customerEmail, String idempotencyKey) {
+        long start = System.nanoTime();
+        SeatHold seatHold = CustomerIndexedTicketService.of(ticketService).findAndHoldSeats(numSeats, customerEmail, idempotencyKey);
+        metrics.recordHold(System.nanoTime() - start, seatHold.getNumberOfSeatsOnHold() > 0);
+        return seatHold;
+    }
+
+    @Override
+    public SeatHold findAndHoldSeatsInTiers(int numSeats, String customerEmail, Predicate<PriceTier> tiers) {
+        long start = System.nanoTime();
+        SeatHold seatHold = TieredTicketService.of(ticketService).findAndHoldSeatsInTiers(numSeats, customerEmail, tiers);
+        metrics.recordHold(System.nanoTime() - start, seatHold.getNumberOfSeatsOnHold() > 0);
+        return seatHold;
+    }
+
+    @Override
+    public List<PriceTier> getPriceTiers() {
+        return TieredTicketService.of(ticketService).getPriceTiers();
+    }
+
+    @Override
+    public int numSeatsAvailable(String tierName) {
+        return TieredTicketService.of(ticketService).numSeatsAvailable(tierName);
+    }
+
+    @Override
+    public SeatHold findHold(String customerEmail, String idempotencyKey) {
+        return CustomerIndexedTicketService.of(ticketService).findHold(customerEmail, idempotencyKey);
+    }
+
+    @Override
+    public List<SeatHold> findHolds(String customerEmail) {
+        return CustomerIndexedTicketService.of(ticketService).findHolds(customerEmail);
+    }
+
+    @Override
+    public boolean releaseSeats(int seatHoldId, String customerEmail, int[] seatIds) {
+        return HoldChangingTicketService.of(ticketService).releaseSeats(seatHoldId, customerEmail, seatIds);
+    }
+
+    @Override
+    public boolean extendHold(int seatHoldId, String customerEmail, long millis) {
+        return HoldChangingTicketService.of(ticketService).extendHold(seatHoldId, customerEmail, millis);
+    }
+
+    @Override
+    public SeatMap getSeatMap() {
+        return SeatMapTicketService.of(ticketService).getSeatMap();
+    }
+
+    @Override
+    public Reservation reserveSeats(int seatHoldId, String customerEmail) {
+        long start = System.nanoTime();
+        Reservation reservation = ticketService.reserveSeats(seatHoldId, customerEmail);
+        metrics.recordReserve(System.nanoTime() - start, reservation.isReserved());
+        return reservation;
+    }
+
+    @Override
+    public SeatHold[] findAndHoldSeats(int[] numSeats, String[] customerEmails) {
+        long start = System.nanoTime();
+        SeatHold[] seatHolds = ticketService.findAndHoldSeats(numSeats, customerEmails);
+        long share = (System.nanoTime() - start) / Math.max(1, seatHolds.length);
+        for(SeatHold seatHold : seatHolds) {
+            metrics.recordHold(share, seatHold.getNumberOfSeatsOnHold() > 0);
+        }
+        return seatHolds;
+    }
+
+    @Override
+    public Reservation[] reserveSeats(int[] seatHoldIds, String[] customerEmails) {
+        long start = System.nanoTime();
+        Reservation[] reservations = ticketService.reserveSeats(seatHoldIds, customerEmails);
+        long share = (System.nanoTime() - start) / Math.max(1, reservations.length);
+        for(Reservation reservation : reservations) {
+            metrics.recordReserve(share, reservation.isReserved());
+        }
+        return reservations;
+    }
+}
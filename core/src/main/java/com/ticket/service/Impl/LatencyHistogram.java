@@ -0,0 +1,111 @@
+package com.ticket.service.Impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latency histogram with log-linear buckets
+ *
+ * Every power of two is split into 16 buckets, so a value is kept to within about 6% of
+ * what was recorded from 1ns up to about 36 minutes, in 608 counters. Recording finds the
+ * bucket with a few shifts and increments it atomically, so it allocates nothing and never
+ * locks. Values below 32 have a bucket each.
+ */
+public class LatencyHistogram {
+    private static final int SUB_BUCKETS = 16; //Buckets per power of two
+    private static final int MAX_SHIFT = 36; //Shift of the last power of two, larger values are clamped
+    private static final long MAX_VALUE = (1L << 41) - 1; //Largest value kept as is
+
+    private final AtomicLongArray counts; //Number of values recorded in each bucket
+    private final AtomicLong max; //Largest value recorded
+
+    /**
+     * Latency Histogram Constructor
+     */
+    public LatencyHistogram() {
+        counts = new AtomicLongArray((MAX_SHIFT + 2) * SUB_BUCKETS);
+        max = new AtomicLong();
+    }
+
+    /**
+     * Records a value
+     *
+     * @param value the value, negative values count as 0
+     */
+    public void record(long value) {
+        long clamped = Math.max(0, Math.min(value, MAX_VALUE));
+        counts.incrementAndGet(bucket(clamped));
+        if(clamped > max.get()) {
+            max.accumulateAndGet(clamped, Math::max);
+        }
+    }
+
+    /**
+     * Gets the number of values recorded
+     *
+     * @return the count
+     */
+    public long getCount() {
+        long count = 0;
+        for(int bucket = 0; bucket < counts.length(); bucket++) {
+            count += counts.get(bucket);
+        }
+        return count;
+    }
+
+    /**
+     * Gets the largest value recorded
+     *
+     * @return the largest value, 0 if none was recorded
+     */
+    public long getMax() {
+        return max.get();
+    }
+
+    /**
+     * Gets the value at a percentile, the highest value of its bucket
+     *
+     * @param percentile the percentile, 0 to 100
+     * @return the value, 0 if none was recorded
+     */
+    public long getValueAtPercentile(double percentile) {
+        long[] snapshot = new long[counts.length()];
+        long count = 0;
+        for(int bucket = 0; bucket < snapshot.length; bucket++) {
+            snapshot[bucket] = counts.get(bucket);
+            count += snapshot[bucket];
+        }
+        if(count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100 * count));
+        long seen = 0;
+        for(int bucket = 0; bucket < snapshot.length; bucket++) {
+            seen += snapshot[bucket];
+            if(seen >= rank) {
+                return Math.min(highestValue(bucket), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    /**
+     * Finds the bucket of a value
+     *
+     * The top five bits of the value pick the bucket within its power of two. Below 32 the
+     * shift is 0 and the value is its own bucket.
+     */
+    static int bucket(long value) {
+        int shift = Math.max(0, 59 - Long.numberOfLeadingZeros(value));
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    /**
+     * Gets the highest value that falls in a bucket
+     */
+    static long highestValue(int bucket) {
+        int shift = bucket < 2 * SUB_BUCKETS ? 0 : bucket / SUB_BUCKETS - 1;
+        long lowest = (long) (bucket - shift * SUB_BUCKETS) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+}
@@ -0,0 +1,200 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives a Ticket Service the way customers do during an on sale
+ *
+ * Customers arrive at a fixed rate whether or not the service keeps up (open loop), each
+ * holding a party of seats picked from the party size weights. A share of the customers
+ * that get their seats reserve them, the rest walk away and leave the hold to expire.
+ *
+ * Latency is measured from when a customer was due to arrive, not from when a thread got
+ * round to it, so a service that falls behind shows the wait of the customers queued behind
+ * it instead of hiding it. Once the run is over the generator waits for the abandoned holds
+ * to expire and checks the venue sold exactly the seats that were reserved.
+ */
+public class LoadGenerator {
+    private final int threads; //Threads the customers are spread over
+    private final double arrivalRate; //Customers arriving per second
+    private final int[] partySizeWeights; //Weight of each party size, from a party of one up
+    private final int totalWeight; //Sum of the party size weights
+    private final double conversion; //Share of the customers holding seats that reserve them
+    private final long duration; //Milliseconds customers keep arriving
+
+    /**
+     * Load Generator Constructor
+     * @param threads - threads the customers are spread over
+     * @param arrivalRate - customers arriving per second
+     * @param partySizeWeights - weight of each party size, e.g. {5, 3, 2} asks for one seat half of the time
+     * @param conversion - share of the customers holding seats that reserve them, 0 to 1, the rest abandon their hold
+     * @param duration - milliseconds customers keep arriving
+     */
+    public LoadGenerator(int threads, double arrivalRate, int[] partySizeWeights, double conversion, long duration) throws RuntimeException {
+        if(threads <= 0 || arrivalRate <= 0 || duration <= 0) {
+            throw new RuntimeException("Threads, arrival rate and duration must be positive!");
+        }
+        if(conversion < 0 || conversion > 1) {
+            throw new RuntimeException("Conversion must be between 0 and 1!");
+        }
+        int totalWeight = 0;
+        for(int weight : partySizeWeights) {
+            if(weight < 0) {
+                throw new RuntimeException("Party size weights cannot be negative!");
+            }
+            totalWeight += weight;
+        }
+        if(totalWeight == 0) {
+            throw new RuntimeException("At least one party size needs a weight!");
+        }
+        this.threads = threads;
+        this.arrivalRate = arrivalRate;
+        this.partySizeWeights = partySizeWeights.clone();
+        this.totalWeight = totalWeight;
+        this.conversion = conversion;
+        this.duration = duration;
+    }
+
+    /**
+     * Runs the on sale against a service and checks the venue once the abandoned holds expired
+     *
+     * @param ticketService the service under load, with no holds of its own outstanding
+     * @param drainTimeout milliseconds to wait for the abandoned holds to expire
+     * @return the report of the run
+     */
+    public LoadReport run(TicketService ticketService, long drainTimeout) throws InterruptedException {
+        int capacity = ticketService.numSeatsAvailable();
+        Customers customers = new Customers();
+        ExecutorService executor = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(task, "load-generator");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long start = System.nanoTime();
+        try {
+            List<Future<?>> workers = new ArrayList<>();
+            for(int worker = 0; worker < threads; worker++) {
+                final int first = worker;
+                workers.add(executor.submit(() -> arrive(ticketService, customers, start, first)));
+            }
+            for(Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Load generator failed!", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        long elapsed = System.nanoTime() - start;
+
+        //Every seat that was not reserved goes back to the venue once the abandoned holds expire
+        int expected = capacity - (int) customers.seatsReserved.sum();
+        long drainUntil = System.currentTimeMillis() + drainTimeout;
+        while(ticketService.numSeatsAvailable() != expected && System.currentTimeMillis() < drainUntil) {
+            Thread.sleep(50);
+        }
+        return new LoadReport(elapsed, customers.arrivals.sum(), customers.holds.sum(), customers.failedHolds.sum(),
+                customers.reservations.sum(), customers.failedReservations.sum(), customers.abandoned.sum(),
+                customers.seatsReserved.sum(), customers.oversold.sum(), ticketService.numSeatsAvailable(), expected,
+                new MetricsSnapshot.Latency(customers.holdLatency), new MetricsSnapshot.Latency(customers.reserveLatency));
+    }
+
+    /**
+     * Plays the customers of one thread, every threads-th arrival starting at first
+     */
+    private void arrive(TicketService ticketService, Customers customers, long start, int first) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        double interval = TimeUnit.SECONDS.toNanos(1) / arrivalRate;
+        long end = start + TimeUnit.MILLISECONDS.toNanos(duration);
+        for(long arrival = first; ; arrival += threads) {
+            long due = start + (long) (arrival * interval);
+            if(due >= end || Thread.currentThread().isInterrupted()) {
+                return;
+            }
+            long wait = due - System.nanoTime();
+            if(wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            String customerEmail = "customer" + arrival + "@load.test";
+            customers.arrivals.increment();
+            SeatHold seatHold = ticketService.findAndHoldSeats(partySize(random), customerEmail);
+            long held = System.nanoTime();
+            customers.holdLatency.record(held - due);
+            if(seatHold.getNumberOfSeatsOnHold() == 0) {
+                customers.failedHolds.increment();
+                continue;
+            }
+            customers.holds.increment();
+            if(random.nextDouble() >= conversion) {
+                customers.abandoned.increment();
+                continue;
+            }
+            Reservation reservation = ticketService.reserveSeats(seatHold.getId(), customerEmail);
+            customers.reserveLatency.record(System.nanoTime() - held);
+            if(reservation.isReserved()) {
+                customers.reservations.increment();
+                customers.seatsReserved.add(seatHold.getNumberOfSeatsOnHold());
+                customers.sold(seatHold.getSeatIds());
+            } else {
+                customers.failedReservations.increment();
+            }
+        }
+    }
+
+    private int partySize(ThreadLocalRandom random) {
+        int pick = random.nextInt(totalWeight);
+        for(int size = 0; ; size++) {
+            pick -= partySizeWeights[size];
+            if(pick < 0) {
+                return size + 1;
+            }
+        }
+    }
+
+    /**
+     * What the customers of a run did, shared by the threads playing them
+     */
+    private static final class Customers {
+        private final LongAdder arrivals = new LongAdder(); //Customers that arrived
+        private final LongAdder holds = new LongAdder(); //Customers that got their seats on hold
+        private final LongAdder failedHolds = new LongAdder(); //Customers that got no seats
+        private final LongAdder reservations = new LongAdder(); //Customers that reserved their seats
+        private final LongAdder failedReservations = new LongAdder(); //Customers whose reserve was refused
+        private final LongAdder abandoned = new LongAdder(); //Customers that left their hold to expire
+        private final LongAdder seatsReserved = new LongAdder(); //Seats reserved
+        private final LongAdder oversold = new LongAdder(); //Seats reserved by more than one customer
+        private final LatencyHistogram holdLatency = new LatencyHistogram(); //Nanoseconds from arrival to the hold
+        private final LatencyHistogram reserveLatency = new LatencyHistogram(); //Nanoseconds to reserve a hold
+        private final BitSet sold = new BitSet(); //Ids of the seats reserved so far, guarded by itself
+
+        /**
+         * Marks seats sold, counting every one that was already sold
+         *
+         * Lawn spots have no id, and only numbered seats can be sold twice.
+         */
+        private void sold(int[] seatIds) {
+            synchronized(sold) {
+                for(int seatId : seatIds) {
+                    if(sold.get(seatId)) {
+                        oversold.increment();
+                    }
+                    sold.set(seatId);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.ticket.service.Impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a load generator run
+ */
+public class LoadReport {
+    private final long elapsed; //Nanoseconds customers were arriving for
+    private final long arrivals; //Customers that arrived
+    private final long holds; //Customers that got their seats on hold
+    private final long failedHolds; //Customers that got no seats
+    private final long reservations; //Customers that reserved their seats
+    private final long failedReservations; //Customers whose reserve was refused
+    private final long abandoned; //Customers that left their hold to expire
+    private final long seatsReserved; //Seats reserved
+    private final long oversold; //Seats reserved by more than one customer
+    private final int seatsAvailable; //Seats available once the abandoned holds expired
+    private final int expectedSeatsAvailable; //Seats that should be available, the venue less the seats reserved
+    private final MetricsSnapshot.Latency holdLatency; //Latency from arrival to the hold
+    private final MetricsSnapshot.Latency reserveLatency; //Latency of reserving a hold
+
+    LoadReport(long elapsed, long arrivals, long holds, long failedHolds, long reservations, long failedReservations,
+               long abandoned, long seatsReserved, long oversold, int seatsAvailable, int expectedSeatsAvailable,
+               MetricsSnapshot.Latency holdLatency, MetricsSnapshot.Latency reserveLatency) {
+        this.elapsed = elapsed;
+        this.arrivals = arrivals;
+        this.holds = holds;
+        this.failedHolds = failedHolds;
+        this.reservations = reservations;
+        this.failedReservations = failedReservations;
+        this.abandoned = abandoned;
+        this.seatsReserved = seatsReserved;
+        this.oversold = oversold;
+        this.seatsAvailable = seatsAvailable;
+        this.expectedSeatsAvailable = expectedSeatsAvailable;
+        this.holdLatency = holdLatency;
+        this.reserveLatency = reserveLatency;
+    }
+
+    public long getArrivals() {
+        return arrivals;
+    }
+
+    public long getHolds() {
+        return holds;
+    }
+
+    public long getFailedHolds() {
+        return failedHolds;
+    }
+
+    public long getReservations() {
+        return reservations;
+    }
+
+    public long getFailedReservations() {
+        return failedReservations;
+    }
+
+    public long getAbandoned() {
+        return abandoned;
+    }
+
+    public long getSeatsReserved() {
+        return seatsReserved;
+    }
+
+    public long getOversold() {
+        return oversold;
+    }
+
+    public int getSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    public int getExpectedSeatsAvailable() {
+        return expectedSeatsAvailable;
+    }
+
+    public MetricsSnapshot.Latency getHoldLatency() {
+        return holdLatency;
+    }
+
+    public MetricsSnapshot.Latency getReserveLatency() {
+        return reserveLatency;
+    }
+
+    /**
+     * Gets the customers served per second
+     *
+     * @return the throughput
+     */
+    public double getThroughput() {
+        return arrivals / Math.max(1e-9, elapsed / (double) TimeUnit.SECONDS.toNanos(1));
+    }
+
+    /**
+     * Checks the venue sold exactly the seats reserved, each to one customer
+     *
+     * @return true if the inventory is consistent
+     */
+    public boolean isConsistent() {
+        return oversold == 0 && seatsAvailable == expectedSeatsAvailable;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("arrivals=%d (%.0f/s) holds=%d failedHolds=%d reservations=%d failedReservations=%d abandoned=%d%n"
+                        + "seatsReserved=%d seatsAvailable=%d expected=%d oversold=%d consistent=%b%n"
+                        + "hold[%s]%nreserve[%s]",
+                arrivals, getThroughput(), holds, failedHolds, reservations, failedReservations, abandoned,
+                seatsReserved, seatsAvailable, expectedSeatsAvailable, oversold, isConsistent(), holdLatency, reserveLatency);
+    }
+}
@@ -0,0 +1,448 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.TicketEvents;
+import com.ticket.service.interfaces.TicketJournal;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Ticket Journal written through a memory mapped file
+ *
+ * Appending an event is a copy into the mapped file under a short lock and never waits for
+ * the disk. A flusher thread forces the file to disk in the background, and every thread
+ * waiting in flush is released by the same force, so request threads share the writes to
+ * the disk instead of taking turns (group commit).
+ *
+ * The file is mapped one region at a time and an event never spans two regions. Each event
+ * is its length, a CRC32 and the event itself, with the length written last, so an event
+ * torn by a crash is found on replay and the journal carries on from the event before it.
+ *
+ * Appends and flushes wait on locks rather than monitors, so a virtual thread waiting for
+ * the disk parks and leaves its carrier thread to the others.
+ */
+public class MappedJournal implements TicketJournal {
+    private static final int MAGIC = 0x544b4a31; //Marks the file as a ticket journal
+    private static final int HEADER = 8; //Magic and region size at the start of the file
+    private static final int EVENT_HEADER = 8; //Length and CRC32 in front of each event
+    private static final int END_OF_REGION = -1; //Length that sends the reader on to the next region
+    private static final int DEFAULT_REGION_SIZE = 64 << 20; //Size of each mapped region
+    private static final long FLUSH_INTERVAL = 10; //Longest in milliseconds an event waits to be forced when nobody flushes
+    private static final byte HOLD = 1;
+    private static final byte RESERVE = 2;
+    private static final byte EXPIRE = 3;
+    private static final byte RELEASE = 4;
+    private static final byte EXTEND = 5;
+
+    private final FileChannel channel; //The journal file
+    private final int regionSize; //Size of each mapped region, read back from the file when it already exists
+    private final ReentrantLock appendLock; //Guards the region being appended to
+    private final CRC32 checksum; //Checksum of the event being appended, guarded by appendLock
+    private MappedByteBuffer region; //Region being appended to, guarded by appendLock
+    private long regionStart; //Offset in the file of the region, guarded by appendLock
+    private List<MappedByteBuffer> filled; //Regions filled since the last force, guarded by appendLock
+    private long written; //Offset in the file after the last event appended, guarded by appendLock
+    private final ReentrantLock flushLock; //Lock the flusher and the threads waiting on it share
+    private final Condition flushed; //Signalled when the flusher is asked for or has forced the file
+    private boolean flushRequested; //Determines if a thread is waiting on the flusher, guarded by flushLock
+    private volatile long durable; //Offset in the file everything before is on disk
+    private volatile boolean open; //Determines if the journal takes new events
+    private final Thread flusher; //Forces the file to disk in the background
+
+    /**
+     * Mapped Journal Constructor with 64MB regions
+     * @param file - journal file, created if it does not exist
+     * @throws UncheckedIOException if the file can not be opened
+     */
+    public MappedJournal(Path file) throws RuntimeException {
+        this(file, DEFAULT_REGION_SIZE);
+    }
+
+    /**
+     * Mapped Journal Constructor
+     * @param file - journal file, created if it does not exist
+     * @param regionSize - size of each mapped region for a new file, an existing file keeps its own
+     * @throws UncheckedIOException if the file can not be opened
+     */
+    public MappedJournal(Path file, int regionSize) throws RuntimeException {
+        if(regionSize < 64) {
+            throw new RuntimeException("Region size is too small!");
+        }
+        try {
+            channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if(channel.size() >= HEADER) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER);
+                channel.read(header, 0);
+                header.flip();
+                if(header.getInt() != MAGIC) {
+                    throw new RuntimeException("File is not a ticket journal!");
+                }
+                this.regionSize = header.getInt();
+                //Regions fill up one after the other, so the end of the journal is in the last one
+                long lastRegion = (channel.size() - 1) / this.regionSize * this.regionSize;
+                written = scan(null, lastRegion, Long.MAX_VALUE);
+                regionStart = written - written % this.regionSize;
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, this.regionSize);
+                //Clears whatever a crash left after the last whole event
+                byte[] zeros = new byte[4096];
+                region.position((int) (written - regionStart));
+                while(region.hasRemaining()) {
+                    region.put(zeros, 0, Math.min(zeros.length, region.remaining()));
+                }
+            } else {
+                this.regionSize = regionSize;
+                region = channel.map(FileChannel.MapMode.READ_WRITE, 0, regionSize);
+                region.putInt(0, MAGIC);
+                region.putInt(4, regionSize);
+                written = HEADER;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        region.position((int) (written - regionStart));
+        appendLock = new ReentrantLock();
+        filled = new ArrayList<>();
+        checksum = new CRC32();
+        flushLock = new ReentrantLock();
+        flushed = flushLock.newCondition();
+        durable = written;
+        open = true;
+        flusher = new Thread(this::runFlusher, "journal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    @Override
+    public void hold(int seatHoldId, String customerEmail, long expiresAt, int[] seatIds) {
+        byte[] email = customerEmail == null ? null : customerEmail.getBytes(StandardCharsets.UTF_8);
+        int length = 1 + 4 + 8 + 4 + (email == null ? 0 : email.length) + 4 + 4 * seatIds.length;
+        appendLock.lock();
+        try {
+            int start = startEvent(length);
+            region.put(HOLD).putInt(seatHoldId).putLong(expiresAt);
+            if(email == null) {
+                region.putInt(-1);
+            } else {
+                region.putInt(email.length).put(email);
+            }
+            region.putInt(seatIds.length);
+            for(int seatId : seatIds) {
+                region.putInt(seatId);
+            }
+            endEvent(start, length);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void reserve(int seatHoldId) {
+        appendLock.lock();
+        try {
+            int start = startEvent(5);
+            region.put(RESERVE).putInt(seatHoldId);
+            endEvent(start, 5);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void expire(int seatHoldId) {
+        appendLock.lock();
+        try {
+            int start = startEvent(5);
+            region.put(EXPIRE).putInt(seatHoldId);
+            endEvent(start, 5);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void release(int seatHoldId, int[] seatIds) {
+        int length = 1 + 4 + 4 + 4 * seatIds.length;
+        appendLock.lock();
+        try {
+            int start = startEvent(length);
+            region.put(RELEASE).putInt(seatHoldId).putInt(seatIds.length);
+            for(int seatId : seatIds) {
+                region.putInt(seatId);
+            }
+            endEvent(start, length);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void extend(int seatHoldId, long expiresAt) {
+        appendLock.lock();
+        try {
+            int start = startEvent(13);
+            region.put(EXTEND).putInt(seatHoldId).putLong(expiresAt);
+            endEvent(start, 13);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void flush() {
+        long target = position();
+        if(durable >= target) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            while(durable < target) {
+                if(!open && !flusher.isAlive()) {
+                    throw new RuntimeException("Journal has been closed!");
+                }
+                flushRequested = true;
+                flushed.signalAll();
+                try {
+                    flushed.await(FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Interrupted waiting for the journal!", e);
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @Override
+    public long position() {
+        appendLock.lock();
+        try {
+            return written;
+        } finally {
+            appendLock.unlock();
+        }
+    }
+
+    @Override
+    public void replay(TicketEvents events, long from) {
+        long end = position();
+        try {
+            scan(events, from, end);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        flushLock.lock();
+        try {
+            open = false;
+            flushed.signalAll();
+        } finally {
+            flushLock.unlock();
+        }
+        try {
+            flusher.join();
+            force();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Makes room for an event in the region, moving on to a new region when it does not fit
+     *
+     * @param length length of the event
+     * @return position in the region of the event
+     */
+    private int startEvent(int length) {
+        if(!open) {
+            throw new RuntimeException("Journal has been closed!");
+        }
+        if(length + EVENT_HEADER > regionSize - HEADER) {
+            throw new RuntimeException("Event is too large for the journal!");
+        }
+        if(region.remaining() < length + EVENT_HEADER) {
+            if(region.remaining() >= 4) {
+                region.putInt(region.position(), END_OF_REGION);
+            }
+            //The flusher forces the old region, an append never waits on the disk
+            filled.add(region);
+            regionStart += regionSize;
+            try {
+                region = channel.map(FileChannel.MapMode.READ_WRITE, regionStart, regionSize);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        int start = region.position();
+        region.position(start + EVENT_HEADER);
+        return start;
+    }
+
+    /**
+     * Seals an event with its checksum and then its length, making it visible to replay
+     *
+     * @param start position in the region of the event
+     * @param length length of the event
+     */
+    private void endEvent(int start, int length) {
+        ByteBuffer event = region.duplicate();
+        event.position(start + EVENT_HEADER).limit(start + EVENT_HEADER + length);
+        checksum.reset();
+        checksum.update(event);
+        region.putInt(start + 4, (int) checksum.getValue());
+        region.putInt(start, length);
+        written = regionStart + start + EVENT_HEADER + length;
+    }
+
+    /**
+     * Reads the events of the file
+     *
+     * @param events receives the events, null to only find the end of the journal
+     * @param from offset in the file of the first event to read
+     * @param end offset in the file to stop at
+     * @return offset in the file after the last whole event
+     */
+    private long scan(TicketEvents events, long from, long end) throws IOException {
+        CRC32 crc = new CRC32();
+        long size = channel.size();
+        long start = from - from % regionSize;
+        int position = Math.max((int) (from - start), start == 0 ? HEADER : 0);
+        while(start < size) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, size - start));
+            while(buffer.limit() - position >= EVENT_HEADER) {
+                if(start + position >= end) {
+                    return start + position;
+                }
+                int length = buffer.getInt(position);
+                if(length == END_OF_REGION) {
+                    break;
+                }
+                if(length <= 0 || length > buffer.limit() - position - EVENT_HEADER) {
+                    return start + position;
+                }
+                ByteBuffer event = buffer.duplicate();
+                event.position(position + EVENT_HEADER).limit(position + EVENT_HEADER + length);
+                crc.reset();
+                crc.update(event.duplicate());
+                if((int) crc.getValue() != buffer.getInt(position + 4)) {
+                    return start + position;
+                }
+                if(events != null) {
+                    dispatch(event, events);
+                }
+                position += EVENT_HEADER + length;
+            }
+            start += regionSize;
+            position = 0;
+        }
+        return start;
+    }
+
+    private static void dispatch(ByteBuffer event, TicketEvents events) {
+        byte type = event.get();
+        int seatHoldId = event.getInt();
+        if(type == HOLD) {
+            long expiresAt = event.getLong();
+            int emailLength = event.getInt();
+            String customerEmail = null;
+            if(emailLength >= 0) {
+                byte[] email = new byte[emailLength];
+                event.get(email);
+                customerEmail = new String(email, StandardCharsets.UTF_8);
+            }
+            int[] seatIds = new int[event.getInt()];
+            for(int index = 0; index < seatIds.length; index++) {
+                seatIds[index] = event.getInt();
+            }
+            events.hold(seatHoldId, customerEmail, expiresAt, seatIds);
+        } else if(type == RESERVE) {
+            events.reserve(seatHoldId);
+        } else if(type == EXPIRE) {
+            events.expire(seatHoldId);
+        } else if(type == RELEASE) {
+            int[] seatIds = new int[event.getInt()];
+            for(int index = 0; index < seatIds.length; index++) {
+                seatIds[index] = event.getInt();
+            }
+            events.release(seatHoldId, seatIds);
+        } else if(type == EXTEND) {
+            events.extend(seatHoldId, event.getLong());
+        }
+    }
+
+    /**
+     * Forces everything appended so far to disk and wakes the threads waiting on it
+     *
+     * The regions filled since the last force go first, as the events before the target are
+     * only durable once every region they are in is on disk.
+     */
+    private void force() {
+        long target;
+        MappedByteBuffer buffer;
+        List<MappedByteBuffer> regions;
+        appendLock.lock();
+        try {
+            target = written;
+            buffer = region;
+            regions = filled;
+            if(!regions.isEmpty()) {
+                filled = new ArrayList<>();
+            }
+        } finally {
+            appendLock.unlock();
+        }
+        for(MappedByteBuffer filledRegion : regions) {
+            filledRegion.force();
+        }
+        if(target > durable) {
+            buffer.force();
+            flushLock.lock();
+            try {
+                durable = target;
+                flushed.signalAll();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * The flusher loop, forces as soon as a thread waits and at least every flush interval
+     */
+    private void runFlusher() {
+        while(open) {
+            flushLock.lock();
+            try {
+                if(!flushRequested && open) {
+                    try {
+                        flushed.await(FLUSH_INTERVAL, TimeUnit.MILLISECONDS);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                flushRequested = false;
+            } finally {
+                flushLock.unlock();
+            }
+            force();
+        }
+    }
+}
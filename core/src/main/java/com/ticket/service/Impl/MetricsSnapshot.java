@@ -0,0 +1,135 @@
+package com.ticket.service.Impl;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Metrics of a ticket service at one moment, counted from when the metrics were created
+ */
+public class MetricsSnapshot {
+    private final long timestamp; //Wall clock time in milliseconds the snapshot was taken
+    private final long holds; //Holds that got the seats they asked for
+    private final long failedHolds; //Holds that got no seats, not enough were available
+    private final long reservations; //Holds reserved
+    private final long failedReservations; //Reserves that were refused
+    private final long expiries; //Holds that expired
+    private final int seatsAvailable; //Seats available when the snapshot was taken, -1 if unknown
+    private final Latency holdLatency; //Latency of findAndHoldSeats
+    private final Latency reserveLatency; //Latency of reserveSeats
+    private final Latency expiryLag; //How late holds expired after their deadline
+
+    MetricsSnapshot(long timestamp, long holds, long failedHolds, long reservations, long failedReservations, long expiries,
+                    int seatsAvailable, Latency holdLatency, Latency reserveLatency, Latency expiryLag) {
+        this.timestamp = timestamp;
+        this.holds = holds;
+        this.failedHolds = failedHolds;
+        this.reservations = reservations;
+        this.failedReservations = failedReservations;
+        this.expiries = expiries;
+        this.seatsAvailable = seatsAvailable;
+        this.holdLatency = holdLatency;
+        this.reserveLatency = reserveLatency;
+        this.expiryLag = expiryLag;
+    }
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public long getHolds() {
+        return holds;
+    }
+
+    public long getFailedHolds() {
+        return failedHolds;
+    }
+
+    public long getReservations() {
+        return reservations;
+    }
+
+    public long getFailedReservations() {
+        return failedReservations;
+    }
+
+    public long getExpiries() {
+        return expiries;
+    }
+
+    public int getSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    public Latency getHoldLatency() {
+        return holdLatency;
+    }
+
+    public Latency getReserveLatency() {
+        return reserveLatency;
+    }
+
+    public Latency getExpiryLag() {
+        return expiryLag;
+    }
+
+    @Override
+    public String toString() {
+        return "holds=" + holds + " failedHolds=" + failedHolds + " reservations=" + reservations
+                + " failedReservations=" + failedReservations + " expiries=" + expiries + " seatsAvailable=" + seatsAvailable
+                + " hold[" + holdLatency + "] reserve[" + reserveLatency + "] expiryLag[" + expiryLag + "]";
+    }
+
+    /**
+     * Percentiles of a latency histogram, in nanoseconds
+     */
+    public static class Latency {
+        private final long count;
+        private final long p50;
+        private final long p90;
+        private final long p99;
+        private final long p999;
+        private final long max;
+
+        Latency(LatencyHistogram histogram) {
+            this.count = histogram.getCount();
+            this.p50 = histogram.getValueAtPercentile(50);
+            this.p90 = histogram.getValueAtPercentile(90);
+            this.p99 = histogram.getValueAtPercentile(99);
+            this.p999 = histogram.getValueAtPercentile(99.9);
+            this.max = histogram.getMax();
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getP50() {
+            return p50;
+        }
+
+        public long getP90() {
+            return p90;
+        }
+
+        public long getP99() {
+            return p99;
+        }
+
+        public long getP999() {
+            return p999;
+        }
+
+        public long getMax() {
+            return max;
+        }
+
+        @Override
+        public String toString() {
+            return "count=" + count + " p50=" + micros(p50) + "us p90=" + micros(p90) + "us p99=" + micros(p99)
+                    + "us p99.9=" + micros(p999) + "us max=" + micros(max) + "us";
+        }
+
+        private static long micros(long nanos) {
+            return TimeUnit.NANOSECONDS.toMicros(nanos);
+        }
+    }
+}
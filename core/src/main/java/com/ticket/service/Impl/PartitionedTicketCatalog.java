@@ -0,0 +1,178 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketCatalog;
+import com.ticket.service.interfaces.TicketService;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ticket Catalog Implementation that partitions the shows across worker threads
+ *
+ * Every show has its own venue and belongs to one partition, and every change to a show,
+ * including the release of its expired holds, runs on the single worker thread of that
+ * partition. Shows never contend with each other and a venue only ever has one writer,
+ * so the catalog scales with the number of partitions when the load is spread over shows.
+ */
+public class PartitionedTicketCatalog implements TicketCatalog {
+    private final Partition[] partitions; //The workers, one thread each
+    private final ConcurrentHashMap<String, Show> shows; //Map of the shows by show id
+    private final AtomicInteger nextPartition; //Hands the shows out to the partitions in turn
+    private final ExpiryScheduler expiryScheduler; //Scheduler shared by the shows of every partition
+
+    /**
+     * Partitioned Ticket Catalog Constructor with one partition per core
+     */
+    public PartitionedTicketCatalog() {
+        this(Runtime.getRuntime().availableProcessors(), HashedWheelExpiryScheduler.getDefault());
+    }
+
+    /**
+     * Partitioned Ticket Catalog Constructor
+     *
+     * @param partitions - number of worker threads the shows are spread over
+     * @param expiryScheduler - scheduler that times the holds of every show
+     * @throws RuntimeException if partitions is not positive
+     */
+    public PartitionedTicketCatalog(int partitions, ExpiryScheduler expiryScheduler) throws RuntimeException {
+        if(partitions <= 0) {
+            throw new RuntimeException("Partitions must be positive!");
+        }
+        this.partitions = new Partition[partitions];
+        for(int index = 0; index < partitions; index++) {
+            this.partitions[index] = new Partition(index);
+        }
+        this.shows = new ConcurrentHashMap<>();
+        this.nextPartition = new AtomicInteger();
+        this.expiryScheduler = expiryScheduler;
+    }
+
+    @Override
+    public void addShow(String showId, int rows, int cols, long duration) throws RuntimeException {
+        if(shows.containsKey(showId)) {
+            throw new RuntimeException("Show " + showId + " already exists!");
+        }
+        //The venue is built outside the map, so a big venue never holds up the other shows of its bin
+        Partition partition = partitions[Math.floorMod(nextPartition.getAndIncrement(), partitions.length)];
+        Show show = new Show(new ConcurrentTicketServiceImpl(rows, cols, duration, new PartitionExpiryScheduler(partition)), partition);
+        //A venue that loses the race has nothing scheduled yet and is simply dropped
+        if(shows.putIfAbsent(showId, show) != null) {
+            throw new RuntimeException("Show " + showId + " already exists!");
+        }
+    }
+
+    @Override
+    public int numSeatsAvailable(String showId) {
+        //A read of the counter, no need to queue behind the writer
+        return findShow(showId).ticketService.numSeatsAvailable();
+    }
+
+    @Override
+    public SeatHold findAndHoldSeats(String showId, int numSeats, String customerEmail) {
+        Show show = findShow(showId);
+        return show.partition.call(() -> show.ticketService.findAndHoldSeats(numSeats, customerEmail));
+    }
+
+    @Override
+    public Reservation reserveSeats(String showId, int seatHoldId, String customerEmail) {
+        Show show = findShow(showId);
+        return show.partition.call(() -> show.ticketService.reserveSeats(seatHoldId, customerEmail));
+    }
+
+    @Override
+    public void shutdown() {
+        for(Partition partition : partitions) {
+            partition.worker.shutdown();
+        }
+    }
+
+    /**
+     * Looks up a show
+     *
+     * @param showId the show identifier
+     * @return the show
+     * @throws RuntimeException if the show is not in the catalog
+     */
+    private Show findShow(String showId) throws RuntimeException {
+        Show show = shows.get(showId);
+        if(show == null) {
+            throw new RuntimeException("No show found with ID of " + showId);
+        }
+        return show;
+    }
+
+    /**
+     * A show and the partition that owns it
+     */
+    private static final class Show {
+        private final TicketService ticketService;
+        private final Partition partition;
+
+        Show(TicketService ticketService, Partition partition) {
+            this.ticketService = ticketService;
+            this.partition = partition;
+        }
+    }
+
+    /**
+     * A worker thread that runs every change to the shows it owns, one at a time
+     */
+    private static final class Partition {
+        private final ExecutorService worker;
+
+        Partition(int index) {
+            worker = Executors.newSingleThreadExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "show-partition-" + index);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+
+        /**
+         * Runs the task on the worker and waits for its result
+         */
+        <T> T call(Callable<T> task) throws RuntimeException {
+            Future<T> future = worker.submit(task);
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException("Interrupted waiting for the show partition", e);
+            } catch (ExecutionException e) {
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new RuntimeException(e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Expiry scheduler that runs the expired holds on the partition that owns the show
+     */
+    private final class PartitionExpiryScheduler implements ExpiryScheduler {
+        private final Partition partition;
+
+        PartitionExpiryScheduler(Partition partition) {
+            this.partition = partition;
+        }
+
+        @Override
+        public Timeout schedule(Runnable task, long delay) {
+            return expiryScheduler.schedule(() -> partition.worker.execute(task), delay);
+        }
+
+        @Override
+        public void expired(long lagNanos) {
+            expiryScheduler.expired(lagNanos);
+        }
+
+        @Override
+        public void shutdown() {
+            //The shared scheduler outlives the shows
+        }
+    }
+}
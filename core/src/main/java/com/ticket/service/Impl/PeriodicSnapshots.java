@@ -0,0 +1,46 @@
+package com.ticket.service.Impl;
+
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Writes a snapshot of a venue in the background every interval
+ *
+ * The snapshot is written on its own thread while requests keep running. A snapshot that
+ * fails is handed to the failure handler and the next one is still written.
+ */
+public class PeriodicSnapshots {
+    private final ScheduledExecutorService executor; //Thread the snapshots are written on
+
+    /**
+     * Periodic Snapshots Constructor
+     * @param ticketService - the venue, it must have a journal
+     * @param file - snapshot file
+     * @param interval - seconds between the end of one snapshot and the start of the next
+     * @param onFailure - gets the error of each snapshot that could not be written
+     */
+    public PeriodicSnapshots(ConcurrentTicketServiceImpl ticketService, Path file, long interval, Consumer<RuntimeException> onFailure) {
+        executor = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "venue-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                ticketService.writeSnapshot(file);
+            } catch (RuntimeException e) {
+                onFailure.accept(e);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops writing snapshots, a snapshot being written is finished
+     */
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
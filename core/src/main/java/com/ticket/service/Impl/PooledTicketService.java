@@ -0,0 +1,491 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ticket Service whose holds and reservations allocate nothing once it is warmed up
+ *
+ * Holds are records from a pool that grows to the most holds the venue has had within one
+ * hold duration and is then reused, each with a seat array that grows to the biggest party
+ * it has held. Every hold lasts the same duration, so the records wait for their deadline
+ * in a ring that is already in deadline order, and each request first releases the holds
+ * whose System.nanoTime deadline has passed, with no timer task or date per hold.
+ *
+ * A record goes back to the pool once its hold expires, a reserved record is kept for good.
+ * A hold id names its record and how many times the record has been used, so the id of a
+ * recycled hold is not found.
+ *
+ * holdSeats, reserve and copySeatIds work with hold ids and caller owned arrays and
+ * allocate nothing. findAndHoldSeats and reserveSeats go through them and hand out a small
+ * SeatHold or Reservation view per call, which keeps the id it was made for, so once its
+ * record is used again the view finds no seats.
+ *
+ * Requests that fail, e.g. on a sold out venue, still allocate the hold or reservation
+ * that tells the caller why.
+ */
+public class PooledTicketService implements TicketService {
+    private static final int HELD = 0; //Seats are on hold
+    private static final int RESERVED = 1; //Seats have been reserved by the customer
+    private static final int RELEASED = 2; //Hold expired and the seats went back to the venue
+    private static final int[] NO_SEATS = new int[0]; //Seats of a hold that could not be filled
+
+    private final SeatInventory inventory; //The seats, guarded by the lock of the service
+    private final int cols; //Number of seats across the row
+    private final long duration; //The duration of the expiration hold in seconds
+    private final long durationNanos; //The duration of the expiration hold in nanoseconds
+    private final int slotBits; //Low bits of a hold id that name its record
+    private final int useMask; //Bits of a hold id left to count the uses of the record
+    private PooledHold[] holds; //Records of the pool, a record is found by its slot
+    private int size; //Records made so far
+    private int[] freeSlots; //Slots of the records back in the pool, last in first out
+    private int freeCount; //Records back in the pool
+    private int[] expiring; //Slots of the records waiting for their deadline, a ring oldest first
+    private int expiringHead; //Position in the ring of the oldest record
+    private int expiringCount; //Records waiting for their deadline
+
+    /**
+     * Pooled Ticket Service Constructor with room for 16 holds before the pool grows
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public PooledTicketService(int rows, int cols, long duration) throws RuntimeException {
+        if(rows == 0 || cols == 0) {
+            throw new RuntimeException("Rows and Columns cannot be zero!");
+        }
+        this.cols = cols;
+        this.duration = duration;
+        this.durationNanos = TimeUnit.SECONDS.toNanos(duration);
+        this.inventory = new SeatInventory(rows, cols);
+        //Every record in use holds at least one seat, so there are never more records than seats
+        this.slotBits = Math.max(1, 32 - Integer.numberOfLeadingZeros(rows * cols - 1));
+        this.useMask = slotBits >= 31 ? 0 : (1 << (31 - slotBits)) - 1;
+        this.holds = new PooledHold[16];
+        this.freeSlots = new int[16];
+        this.expiring = new int[16];
+    }
+
+    @Override
+    public synchronized int numSeatsAvailable() {
+        expireHolds(System.nanoTime());
+        return inventory.getSeatsAvailable();
+    }
+
+    /**
+     * Finds and holds the best seats, handing out a view of the record
+     */
+    @Override
+    public synchronized SeatHold findAndHoldSeats(int numSeats, String customerEmail) {
+        int seatHoldId = holdSeats(numSeats, customerEmail);
+        if(seatHoldId < 0) {
+            //No record is used, so the hold gets an id no record has
+            return new CompactSeatHoldImpl(-1, NO_SEATS, customerEmail, duration * 1000, cols, seatIds -> { });
+        }
+        return new PooledSeatHold(findHold(seatHoldId));
+    }
+
+    /**
+     * Reserves a hold, handing out a view of the record
+     */
+    @Override
+    public synchronized Reservation reserveSeats(int seatHoldId, String customerEmail) {
+        Reservation.Status status = reserve(seatHoldId, customerEmail, null);
+        PooledHold seatHold = findHold(seatHoldId);
+        if(status == Reservation.Status.RESERVED) {
+            return new PooledReservation(seatHold);
+        }
+        return ReservationImpl.failed(status, seatHoldId, customerEmail, seatHold == null ? null : new PooledSeatHold(seatHold));
+    }
+
+    /**
+     * Finds and holds the best seats in a record of the pool
+     *
+     * Only a pool or a seat array that has to grow allocates.
+     *
+     * @param numSeats the number of seats to find and hold
+     * @param customerEmail unique identifier for the customer
+     * @return the id of the hold, -1 if the venue has too few seats
+     */
+    public synchronized int holdSeats(int numSeats, String customerEmail) {
+        long now = System.nanoTime();
+        expireHolds(now);
+        if(numSeats <= 0 || numSeats > inventory.getSeatsAvailable()) {
+            return -1;
+        }
+        PooledHold seatHold = nextHold();
+        seatHold.hold(numSeats, customerEmail, now + durationNanos);
+        inventory.take(numSeats, seatHold.seatIds);
+        expireLater(seatHold.slot);
+        return seatHold.id;
+    }
+
+    /**
+     * Reserves a hold without allocating
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param customerEmail the email address of the customer to which the seat hold is assigned
+     * @param code receives the two halves of the confirmation code when the seats are reserved, null for none
+     * @return RESERVED, otherwise why the seats were not reserved
+     */
+    public synchronized Reservation.Status reserve(int seatHoldId, String customerEmail, long[] code) {
+        expireHolds(System.nanoTime());
+        PooledHold seatHold = findHold(seatHoldId);
+        if(seatHold == null) {
+            return Reservation.Status.NOT_FOUND;
+        } else if(seatHold.state == RESERVED) {
+            return Reservation.Status.ALREADY_RESERVED;
+        } else if(customerEmail == null || !seatHold.customerEmail.equals(customerEmail)) {
+            return Reservation.Status.EMAIL_MISMATCH;
+        } else if(seatHold.state == RELEASED) {
+            return Reservation.Status.EXPIRED;
+        }
+        seatHold.state = RESERVED;
+        ConfirmationCodes codes = ConfirmationCodes.current();
+        codes.next();
+        seatHold.codeHigh = codes.getHigh();
+        seatHold.codeLow = codes.getLow();
+        if(code != null) {
+            code[0] = seatHold.codeHigh;
+            code[1] = seatHold.codeLow;
+        }
+        return Reservation.Status.RESERVED;
+    }
+
+    /**
+     * Copies the seats of a hold into an array of the caller
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param seatIds receives the ids of the seats, big enough for the hold
+     * @return the number of seats copied, -1 if the hold is not found
+     */
+    public synchronized int copySeatIds(int seatHoldId, int[] seatIds) {
+        PooledHold seatHold = findHold(seatHoldId);
+        if(seatHold == null) {
+            return -1;
+        }
+        System.arraycopy(seatHold.seatIds, 0, seatIds, 0, seatHold.numSeats);
+        return seatHold.numSeats;
+    }
+
+    /**
+     * Renders the confirmation code written by reserve as text
+     *
+     * @param code the two halves of the code
+     * @return the code
+     */
+    public static String renderCode(long[] code) {
+        return ConfirmationCodes.render(code[0], code[1]);
+    }
+
+    /**
+     * Finds the record of a hold id
+     *
+     * @param seatHoldId the seat hold identifier
+     * @return the record, null if the id is unknown or the record was used again since
+     */
+    private PooledHold findHold(int seatHoldId) {
+        int slot = seatHoldId & ((1 << slotBits) - 1);
+        if(seatHoldId < 0 || slot >= size || holds[slot].id != seatHoldId) {
+            return null;
+        }
+        return holds[slot];
+    }
+
+    /**
+     * Takes a record from the pool, making one when the pool is empty
+     *
+     * @return the record, with the id of its next use
+     */
+    private PooledHold nextHold() {
+        PooledHold seatHold;
+        if(freeCount > 0) {
+            seatHold = holds[freeSlots[--freeCount]];
+        } else {
+            if(size == holds.length) {
+                grow();
+            }
+            seatHold = new PooledHold(size);
+            holds[size++] = seatHold;
+        }
+        seatHold.uses = (seatHold.uses + 1) & useMask;
+        seatHold.id = seatHold.uses << slotBits | seatHold.slot;
+        return seatHold;
+    }
+
+    /**
+     * Doubles the pool, the ring of records waiting for their deadline starts over at 0
+     */
+    private void grow() {
+        int capacity = holds.length * 2;
+        int[] ring = new int[capacity];
+        for(int index = 0; index < expiringCount; index++) {
+            ring[index] = expiring[(expiringHead + index) % expiring.length];
+        }
+        expiring = ring;
+        expiringHead = 0;
+        holds = Arrays.copyOf(holds, capacity);
+        freeSlots = Arrays.copyOf(freeSlots, capacity);
+    }
+
+    /**
+     * Puts a record at the back of the ring of records waiting for their deadline
+     *
+     * The ring has a place for every record of the pool, so it never runs out of room.
+     *
+     * @param slot slot of the record
+     */
+    private void expireLater(int slot) {
+        int tail = expiringHead + expiringCount;
+        expiring[tail < expiring.length ? tail : tail - expiring.length] = slot;
+        expiringCount++;
+    }
+
+    /**
+     * Releases the holds whose deadline has passed and gives their records back to the pool
+     *
+     * A reserved record only leaves the ring, it names its reservation for good.
+     *
+     * @param now System.nanoTime of the request
+     */
+    private void expireHolds(long now) {
+        while(expiringCount > 0) {
+            PooledHold seatHold = holds[expiring[expiringHead]];
+            if(seatHold.deadline - now > 0) {
+                return;
+            }
+            if(seatHold.state == HELD) {
+                seatHold.state = RELEASED;
+                inventory.release(seatHold.seatIds, seatHold.numSeats);
+                freeSlots[freeCount++] = seatHold.slot;
+            }
+            expiringHead = expiringHead + 1 < expiring.length ? expiringHead + 1 : 0;
+            expiringCount--;
+        }
+    }
+
+    /**
+     * Hold record of the pool, guarded by the lock of the service
+     */
+    private static final class PooledHold {
+        private final int slot; //Index of the record in the pool
+        private int[] seatIds; //Ids of the seats on hold, only the first numSeats belong to the hold
+        private int numSeats; //Number of seats being held
+        private int uses; //Times the record has been used, wraps within the id
+        private int id; //Identification of the SeatHold
+        private String customerEmail; //customer email
+        private long deadline; //System.nanoTime the hold expires
+        private int state; //Determines if the seats are held, reserved or released
+        private long codeHigh; //First half of the confirmation code
+        private long codeLow; //Second half of the confirmation code
+        private String code; //Confirmation code as text, built on first use
+
+        PooledHold(int slot) {
+            this.slot = slot;
+            this.seatIds = NO_SEATS;
+        }
+
+        /**
+         * Starts a new hold in the record, growing the seat array if the party is bigger than any before
+         */
+        void hold(int numSeats, String customerEmail, long deadline) {
+            if(seatIds.length < numSeats) {
+                seatIds = new int[numSeats];
+            }
+            this.numSeats = numSeats;
+            this.customerEmail = customerEmail;
+            this.deadline = deadline;
+            this.state = HELD;
+            this.code = null;
+        }
+    }
+
+    /**
+     * Seat hold handed out for one use of a record, finds no seats once the record is used again
+     */
+    private final class PooledSeatHold implements SeatHold {
+        private final PooledHold record; //Record the hold was made in
+        private final int id; //Identification of the SeatHold
+        private final String customerEmail; //customer email
+
+        PooledSeatHold(PooledHold record) {
+            this.record = record;
+            this.id = record.id;
+            this.customerEmail = record.customerEmail;
+        }
+
+        @Override
+        public int getId() {
+            return id;
+        }
+
+        @Override
+        public String displaySeatsOnHold() {
+            return PooledTicketService.this.displaySeats(record, id);
+        }
+
+        @Override
+        public int[] getSeatIds() {
+            return seatIds(record, id);
+        }
+
+        @Override
+        public long holdTimeRemaining() {
+            synchronized(PooledTicketService.this) {
+                return record.id == id ? TimeUnit.NANOSECONDS.toMillis(record.deadline - System.nanoTime()) : 0;
+            }
+        }
+
+        @Override
+        public String getEmail() {
+            return customerEmail;
+        }
+
+        /**
+         * Does nothing, holds of the pool expire with the requests of the service
+         */
+        @Override
+        public void scheduleExpiry(ExpiryScheduler scheduler) {
+        }
+
+        @Override
+        public boolean hasReserved() {
+            synchronized(PooledTicketService.this) {
+                return record.id == id && record.state == RESERVED;
+            }
+        }
+
+        @Override
+        public boolean markReserved() {
+            synchronized(PooledTicketService.this) {
+                expireHolds(System.nanoTime());
+                if(record.id != id || record.state != HELD) {
+                    return false;
+                }
+                record.state = RESERVED;
+                return true;
+            }
+        }
+
+        @Override
+        public int getNumberOfSeatsOnHold() {
+            synchronized(PooledTicketService.this) {
+                return record.id == id ? record.numSeats : 0;
+            }
+        }
+    }
+
+    /**
+     * Reservation of a reserved record
+     *
+     * Reserved records are never used again, the id is still checked like the hold does.
+     */
+    private final class PooledReservation implements Reservation, ConfirmationCodes.Coded {
+        private final PooledHold record; //Record of the reserved hold
+        private final int id; //Identification of the SeatHold
+        private final String customerEmail; //customer email
+
+        PooledReservation(PooledHold record) {
+            this.record = record;
+            this.id = record.id;
+            this.customerEmail = record.customerEmail;
+        }
+
+        @Override
+        public Status getStatus() {
+            synchronized(PooledTicketService.this) {
+                return record.id == id ? Status.RESERVED : Status.NOT_FOUND;
+            }
+        }
+
+        @Override
+        public boolean isReserved() {
+            return getStatus() == Status.RESERVED;
+        }
+
+        @Override
+        public long getCodeHigh() {
+            synchronized(PooledTicketService.this) {
+                return record.codeHigh;
+            }
+        }
+
+        @Override
+        public long getCodeLow() {
+            synchronized(PooledTicketService.this) {
+                return record.codeLow;
+            }
+        }
+
+        @Override
+        public String getCode() {
+            synchronized(PooledTicketService.this) {
+                if(record.id != id) {
+                    return null;
+                }
+                if(record.code == null) {
+                    record.code = ConfirmationCodes.render(record.codeHigh, record.codeLow);
+                }
+                return record.code;
+            }
+        }
+
+        @Override
+        public int getSeatHoldId() {
+            return id;
+        }
+
+        @Override
+        public String getCustomerEmail() {
+            return customerEmail;
+        }
+
+        @Override
+        public int[] getSeatIds() {
+            return seatIds(record, id);
+        }
+
+        @Override
+        public String toString() {
+            return "Reservation code is " + getCode() + " for " + customerEmail + " for seats: " + displaySeats(record, id);
+        }
+    }
+
+    /**
+     * Copies the seats of one use of a record
+     *
+     * @param record the record
+     * @param id the hold id of the use
+     * @return the seat ids, none once the record is used again
+     */
+    private synchronized int[] seatIds(PooledHold record, int id) {
+        return record.id == id ? Arrays.copyOf(record.seatIds, record.numSeats) : NO_SEATS;
+    }
+
+    /**
+     * Strings out the seats of one use of a record
+     *
+     * @param record the record
+     * @param id the hold id of the use
+     * @return the seats, empty once the record is used again
+     */
+    private String displaySeats(PooledHold record, int id) {
+        //Ids go row by row and left to right, so sorting them sorts the labels
+        int[] sortedSeats = seatIds(record, id);
+        Arrays.sort(sortedSeats);
+        StringBuilder seatsOnHoldBuilder = new StringBuilder(sortedSeats.length * 6);
+        for(int index = 0; index < sortedSeats.length; index++) {
+            if(index > 0) {
+                seatsOnHoldBuilder.append(", ");
+            }
+            CompactSeatHoldImpl.appendSeatNumber(seatsOnHoldBuilder, sortedSeats[index], cols);
+        }
+        return seatsOnHoldBuilder.toString();
+    }
+}
@@ -0,0 +1,54 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.PriceTier;
+
+/**
+ * Price Tier Implementation
+ */
+public class PriceTierImpl implements PriceTier {
+    private final String name; //Name of the tier, unique in its venue
+    private final int rows; //Rows of the tier
+    private final int price; //Price of a seat in cents
+
+    /**
+     * Price Tier Constructor
+     * @param name - name of the tier, unique in its venue
+     * @param rows - rows of the tier
+     * @param price - price of a seat in cents
+     * @throws RuntimeException if the name is missing, rows is not positive or the price is negative
+     */
+    public PriceTierImpl(String name, int rows, int price) throws RuntimeException {
+        if(name == null || name.isEmpty()) {
+            throw new RuntimeException("Price tier needs a name!");
+        }
+        if(rows <= 0) {
+            throw new RuntimeException("Price tier rows must be positive!");
+        }
+        if(price < 0) {
+            throw new RuntimeException("Price cannot be negative!");
+        }
+        this.name = name;
+        this.rows = rows;
+        this.price = price;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public int getRows() {
+        return rows;
+    }
+
+    @Override
+    public int getPrice() {
+        return price;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + rows + " rows at " + price + ")";
+    }
+}
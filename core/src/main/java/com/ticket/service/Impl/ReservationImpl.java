@@ -0,0 +1,119 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+
+/**
+ * Reservation Implementation
+ *
+ * Keeps the hold it was made for, so the code and the seats are only turned into text
+ * when the message or the code is asked for.
+ */
+public class ReservationImpl implements Reservation, ConfirmationCodes.Coded {
+    private static final int[] NO_SEATS = new int[0]; //Seats of a reservation with no hold
+
+    private final Status status; //Outcome of the reservation
+    private final int seatHoldId; //Identification of the SeatHold asked to be reserved
+    private final String customerEmail; //Email the reservation was asked for
+    private final SeatHold seatHold; //Hold asked to be reserved, null if none was found
+    private final long codeHigh; //First half of the confirmation code
+    private final long codeLow; //Second half of the confirmation code
+    private String code; //Confirmation code as text, built on first use
+
+    private ReservationImpl(Status status, int seatHoldId, String customerEmail, SeatHold seatHold, long codeHigh, long codeLow) {
+        this.status = status;
+        this.seatHoldId = seatHoldId;
+        this.customerEmail = customerEmail;
+        this.seatHold = seatHold;
+        this.codeHigh = codeHigh;
+        this.codeLow = codeLow;
+    }
+
+    /**
+     * Makes the reservation of a hold that was reserved, with a new confirmation code
+     *
+     * @param seatHold the hold that was reserved
+     * @param customerEmail the email address of the customer
+     * @return the reservation
+     */
+    public static Reservation reserved(SeatHold seatHold, String customerEmail) {
+        ConfirmationCodes codes = ConfirmationCodes.current();
+        codes.next();
+        return new ReservationImpl(Status.RESERVED, seatHold.getId(), customerEmail, seatHold, codes.getHigh(), codes.getLow());
+    }
+
+    /**
+     * Makes the reservation of a hold that could not be reserved
+     *
+     * @param status why the seats were not reserved
+     * @param seatHoldId the seat hold identifier
+     * @param customerEmail the email address of the customer
+     * @param seatHold the hold, null if none was found
+     * @return the reservation
+     */
+    public static Reservation failed(Status status, int seatHoldId, String customerEmail, SeatHold seatHold) {
+        return new ReservationImpl(status, seatHoldId, customerEmail, seatHold, 0, 0);
+    }
+
+    @Override
+    public Status getStatus() {
+        return status;
+    }
+
+    @Override
+    public boolean isReserved() {
+        return status == Status.RESERVED;
+    }
+
+    @Override
+    public long getCodeHigh() {
+        return codeHigh;
+    }
+
+    @Override
+    public long getCodeLow() {
+        return codeLow;
+    }
+
+    @Override
+    public String getCode() {
+        if(status != Status.RESERVED) {
+            return null;
+        }
+        if(code == null) {
+            code = ConfirmationCodes.render(codeHigh, codeLow);
+        }
+        return code;
+    }
+
+    @Override
+    public int getSeatHoldId() {
+        return seatHoldId;
+    }
+
+    @Override
+    public String getCustomerEmail() {
+        return customerEmail;
+    }
+
+    @Override
+    public int[] getSeatIds() {
+        return seatHold == null ? NO_SEATS : seatHold.getSeatIds().clone();
+    }
+
+    @Override
+    public String toString() {
+        switch(status) {
+            case RESERVED:
+                return "Reservation code is " + getCode() + " for " + customerEmail + " for seats: " + seatHold.displaySeatsOnHold();
+            case NOT_FOUND:
+                return "No hold found with ID of " + seatHoldId;
+            case ALREADY_RESERVED:
+                return "Reservation code has already been given.";
+            case EMAIL_MISMATCH:
+                return "Customer Email either does not exist in our system or does not match up with hold Id.";
+            default:
+                return "The hold has expired for seats " + seatHold.displaySeatsOnHold();
+        }
+    }
+}
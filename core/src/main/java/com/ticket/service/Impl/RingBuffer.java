@@ -0,0 +1,113 @@
+package com.ticket.service.Impl;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Pre-allocated ring of slots from many producer threads to one consumer thread
+ *
+ * Producers claim a sequence, fill the slot at that sequence in place and publish it.
+ * The consumer reads every published slot in sequence order and hands the slots back
+ * once it is done with them. Slots are allocated once and reused for the life of the
+ * ring, and no lock is taken on either side.
+ *
+ * @param <E> the type of the slots
+ */
+class RingBuffer<E> {
+    private final Object[] slots; //The pre-allocated slots
+    private final int mask; //Turns a sequence into a slot index, the capacity is a power of two
+    private final int shift; //Turns a sequence into the lap of the ring it is on
+    private final AtomicIntegerArray published; //Lap each slot was last published on
+    private final AtomicLong claimed; //Last sequence claimed by a producer
+    private final AtomicLong consumed; //Last sequence the consumer is done with
+
+    /**
+     * Ring Buffer Constructor
+     * @param capacity - number of slots, rounded up to a power of two
+     * @param slotFactory - creates the slots up front
+     */
+    RingBuffer(int capacity, Supplier<E> slotFactory) {
+        int size = Integer.highestOneBit(Math.max(capacity, 2));
+        if(size < capacity) {
+            size <<= 1;
+        }
+        this.slots = new Object[size];
+        this.published = new AtomicIntegerArray(size);
+        for(int index = 0; index < size; index++) {
+            slots[index] = slotFactory.get();
+            published.set(index, -1);
+        }
+        this.mask = size - 1;
+        this.shift = Integer.numberOfTrailingZeros(size);
+        this.claimed = new AtomicLong(-1);
+        this.consumed = new AtomicLong(-1);
+    }
+
+    /**
+     * Claims the next slot, waiting while the ring is full
+     *
+     * @return the sequence of the slot
+     */
+    long next() {
+        long sequence = claimed.incrementAndGet();
+        while(sequence - consumed.get() > slots.length) {
+            LockSupport.parkNanos(1000);
+        }
+        return sequence;
+    }
+
+    /**
+     * Gets the slot of a sequence
+     *
+     * @param sequence the sequence
+     * @return the slot
+     */
+    @SuppressWarnings("unchecked")
+    E get(long sequence) {
+        return (E) slots[(int) sequence & mask];
+    }
+
+    /**
+     * Makes a filled slot visible to the consumer
+     *
+     * @param sequence the sequence of the slot
+     */
+    void publish(long sequence) {
+        published.set((int) sequence & mask, (int) (sequence >>> shift));
+    }
+
+    /**
+     * Finds the last of the slots published in a row starting at a sequence
+     *
+     * @param from the first sequence the consumer has not read
+     * @return the last sequence ready to be read, from - 1 if none is ready
+     */
+    long publishedUpTo(long from) {
+        long sequence = from;
+        long last = claimed.get();
+        while(sequence <= last && published.get((int) sequence & mask) == (int) (sequence >>> shift)) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    /**
+     * Gets the last sequence claimed by a producer, published or not
+     *
+     * @return the last claimed sequence
+     */
+    long lastClaimed() {
+        return claimed.get();
+    }
+
+    /**
+     * Hands the slots up to a sequence back to the producers
+     *
+     * @param sequence the last sequence the consumer is done with
+     */
+    void release(long sequence) {
+        consumed.lazySet(sequence);
+    }
+}
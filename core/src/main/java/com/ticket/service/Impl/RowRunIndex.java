@@ -0,0 +1,58 @@
+package com.ticket.service.Impl;
+
+/**
+ * Index of the longest run of free seats in each row
+ *
+ * A max segment tree over the rows, so the first row that can seat a group together is
+ * found in O(log rows) without looking at the rows that are too full.
+ *
+ * Not thread safe, the services guard it the same way they guard their rows.
+ */
+class RowRunIndex {
+    private final int size; //Number of leaves, the rows rounded up to a power of two
+    private final int[] tree; //Longest free run under each node, leaves start at size
+
+    /**
+     * Row Run Index Constructor
+     * @param rows - rows of the venue
+     */
+    RowRunIndex(int rows) {
+        int leaves = Integer.highestOneBit(rows);
+        if(leaves < rows) {
+            leaves <<= 1;
+        }
+        this.size = leaves;
+        this.tree = new int[leaves * 2];
+    }
+
+    /**
+     * Records the longest free run of a row
+     *
+     * @param row the row that changed
+     * @param maxRun the longest run of free seats left in the row
+     */
+    void update(int row, int maxRun) {
+        int node = row + size;
+        tree[node] = maxRun;
+        for(node >>= 1; node > 0; node >>= 1) {
+            tree[node] = Math.max(tree[node * 2], tree[node * 2 + 1]);
+        }
+    }
+
+    /**
+     * Finds the first row that has a run of at least the number of seats
+     *
+     * @param numSeats the number of seats that have to sit together
+     * @return the row, -1 if no row has a run that long
+     */
+    int firstRowWithRun(int numSeats) {
+        if(tree[1] < numSeats) {
+            return -1;
+        }
+        int node = 1;
+        while(node < size) {
+            node = tree[node * 2] >= numSeats ? node * 2 : node * 2 + 1;
+        }
+        return node - size;
+    }
+}
@@ -0,0 +1,165 @@
+package com.ticket.service.Impl;
+
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Seat Hold Implementation
+ *
+ * Lawn spots are general admission, the hold only keeps how many it has.
+ */
+public class SeatHoldImpl extends AbstractSeatHold {
+    private int cols; //Number of seats across the row
+    private volatile int numberOfSeatsOnHold; //Number of seats being held, lawn spots included
+    private volatile HashSet<TicketServiceImpl.Seat> seatsOnHold; //Set of seats on hold, replaced when seats are given back
+    private int lawnSpots; //Number of lawn spots on hold
+    private Consumer<Set<TicketServiceImpl.Seat>> seatReleaser; //Returns the seats to the venue once the hold expires
+
+    /**
+     * SeatHold Constructor for a hold that already has an id
+     *
+     * @param id - identification of the SeatHold
+     * @param seatsOnHold - seats on hold
+     * @param customerEmail - customer email
+     * @param duration - duration of the expiration hold in seconds
+     * @param seatReleaser - returns the seats to the venue once the hold expires
+     */
+    public SeatHoldImpl(int id, final HashSet<TicketServiceImpl.Seat> seatsOnHold, String customerEmail, long duration, int cols, Consumer<Set<TicketServiceImpl.Seat>> seatReleaser) {
+        this(id, seatsOnHold, 0, customerEmail, duration, cols, seatReleaser);
+    }
+
+    /**
+     * SeatHold Constructor for a hold that already has an id and stands on the lawn
+     *
+     * @param id - identification of the SeatHold
+     * @param seatsOnHold - seats on hold
+     * @param lawnSpots - lawn spots on hold, the seat releaser gives them back
+     * @param customerEmail - customer email
+     * @param duration - duration of the expiration hold in seconds
+     * @param seatReleaser - returns the seats to the venue once the hold expires
+     */
+    public SeatHoldImpl(int id, final HashSet<TicketServiceImpl.Seat> seatsOnHold, int lawnSpots, String customerEmail, long duration, int cols, Consumer<Set<TicketServiceImpl.Seat>> seatReleaser) {
+        super(id, customerEmail, duration);
+        this.seatsOnHold = seatsOnHold;
+        this.lawnSpots = lawnSpots;
+        this.numberOfSeatsOnHold = seatsOnHold.size() + lawnSpots;
+        this.seatReleaser = seatReleaser;
+        this.cols = cols;
+    }
+
+    @Override
+    protected void releaseSeats() {
+        seatReleaser.accept(seatsOnHold);
+    }
+
+    /**
+     * Takes seats out of the hold, under the lock of the hold so it is not reserved or released meanwhile
+     *
+     * The seats left stay in a new set, so a set already handed to the seat releaser never changes.
+     *
+     * @param droppedSeats ids of the seats to take out, each once
+     * @return the seats taken out, null if the hold is no longer on hold, a seat is not in it
+     * or no seat would be left on hold
+     */
+    synchronized Set<TicketServiceImpl.Seat> dropSeats(int[] droppedSeats) {
+        if(!isHeld() || droppedSeats.length == 0 || droppedSeats.length >= numberOfSeatsOnHold) {
+            return null;
+        }
+        HashSet<TicketServiceImpl.Seat> keptSeats = new HashSet<>(seatsOnHold);
+        Set<TicketServiceImpl.Seat> dropped = new HashSet<>();
+        for(int seatId : droppedSeats) {
+            TicketServiceImpl.Seat seat = find(keptSeats, seatId);
+            if(seat == null) {
+                return null;
+            }
+            keptSeats.remove(seat);
+            dropped.add(seat);
+        }
+        seatsOnHold = keptSeats;
+        numberOfSeatsOnHold -= dropped.size();
+        return dropped;
+    }
+
+    private static TicketServiceImpl.Seat find(Set<TicketServiceImpl.Seat> seats, int seatId) {
+        for(TicketServiceImpl.Seat seat : seats) {
+            if(seat.getId() == seatId) {
+                return seat;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the ids of the seats on hold
+     *
+     * @return the seat ids, in the order the venue hands out its seats, lawn spots have no id
+     */
+    @Override
+    public int[] getSeatIds() {
+        return seatsOnHold.stream().mapToInt(TicketServiceImpl.Seat::getId).sorted().toArray();
+    }
+
+    @Override
+    public String displaySeatsOnHold() {
+        StringBuilder seatsOnHoldBuilder = new StringBuilder();
+        //Read once, seats given back meanwhile replace the set
+        Set<TicketServiceImpl.Seat> heldSeats = seatsOnHold;
+        int length = heldSeats.size();
+        int counter = 0;
+        if(length == 0) {
+            appendLawn(seatsOnHoldBuilder);
+            return seatsOnHoldBuilder.toString();
+        }
+
+        //Sorts the seats so that it is easy for a client to read and know all their seats
+        List<TicketServiceImpl.Seat> sortedSeats = heldSeats.stream()
+                .sorted(new Comparator<TicketServiceImpl.Seat>() {
+                    @Override
+                    public int compare(TicketServiceImpl.Seat seat1, TicketServiceImpl.Seat seat2) {
+                        return convertSeatNumber(seat1.getSeatNumber()) - convertSeatNumber(seat2.getSeatNumber());
+                    }
+
+                    private int convertSeatNumber(String seatNumber) {
+                        int split = seatNumber.indexOf(':');
+                        int row = (int) seatNumber.charAt(0) * cols;
+                        int col = Integer.parseInt(seatNumber.substring(split + 1));
+                        return row + col;
+                    }
+                })
+                .collect(Collectors.toList());
+
+        //Strings out the seats now that they are ordered
+        for(TicketServiceImpl.Seat seat : sortedSeats) {
+            if(counter < length - 1) {
+                seatsOnHoldBuilder.append(seat.getSeatNumber() + ", ");
+            } else {
+                seatsOnHoldBuilder.append(seat.getSeatNumber());
+            }
+            counter++;
+        }
+        if(lawnSpots > 0) {
+            seatsOnHoldBuilder.append(", ");
+            appendLawn(seatsOnHoldBuilder);
+        }
+
+        return seatsOnHoldBuilder.toString();
+    }
+
+    /**
+     * Appends a Lawn label per lawn spot, the spots have nothing else to tell them apart
+     */
+    private void appendLawn(StringBuilder seatsOnHoldBuilder) {
+        for(int spot = 0; spot < lawnSpots; spot++) {
+            if(spot > 0) {
+                seatsOnHoldBuilder.append(", ");
+            }
+            seatsOnHoldBuilder.append("Lawn");
+        }
+    }
+
+    @Override
+    public int getNumberOfSeatsOnHold() {
+        return this.numberOfSeatsOnHold;
+    }
+}
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.ticket.service.Impl;
+
+/**
+ * Seats of a venue for a single writer
+ *
+ * The same rows and run index ConcurrentTicketServiceImpl stripes with locks, without any
+ * locking, for the services that only ever change the venue from one thread.
+ */
+class SeatInventory {
+    private final int cols; //Number of seats across the row
+    private final SeatRow[] seatRows; //The rows of the venue
+    private final RowRunIndex runIndex; //Index of the longest block of seats available in each row
+    private int seatsAvailable; //Number of seats that are neither held nor reserved
+
+    /**
+     * Seat Inventory Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     */
+    SeatInventory(int rows, int cols) {
+        this.cols = cols;
+        this.seatRows = new SeatRow[rows];
+        this.runIndex = new RowRunIndex(rows);
+        int[] rankToPosition = rankToPosition(cols);
+        for(int row = 0; row < rows; row++) {
+            seatRows[row] = new SeatRow(row, cols, rankToPosition);
+            seatRows[row].fill();
+            runIndex.update(row, cols);
+        }
+        this.seatsAvailable = rows * cols;
+    }
+
+    /**
+     * Ranks the positions of a row, the middle seat first and then outwards
+     *
+     * @param cols number of seats across the row
+     * @return the position in the row of each seat ordered from the best seat
+     */
+    static int[] rankToPosition(int cols) {
+        int[] rankToPosition = new int[cols];
+        for(int col = 0; col < cols; col++) {
+            rankToPosition[col] = TicketServiceImpl.findSeatPerRow(col, cols) - 1;
+        }
+        return rankToPosition;
+    }
+
+    /**
+     * The number of seats that are neither held nor reserved
+     *
+     * @return the number of seats available
+     */
+    int getSeatsAvailable() {
+        return seatsAvailable;
+    }
+
+    /**
+     * Takes the best seats for a group, together in one row when a block fits
+     *
+     * @param numSeats the number of seats
+     * @return the ids of the seats taken otherwise empty array
+     */
+    int[] take(int numSeats) {
+        if(numSeats <= 0 || numSeats > seatsAvailable) {
+            return new int[0];
+        }
+        int[] heldSeats = new int[numSeats];
+        take(numSeats, heldSeats);
+        return heldSeats;
+    }
+
+    /**
+     * Takes the best seats for a group into an array the caller already has
+     *
+     * @param numSeats the number of seats
+     * @param heldSeats where the ids of the seats taken go, at least numSeats long
+     * @return true if the seats were taken, false if the venue does not have that many
+     */
+    boolean take(int numSeats, int[] heldSeats) {
+        if(numSeats <= 0 || numSeats > seatsAvailable) {
+            return false;
+        }
+        seatsAvailable -= numSeats;
+
+        int row = numSeats <= cols ? runIndex.firstRowWithRun(numSeats) : -1;
+        if(row >= 0) {
+            seatRows[row].takeBlock(numSeats, heldSeats, 0);
+            runIndex.update(row, seatRows[row].getMaxRun());
+            return true;
+        }
+
+        //No row can seat the group together, so it gets the best seats wherever they are
+        int taken = 0;
+        for(row = 0; taken < numSeats; row++) {
+            int rowTaken = seatRows[row].take(numSeats - taken, heldSeats, taken);
+            if(rowTaken > 0) {
+                taken += rowTaken;
+                runIndex.update(row, seatRows[row].getMaxRun());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns seats to the venue
+     *
+     * @param seatIds ids of the seats, grouped by row
+     */
+    void release(int[] seatIds) {
+        release(seatIds, seatIds.length);
+    }
+
+    /**
+     * Returns the first seats of an array to the venue
+     *
+     * @param seatIds ids of the seats, grouped by row
+     * @param length number of seats at the start of the array to return
+     */
+    void release(int[] seatIds, int length) {
+        int from = 0;
+        while(from < length) {
+            int row = seatIds[from] / cols;
+            int to = from + 1;
+            while(to < length && seatIds[to] / cols == row) {
+                to++;
+            }
+            seatRows[row].release(seatIds, from, to);
+            runIndex.update(row, seatRows[row].getMaxRun());
+            from = to;
+        }
+        seatsAvailable += length;
+    }
+}
@@ -0,0 +1,112 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.SeatMap;
+
+import java.util.Arrays;
+
+/**
+ * Seat Map Implementation
+ *
+ * Each row is its own pair of bit sets copied from the venue, never changed once the map
+ * is made. A newer map of the venue shares the rows that did not change with the map
+ * before it, so a map costs a copy of the rows that changed and nothing more.
+ */
+public class SeatMapImpl implements SeatMap {
+    private final Object venue; //Venue the map was taken of
+    private final int cols; //Number of seats across the row
+    private final long[][] free; //Bits of the seats available, per row
+    private final long[][] reserved; //Bits of the seats reserved, per row
+    private final long[] rowChanges; //Changes made to each row when it was copied
+    private final long version; //Place of the map among the maps kept of the venue
+
+    /**
+     * Seat Map Constructor
+     * @param venue - venue the map was taken of
+     * @param cols - number of seats across the row
+     * @param free - bits of the seats available, per row
+     * @param reserved - bits of the seats reserved, per row
+     * @param rowChanges - changes made to each row when it was copied
+     * @param version - place of the map among the maps kept of the venue
+     */
+    SeatMapImpl(Object venue, int cols, long[][] free, long[][] reserved, long[] rowChanges, long version) {
+        this.venue = venue;
+        this.cols = cols;
+        this.free = free;
+        this.reserved = reserved;
+        this.rowChanges = rowChanges;
+        this.version = version;
+    }
+
+    @Override
+    public long getVersion() {
+        return version;
+    }
+
+    @Override
+    public int getRows() {
+        return free.length;
+    }
+
+    @Override
+    public int getCols() {
+        return cols;
+    }
+
+    @Override
+    public Status getStatus(int seatId) throws RuntimeException {
+        if(seatId < 0 || seatId >= free.length * cols) {
+            throw new RuntimeException("Seat is not in the venue!");
+        }
+        int row = seatId / cols;
+        int position = seatId % cols;
+        if((free[row][position >>> 6] & (1L << position)) != 0) {
+            return Status.AVAILABLE;
+        }
+        return (reserved[row][position >>> 6] & (1L << position)) != 0 ? Status.RESERVED : Status.HELD;
+    }
+
+    @Override
+    public int getSeatsAvailable() {
+        int seatsAvailable = 0;
+        for(long[] row : free) {
+            for(long word : row) {
+                seatsAvailable += Long.bitCount(word);
+            }
+        }
+        return seatsAvailable;
+    }
+
+    @Override
+    public int[] changedRows(SeatMap older) {
+        boolean sameVenue = older instanceof SeatMapImpl && ((SeatMapImpl) older).venue == venue;
+        int[] rows = new int[free.length];
+        int changed = 0;
+        for(int row = 0; row < free.length; row++) {
+            if(!sameVenue || ((SeatMapImpl) older).rowChanges[row] != rowChanges[row]) {
+                rows[changed++] = row;
+            }
+        }
+        return changed == rows.length ? rows : Arrays.copyOf(rows, changed);
+    }
+
+    /**
+     * Gets the bits of the seats available in a row, shared with the maps taken after it
+     */
+    long[] getFree(int row) {
+        return free[row];
+    }
+
+    /**
+     * Gets the bits of the seats reserved in a row, shared with the maps taken after it
+     */
+    long[] getReserved(int row) {
+        return reserved[row];
+    }
+
+    /**
+     * Gets the changes made to a row when it was copied
+     */
+    long getRowChanges(int row) {
+        return rowChanges[row];
+    }
+}
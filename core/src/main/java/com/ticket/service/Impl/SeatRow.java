@@ -0,0 +1,270 @@
+package com.ticket.service.Impl;
+
+import java.util.Arrays;
+
+/**
+ * One row of the venue
+ *
+ * The free seats are a bitset in the order they sit in the row, which keeps groups
+ * together: every run of set bits is a block of seats side by side. Seats are handed out
+ * as ids, row * cols + position, so no object is kept per seat.
+ *
+ * A row does no locking of its own. ConcurrentTicketServiceImpl locks each row as a stripe
+ * and the EventLoopTicketService only ever touches its rows from the writer thread.
+ *
+ * Every change counts up the changes of the row, so a reader that copies the row without
+ * its lock can tell whether the copy it made earlier is still current.
+ */
+class SeatRow {
+    private final int cols; //Number of seats across the row
+    private final int firstSeatId; //Id of the left most seat of the row
+    private final long[] free; //Bit set for every seat position that is available
+    private final long[] reserved; //Bit set for every seat position that is reserved
+    private final int[] rankToPosition; //Position of the best seat first, shared by every row
+    private int freeCount; //Number of seats available in the row
+    private int maxRun; //Longest run of seats available side by side
+    private long changes; //Number of changes made to the row
+
+    /**
+     * SeatRow Constructor
+     * @param row - index of the row in the venue
+     * @param cols - number of seats across the row
+     * @param rankToPosition - position of each seat ordered from the best seat
+     */
+    SeatRow(int row, int cols, int[] rankToPosition) {
+        this.cols = cols;
+        this.firstSeatId = row * cols;
+        this.free = new long[(cols + 63) >>> 6];
+        this.reserved = new long[free.length];
+        this.rankToPosition = rankToPosition;
+    }
+
+    /**
+     * Makes every seat of the row available, only used while the venue is being built
+     */
+    void fill() {
+        Arrays.fill(free, -1L);
+        if((cols & 63) != 0) {
+            free[free.length - 1] = (1L << cols) - 1;
+        }
+        freeCount = cols;
+        updateRuns();
+    }
+
+    /**
+     * Takes the best block of seats side by side, the one closest to the middle of the row
+     *
+     * @param numSeats the number of seats that have to sit together
+     * @param heldSeats array the ids of the seats taken are written to
+     * @param offset index in heldSeats of the first seat taken
+     * @return true if a block was taken, false if the row has no run that long
+     */
+    boolean takeBlock(int numSeats, int[] heldSeats, int offset) {
+        if(numSeats > maxRun) {
+            return false;
+        }
+        //Start of the block centered on the middle seat, the rank order favors the right side
+        int middle = rankToPosition[0];
+        int ideal = Math.max(0, Math.min(middle - (numSeats - 1) / 2, cols - numSeats));
+
+        int best = -1;
+        int bestDistance = Integer.MAX_VALUE;
+        int start = nextFree(0);
+        while(start >= 0) {
+            int end = nextTaken(start);
+            if(end - start >= numSeats) {
+                int candidate = Math.max(start, Math.min(ideal, end - numSeats));
+                int distance = Math.abs(candidate - ideal);
+                if(distance < bestDistance || (distance == bestDistance && candidate > best)) {
+                    best = candidate;
+                    bestDistance = distance;
+                }
+            }
+            start = end < cols ? nextFree(end) : -1;
+        }
+
+        for(int position = best; position < best + numSeats; position++) {
+            heldSeats[offset++] = takePosition(position);
+        }
+        updateRuns();
+        changes++;
+        return true;
+    }
+
+    /**
+     * Takes up to max of the best seats in the row wherever they are
+     *
+     * @param max the most seats to take
+     * @param heldSeats array the ids of the seats taken are written to
+     * @param offset index in heldSeats of the first seat taken
+     * @return the number of seats taken
+     */
+    int take(int max, int[] heldSeats, int offset) {
+        int taken = 0;
+        for(int rank = 0; rank < cols && taken < max && freeCount > 0; rank++) {
+            int position = rankToPosition[rank];
+            if(isFree(position)) {
+                heldSeats[offset + taken] = takePosition(position);
+                taken++;
+            }
+        }
+        if(taken > 0) {
+            updateRuns();
+            changes++;
+        }
+        return taken;
+    }
+
+    /**
+     * Returns seats to the row
+     *
+     * @param seatIds ids of the seats being released
+     * @param from index of the first seat of this row in seatIds
+     * @param to index after the last seat of this row in seatIds
+     */
+    void release(int[] seatIds, int from, int to) {
+        for(int index = from; index < to; index++) {
+            int position = seatIds[index] - firstSeatId;
+            free[position >>> 6] |= 1L << position;
+        }
+        freeCount += to - from;
+        updateRuns();
+        changes++;
+    }
+
+    /**
+     * Takes the given seats out of the row, used to put back the holds of a journal
+     *
+     * @param seatIds ids of the seats being taken
+     * @param from index of the first seat of this row in seatIds
+     * @param to index after the last seat of this row in seatIds
+     */
+    void take(int[] seatIds, int from, int to) {
+        for(int index = from; index < to; index++) {
+            takePosition(seatIds[index] - firstSeatId);
+        }
+        updateRuns();
+        changes++;
+    }
+
+    /**
+     * Marks seats that were taken as reserved, they never come back to the row
+     *
+     * @param seatIds ids of the seats reserved
+     * @param from index of the first seat of this row in seatIds
+     * @param to index after the last seat of this row in seatIds
+     */
+    void reserve(int[] seatIds, int from, int to) {
+        for(int index = from; index < to; index++) {
+            int position = seatIds[index] - firstSeatId;
+            reserved[position >>> 6] |= 1L << position;
+        }
+        changes++;
+    }
+
+    /**
+     * Copies the seats of the row, a copy made without the lock has to be checked against the lock after
+     *
+     * @param freeCopy receives the bits of the seats available
+     * @param reservedCopy receives the bits of the seats reserved
+     * @return the number of changes made to the row when it was copied
+     */
+    long copyTo(long[] freeCopy, long[] reservedCopy) {
+        long copied = changes;
+        System.arraycopy(free, 0, freeCopy, 0, free.length);
+        System.arraycopy(reserved, 0, reservedCopy, 0, reserved.length);
+        return copied;
+    }
+
+    /**
+     * Gets the number of changes made to the row
+     *
+     * @return the number of changes
+     */
+    long getChanges() {
+        return changes;
+    }
+
+    /**
+     * Gets the longest run of seats available side by side
+     *
+     * @return the longest run
+     */
+    int getMaxRun() {
+        return maxRun;
+    }
+
+    /**
+     * Gets the number of seats available in the row
+     *
+     * @return the number of seats available
+     */
+    int getFreeCount() {
+        return freeCount;
+    }
+
+    private int takePosition(int position) {
+        free[position >>> 6] &= ~(1L << position);
+        freeCount--;
+        return firstSeatId + position;
+    }
+
+    private boolean isFree(int position) {
+        return (free[position >>> 6] & (1L << position)) != 0;
+    }
+
+    /**
+     * Recomputes the longest free run
+     */
+    private void updateRuns() {
+        int longest = 0;
+        int start = nextFree(0);
+        while(start >= 0) {
+            int end = nextTaken(start);
+            longest = Math.max(longest, end - start);
+            start = end < cols ? nextFree(end) : -1;
+        }
+        maxRun = longest;
+    }
+
+    /**
+     * Finds the first free position at or after from
+     *
+     * @return the position, -1 if none
+     */
+    private int nextFree(int from) {
+        int word = from >>> 6;
+        if(word >= free.length) {
+            return -1;
+        }
+        long bits = free[word] & (-1L << from);
+        while(bits == 0) {
+            if(++word == free.length) {
+                return -1;
+            }
+            bits = free[word];
+        }
+        int position = (word << 6) + Long.numberOfTrailingZeros(bits);
+        return position < cols ? position : -1;
+    }
+
+    /**
+     * Finds the first taken position at or after from
+     *
+     * @return the position, cols if the rest of the row is free
+     */
+    private int nextTaken(int from) {
+        int word = from >>> 6;
+        if(word >= free.length) {
+            return cols;
+        }
+        long bits = ~free[word] & (-1L << from);
+        while(bits == 0) {
+            if(++word == free.length) {
+                return cols;
+            }
+            bits = ~free[word];
+        }
+        return Math.min((word << 6) + Long.numberOfTrailingZeros(bits), cols);
+    }
+}
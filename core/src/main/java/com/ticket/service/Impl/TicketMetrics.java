@@ -0,0 +1,118 @@
+package com.ticket.service.Impl;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntSupplier;
+
+/**
+ * Metrics of a ticket service
+ *
+ * Counters are striped LongAdders and latencies go into LatencyHistograms, so recording
+ * from any number of request threads allocates nothing and takes no lock. Reading them
+ * is left to snapshot, which a reporter can be handed every interval.
+ */
+public class TicketMetrics {
+    private final LatencyHistogram holdLatency; //Latency of findAndHoldSeats in nanoseconds
+    private final LatencyHistogram reserveLatency; //Latency of reserveSeats in nanoseconds
+    private final LatencyHistogram expiryLag; //Nanoseconds holds expired after their deadline
+    private final LongAdder holds; //Holds that got the seats they asked for
+    private final LongAdder failedHolds; //Holds that got no seats
+    private final LongAdder reservations; //Holds reserved
+    private final LongAdder failedReservations; //Reserves that were refused
+    private final LongAdder expiries; //Holds that expired
+    private volatile IntSupplier seatsAvailable; //Gauge of the seats available, null until a service is instrumented
+    private ScheduledExecutorService reporting; //Thread reporters run on, guarded by this
+
+    /**
+     * Ticket Metrics Constructor
+     */
+    public TicketMetrics() {
+        holdLatency = new LatencyHistogram();
+        reserveLatency = new LatencyHistogram();
+        expiryLag = new LatencyHistogram();
+        holds = new LongAdder();
+        failedHolds = new LongAdder();
+        reservations = new LongAdder();
+        failedReservations = new LongAdder();
+        expiries = new LongAdder();
+    }
+
+    void recordHold(long nanos, boolean held) {
+        holdLatency.record(nanos);
+        (held ? holds : failedHolds).increment();
+    }
+
+    void recordReserve(long nanos, boolean reserved) {
+        reserveLatency.record(nanos);
+        (reserved ? reservations : failedReservations).increment();
+    }
+
+    void recordExpiry(long lagNanos) {
+        expiryLag.record(lagNanos);
+        expiries.increment();
+    }
+
+    void gauge(IntSupplier seatsAvailable) {
+        this.seatsAvailable = seatsAvailable;
+    }
+
+    /**
+     * Takes a snapshot of every metric
+     *
+     * Each metric is read on its own while recording goes on, so they can be a few
+     * operations apart from each other.
+     *
+     * @return the snapshot
+     */
+    public MetricsSnapshot snapshot() {
+        IntSupplier gauge = seatsAvailable;
+        return new MetricsSnapshot(System.currentTimeMillis(), holds.sum(), failedHolds.sum(), reservations.sum(),
+                failedReservations.sum(), expiries.sum(), gauge == null ? -1 : gauge.getAsInt(),
+                new MetricsSnapshot.Latency(holdLatency), new MetricsSnapshot.Latency(reserveLatency),
+                new MetricsSnapshot.Latency(expiryLag));
+    }
+
+    /**
+     * Hands a snapshot to the reporter every interval, replacing the reporter already running
+     *
+     * A reporter that throws gets no more reports, and the future returned fails with its error.
+     *
+     * @param reporter receives the snapshots
+     * @param interval seconds between two reports
+     * @return the reports, done once reporting stops or fails
+     */
+    public synchronized Future<?> startReporting(Reporter reporter, long interval) {
+        stopReporting();
+        reporting = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "metrics-reporter");
+            thread.setDaemon(true);
+            return thread;
+        });
+        return reporting.scheduleAtFixedRate(() -> reporter.report(snapshot()), interval, interval, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops the reporter, if one is running
+     */
+    public synchronized void stopReporting() {
+        if(reporting != null) {
+            reporting.shutdown();
+            reporting = null;
+        }
+    }
+
+    /**
+     * Receives the metrics every reporting interval
+     */
+    public interface Reporter {
+        /**
+         * Reports a snapshot of the metrics
+         *
+         * @param snapshot the metrics
+         */
+        void report(MetricsSnapshot snapshot);
+    }
+}
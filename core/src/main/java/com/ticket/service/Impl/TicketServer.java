@@ -0,0 +1,398 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Serves a Ticket Service over TCP with a length prefixed binary protocol
+ *
+ * Every frame is a 4 byte big endian length followed by that many bytes. A request starts
+ * with its operation:
+ * - AVAILABLE, nothing else, answered with OK and the seats available as an int
+ * - HOLD, the number of seats as an int and the customer email, answered with OK, the hold
+ * id and the number of seats held as ints
+ * - RESERVE, the hold id as an int and the customer email, answered with OK, the status of
+ * the reservation as a byte, its ordinal in Reservation.Status, and when the seats were
+ * reserved the confirmation code as two longs, see renderCode
+ * Strings are a 2 byte length and UTF-8. A request that can not be read or that the service
+ * fails is answered with ERROR and an error code byte, and the connection goes on with the
+ * next request. A frame longer than MAX_FRAME closes the connection.
+ *
+ * Requests can be pipelined, any number can be sent without waiting and the answers come
+ * back in the same order. Connections are spread over a few selector loops that run the
+ * requests themselves, as the service answers in microseconds. A connection borrows direct
+ * buffers from its loop only while it has bytes waiting to be read or written, so idle
+ * connections cost no buffers. Each loop keeps the emails it decoded lately, so a customer
+ * coming back costs no new String, and serving a request allocates nothing besides what
+ * the service itself does.
+ */
+public class TicketServer {
+    public static final byte AVAILABLE = 1; //Request for the number of seats available
+    public static final byte HOLD = 2; //Request to find and hold seats
+    public static final byte RESERVE = 3; //Request to reserve a hold
+    public static final byte OK = 0; //Status of a request that was served
+    public static final byte ERROR = 1; //Status of a request that could not be served, followed by an error code
+    public static final byte MALFORMED = 1; //Error code of a request that could not be read
+    public static final byte UNKNOWN_OPERATION = 2; //Error code of a request for an operation the server does not have
+    public static final byte FAILED = 3; //Error code of a request the service failed
+    public static final int MAX_FRAME = 1024; //Longest frame a client can send
+    private static final int MAX_ANSWER = 4 + 1 + 1 + 16; //Longest frame sent back
+    private static final int EMAILS = 1024; //Emails each loop keeps decoded, a power of two
+    private static final int BUFFER_SIZE = 16 * 1024; //Size of the buffers connections borrow
+
+    private final TicketService ticketService; //The service being served
+    private final ServerSocketChannel server; //Listening socket
+    private final Loop[] loops; //Selector loops the connections are spread over
+    private final Thread acceptor; //Accepts connections and hands them to the loops
+    private final Consumer<IOException> errorHandler; //Gets the errors of the server that are not of one connection
+    private volatile boolean running; //Determines if the server takes new connections
+
+    /**
+     * Ticket Server Constructor, starts serving right away and drops the errors of the server
+     * @param ticketService - the service being served, called from every loop at once
+     * @param address - address to listen on, port 0 picks a free port
+     * @param loops - number of selector loops
+     * @throws UncheckedIOException if the address can not be listened on
+     */
+    public TicketServer(TicketService ticketService, InetSocketAddress address, int loops) throws RuntimeException {
+        this(ticketService, address, loops, e -> { });
+    }
+
+    /**
+     * Ticket Server Constructor, starts serving right away
+     *
+     * A connection that fails is closed quietly, only the errors of accepting connections and
+     * of the selector loops go to the handler.
+     *
+     * @param ticketService - the service being served, called from every loop at once
+     * @param address - address to listen on, port 0 picks a free port
+     * @param loops - number of selector loops
+     * @param errorHandler - gets the errors of the server that are not of one connection
+     * @throws UncheckedIOException if the address can not be listened on
+     */
+    public TicketServer(TicketService ticketService, InetSocketAddress address, int loops, Consumer<IOException> errorHandler) throws RuntimeException {
+        if(loops <= 0) {
+            throw new RuntimeException("Server needs at least one loop!");
+        }
+        this.ticketService = ticketService;
+        this.errorHandler = errorHandler;
+        this.loops = new Loop[loops];
+        try {
+            server = ServerSocketChannel.open();
+            server.bind(address, 1024);
+            for(int loop = 0; loop < loops; loop++) {
+                this.loops[loop] = new Loop("ticket-server-" + loop);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        running = true;
+        for(Loop loop : this.loops) {
+            loop.thread.start();
+        }
+        acceptor = new Thread(this::accept, "ticket-server-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Renders the confirmation code of a RESERVE answer as the customer sees it
+     *
+     * @param high first long of the code
+     * @param low second long of the code
+     * @return the code
+     */
+    public static String renderCode(long high, long low) {
+        return ConfirmationCodes.render(high, low);
+    }
+
+    /**
+     * Gets the port the server listens on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.socket().getLocalPort();
+    }
+
+    /**
+     * Stops taking connections, closes every connection and waits for the loops to finish
+     */
+    public void shutdown() {
+        running = false;
+        try {
+            server.close();
+            acceptor.join();
+            for(Loop loop : loops) {
+                loop.selector.wakeup();
+                loop.thread.join();
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * The acceptor loop, hands the connections to the selector loops in turn
+     */
+    private void accept() {
+        int next = 0;
+        while(running) {
+            try {
+                SocketChannel channel = server.accept();
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+                Loop loop = loops[next];
+                next = (next + 1) % loops.length;
+                loop.accepted.offer(channel);
+                loop.selector.wakeup();
+            } catch (ClosedChannelException e) {
+                return;
+            } catch (IOException e) {
+                errorHandler.accept(e);
+            }
+        }
+    }
+
+    /**
+     * Selector loop that reads, runs and answers the requests of its connections
+     */
+    private final class Loop implements Runnable {
+        private final Selector selector; //Connections of the loop
+        private final Thread thread; //Runs the loop
+        private final Queue<SocketChannel> accepted; //Connections waiting to be registered
+        private final ArrayDeque<ByteBuffer> buffers; //Buffers not borrowed by a connection
+        private final byte[] email; //Bytes of the email being read
+        private final byte[][] emailBytes; //Bytes of the emails kept, by hash
+        private final String[] emails; //Emails kept, by hash of their bytes
+
+        private Loop(String name) throws IOException {
+            selector = Selector.open();
+            accepted = new ConcurrentLinkedQueue<>();
+            buffers = new ArrayDeque<>();
+            email = new byte[MAX_FRAME];
+            emailBytes = new byte[EMAILS][];
+            emails = new String[EMAILS];
+            thread = new Thread(this, name);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            while(running) {
+                try {
+                    selector.select();
+                    for(SocketChannel channel = accepted.poll(); channel != null; channel = accepted.poll()) {
+                        channel.register(selector, SelectionKey.OP_READ, new Connection());
+                    }
+                    Iterator<SelectionKey> keys = selector.selectedKeys().iterator();
+                    while(keys.hasNext()) {
+                        SelectionKey key = keys.next();
+                        keys.remove();
+                        serve(key);
+                    }
+                } catch (IOException e) {
+                    errorHandler.accept(e);
+                }
+            }
+            for(SelectionKey key : selector.keys()) {
+                close(key);
+            }
+            try {
+                selector.close();
+            } catch (IOException e) {
+                errorHandler.accept(e);
+            }
+        }
+
+        /**
+         * Reads what the connection sent, runs every whole request and writes the answers
+         *
+         * When the socket can not take all the answers the connection stops reading until it
+         * can, so a client that does not read its answers can not make the server buffer them.
+         */
+        private void serve(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            SocketChannel channel = (SocketChannel) key.channel();
+            try {
+                if(connection.in == null) {
+                    connection.in = borrow();
+                    connection.out = borrow();
+                }
+                if(key.isReadable() && channel.read(connection.in) < 0) {
+                    close(key);
+                    return;
+                }
+                boolean answered;
+                do {
+                    connection.in.flip();
+                    answered = run(connection);
+                    connection.in.compact();
+                    connection.out.flip();
+                    channel.write(connection.out);
+                    boolean written = !connection.out.hasRemaining();
+                    connection.out.compact();
+                    if(!written) {
+                        key.interestOps(SelectionKey.OP_WRITE);
+                        return;
+                    }
+                } while(!answered);
+                key.interestOps(SelectionKey.OP_READ);
+                if(connection.in.position() == 0) {
+                    giveBack(connection);
+                }
+            } catch (IOException | RuntimeException e) {
+                close(key);
+            }
+        }
+
+        /**
+         * Runs the whole requests waiting in the connection
+         *
+         * @return true if every whole request was answered, false if the answers filled the buffer first
+         */
+        private boolean run(Connection connection) {
+            ByteBuffer in = connection.in;
+            ByteBuffer out = connection.out;
+            while(in.remaining() >= 4) {
+                int length = in.getInt(in.position());
+                if(length <= 0 || length > MAX_FRAME) {
+                    throw new RuntimeException("Frame is too long!");
+                }
+                if(in.remaining() < 4 + length) {
+                    return true;
+                }
+                if(out.remaining() < MAX_ANSWER) {
+                    return false;
+                }
+                int end = in.position() + 4 + length;
+                in.position(in.position() + 4);
+                int start = out.position();
+                out.position(start + 4);
+                try {
+                    answer(in, end, out);
+                } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                    out.position(start + 4);
+                    out.put(ERROR).put(MALFORMED);
+                } catch (RuntimeException e) {
+                    //Only this request failed, the answers before it and the requests after it carry on
+                    out.position(start + 4);
+                    out.put(ERROR).put(FAILED);
+                }
+                out.putInt(start, out.position() - start - 4);
+                in.position(end);
+            }
+            return true;
+        }
+
+        private void answer(ByteBuffer in, int end, ByteBuffer out) {
+            byte operation = in.get();
+            if(operation == AVAILABLE) {
+                out.put(OK).putInt(ticketService.numSeatsAvailable());
+            } else if(operation == HOLD) {
+                int numSeats = in.getInt();
+                SeatHold seatHold = ticketService.findAndHoldSeats(numSeats, getEmail(in, end));
+                out.put(OK).putInt(seatHold.getId()).putInt(seatHold.getNumberOfSeatsOnHold());
+            } else if(operation == RESERVE) {
+                int seatHoldId = in.getInt();
+                Reservation reservation = ticketService.reserveSeats(seatHoldId, getEmail(in, end));
+                Reservation.Status status = reservation.getStatus();
+                out.put(OK).put((byte) status.ordinal());
+                if(status == Reservation.Status.RESERVED) {
+                    ConfirmationCodes.put(out, reservation);
+                }
+            } else {
+                out.put(ERROR).put(UNKNOWN_OPERATION);
+            }
+        }
+
+        /**
+         * Reads an email, handing back the one kept when the same bytes were read lately
+         */
+        private String getEmail(ByteBuffer in, int end) {
+            int length = in.getShort() & 0xffff;
+            if(in.position() + length > end) {
+                throw new BufferUnderflowException();
+            }
+            in.get(email, 0, length);
+            int hash = 1;
+            for(int index = 0; index < length; index++) {
+                hash = 31 * hash + email[index];
+            }
+            int slot = (hash ^ hash >>> 16) & (EMAILS - 1);
+            byte[] kept = emailBytes[slot];
+            if(kept != null && kept.length == length && sameEmail(kept)) {
+                return emails[slot];
+            }
+            emailBytes[slot] = Arrays.copyOf(email, length);
+            emails[slot] = new String(email, 0, length, StandardCharsets.UTF_8);
+            return emails[slot];
+        }
+
+        private boolean sameEmail(byte[] kept) {
+            for(int index = 0; index < kept.length; index++) {
+                if(email[index] != kept[index]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private ByteBuffer borrow() {
+            ByteBuffer buffer = buffers.poll();
+            return buffer != null ? buffer : ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+
+        private void giveBack(Connection connection) {
+            buffers.push(connection.in);
+            buffers.push(connection.out);
+            connection.in = null;
+            connection.out = null;
+        }
+
+        private void close(SelectionKey key) {
+            Connection connection = (Connection) key.attachment();
+            if(connection.in != null) {
+                connection.in.clear();
+                connection.out.clear();
+                giveBack(connection);
+            }
+            key.cancel();
+            try {
+                key.channel().close();
+            } catch (IOException e) {
+                //The connection is gone either way
+            }
+        }
+    }
+
+    /**
+     * Buffers of a connection, borrowed from its loop while it has bytes waiting
+     */
+    private static final class Connection {
+        private ByteBuffer in; //Bytes read and not run yet, null when idle
+        private ByteBuffer out; //Answers not written yet, null when idle
+    }
+}
@@ -0,0 +1,367 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.SeatHoldFactory;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.HoldChangingTicketService;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+
+import java.util.*;
+
+/**
+ * Ticket Service Implementation
+ *
+ * Rows past the lettered ones are a general admission lawn. Lawn spots are not seats, so
+ * they are only counted and a hold keeps how many it took, which makes a lawn of any size
+ * cost one int however many spots are held.
+ *
+ * Seats are handed out best first and a seat that was never held is no better than the
+ * seats released before it, so seats are only made the first time they are held. The queue
+ * only ever holds the seats that came back, and a new venue of any size is ready as soon as
+ * it is built. Seat numbers are only turned into text when a hold is displayed.
+ *
+ * Holds that expire in the same tick of the scheduler go back to the venue as one batch,
+ * under one acquisition of the lock instead of one per hold.
+ */
+public class TicketServiceImpl implements HoldChangingTicketService {
+    static final int LAWN_ROW = 27; //First row of the lawn, every row from here on is general admission
+
+    private PriorityQueue<Seat> seatsAvailable; //The queue that holds the seats released, always better than the seats never held
+    private int nextSeat; //Priority of the best seat never held, seats from here on are made when first held
+    private int letteredSeats; //Number of seats in the lettered rows
+    private int lawnAvailable; //Lawn spots that are neither held nor reserved
+    private HoldRegistry seatHolder; //Registry that holds all the seat holds objects
+    private ExpiryScheduler expiryScheduler; //Scheduler that controls the expiration of holds
+    private ExpiryBatcher<ExpiredHold> expiredHolds; //Holds expired since the last batch went back to the venue
+    private long duration; //The duration of the expiration hold in seconds
+    private int cols; //Number of seats across the row
+
+    /**
+     * Ticket Service Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public TicketServiceImpl(int rows, int cols, long duration) throws RuntimeException {
+        this(rows, cols, duration, HashedWheelExpiryScheduler.getDefault());
+    }
+
+    /**
+     * Ticket Service Constructor
+     * @param rows - rows of the venue
+     * @param cols - cols of the venue
+     * @param duration - duration of the expiration hold in seconds
+     * @param expiryScheduler - scheduler that releases the seats of expired holds
+     * @throws RuntimeException if rows or cols is 0
+     */
+    public TicketServiceImpl(int rows, int cols, long duration, ExpiryScheduler expiryScheduler) throws RuntimeException {
+        if(rows == 0 || cols == 0) {
+            throw new RuntimeException("Rows and Columns cannot be zero!");
+        }
+        this.cols = cols;
+        this.duration = duration;
+        seatHolder = new HoldRegistry(duration * 1000);
+        seatsAvailable = new PriorityQueue<>(new Comparator<Seat>() {
+            @Override
+            public int compare(Seat s1, Seat s2) {
+                return s1.getId() - s2.getId();
+            }
+        });
+        letteredSeats = Math.min(rows, LAWN_ROW) * cols;
+        lawnAvailable = Math.max(0, rows - LAWN_ROW) * cols;
+        this.expiryScheduler = expiryScheduler;
+        this.expiredHolds = new ExpiryBatcher<>(expiryScheduler, this::releaseSeats);
+    }
+
+    @Override
+    public synchronized int numSeatsAvailable() {
+        return numberedSeatsAvailable() + lawnAvailable;
+    }
+
+    @Override
+    public synchronized SeatHold findAndHoldSeats(int numSeats, String customerEmail) {
+        //The numbered seats go first and the rest of the group is on the lawn
+        int lawnSpots = numSeats > 0 && numSeats <= numSeatsAvailable() ? Math.max(0, numSeats - numberedSeatsAvailable()) : 0;
+
+        //Finds and holds the seats, 0 if fail to fill all seats requested
+        HashSet<Seat> heldSeats = findSeats(numSeats - lawnSpots);
+        lawnAvailable -= lawnSpots;
+
+        int seatHoldId = seatHolder.nextId();
+        SeatHold seatHold = SeatHoldFactory.create(seatHoldId, heldSeats, lawnSpots, customerEmail, duration * 1000, cols, seats -> expiredHolds.add(new ExpiredHold(seatHoldId, seats, lawnSpots)));
+        //Adds to the seatHolder registry, a hold with no seats can not be reserved
+        if(seatHold.getNumberOfSeatsOnHold() > 0) {
+            seatHolder.add(seatHold);
+
+            //Starts the hold expiration timer
+            seatHold.scheduleExpiry(expiryScheduler);
+        }
+
+        return seatHold;
+    }
+
+    @Override
+    public synchronized Reservation reserveSeats(int seatHoldId, String customerEmail) {
+        SeatHold seatHold = seatHolder.get(seatHoldId);
+
+        if(seatHold == null) {
+            return ReservationImpl.failed(Reservation.Status.NOT_FOUND, seatHoldId, customerEmail, null);
+        } else if(seatHold.hasReserved()) {
+            return ReservationImpl.failed(Reservation.Status.ALREADY_RESERVED, seatHoldId, customerEmail, seatHold);
+        } else {
+            if(seatHold.holdTimeRemaining() > 0) {
+                if (customerEmail != null && seatHold.getEmail().equals(customerEmail)) {
+                    if(!seatHold.markReserved()) {
+                        return ReservationImpl.failed(Reservation.Status.EXPIRED, seatHoldId, customerEmail, seatHold);
+                    }
+                    seatHolder.reserved(seatHold);
+                    return ReservationImpl.reserved(seatHold, customerEmail);
+                } else {
+                    return ReservationImpl.failed(Reservation.Status.EMAIL_MISMATCH, seatHoldId, customerEmail, seatHold);
+                }
+            } else {
+                return ReservationImpl.failed(Reservation.Status.EXPIRED, seatHoldId, customerEmail, seatHold);
+            }
+        }
+    }
+
+    /**
+     * Holds seats for the whole batch under one acquisition of the lock
+     */
+    @Override
+    public synchronized SeatHold[] findAndHoldSeats(int[] numSeats, String[] customerEmails) {
+        return HoldChangingTicketService.super.findAndHoldSeats(numSeats, customerEmails);
+    }
+
+    /**
+     * Reserves the whole batch under one acquisition of the lock
+     */
+    @Override
+    public synchronized Reservation[] reserveSeats(int[] seatHoldIds, String[] customerEmails) {
+        return HoldChangingTicketService.super.reserveSeats(seatHoldIds, customerEmails);
+    }
+
+    /**
+     * Gives back part of the seats of a hold
+     *
+     * Only numbered seats have ids, so a hold keeps its lawn spots until it is reserved or
+     * expires. Giving back every seat of a hold with no lawn spots releases the hold.
+     */
+    @Override
+    public synchronized boolean releaseSeats(int seatHoldId, String customerEmail, int[] seatIds) {
+        SeatHoldImpl seatHold = findHeld(seatHoldId, customerEmail);
+        if(seatHold == null || seatIds.length == 0) {
+            return false;
+        }
+        int[] releasedSeats = seatIds.clone();
+        Arrays.sort(releasedSeats);
+        if(seatHold.getNumberOfSeatsOnHold() == seatIds.length && Arrays.equals(releasedSeats, seatHold.getSeatIds())) {
+            if(!seatHold.release()) {
+                return false;
+            }
+            //The customer gets the seats back before the request returns, not on the next tick
+            expiredHolds.release();
+            return true;
+        }
+        Set<Seat> dropped = seatHold.dropSeats(seatIds);
+        if(dropped == null) {
+            return false;
+        }
+        seatsAvailable.addAll(dropped);
+        return true;
+    }
+
+    /**
+     * Moves the deadline of a hold later, the expiry already scheduled waits out the time added
+     */
+    @Override
+    public synchronized boolean extendHold(int seatHoldId, String customerEmail, long millis) throws RuntimeException {
+        if(millis <= 0) {
+            throw new RuntimeException("Extension must be positive!");
+        }
+        SeatHoldImpl seatHold = findHeld(seatHoldId, customerEmail);
+        return seatHold != null && seatHold.extend(millis);
+    }
+
+    /**
+     * Finds a hold of the customer
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param customerEmail the email address of the customer the hold should belong to
+     * @return the hold, null if it is unknown or belongs to another customer
+     */
+    private SeatHoldImpl findHeld(int seatHoldId, String customerEmail) {
+        SeatHold seatHold = seatHolder.get(seatHoldId);
+        if(seatHold == null || customerEmail == null || !customerEmail.equals(seatHold.getEmail())) {
+            return null;
+        }
+        return (SeatHoldImpl) seatHold;
+    }
+
+    /**
+     * Returns the seats of a batch of expired holds back to the queue and their spots to the lawn
+     *
+     * Called from the timer thread, so it shares the lock with the request methods
+     *
+     * @param expired the holds being released
+     */
+    private synchronized void releaseSeats(List<ExpiredHold> expired) {
+        for(ExpiredHold expiredHold : expired) {
+            if(expiredHold.markReturned()) {
+                seatsAvailable.addAll(expiredHold.seats);
+                lawnAvailable += expiredHold.lawnSpots;
+                seatHolder.expired(expiredHold.seatHoldId);
+            }
+        }
+    }
+
+    /**
+     * The number of seats in the lettered rows that are neither held nor reserved
+     *
+     * @return the seats released plus the seats never held
+     */
+    private int numberedSeatsAvailable() {
+        return seatsAvailable.size() + letteredSeats - nextSeat;
+    }
+
+    /**
+     * Takes the best seat available, making it if it was never held
+     *
+     * The priority of a seat is its rank in the venue, row by row, so its row and its place
+     * in the row are worked out from the priority instead of being kept. Each row will reflex
+     * the following as the best seats per row:
+     * A: 32 30 28 26 24 22 20 18 16 14 12 10  8  6  4  2  1 3  5  7  9  11 13 15 17 19 21 23 25 27 29 31 33
+     * B: 65 63 61 59 57 55 53 51 49 47 45 43 41 39 37 35 34 36 38 40 42 44 46 48 50 52 54 56 58 60 62 64 66
+     * C: ETC
+     *
+     * Everything After the 27 rows would be consider lawn seats, which are only counted
+     *
+     * @return the seat
+     */
+    private Seat takeSeat() {
+        //Every seat released was made before nextSeat, so it is better than any seat never held
+        return seatsAvailable.isEmpty() ? new Seat(nextSeat++, cols) : seatsAvailable.poll();
+    }
+
+    /**
+     * Converts the col index to its
+     *
+     * @param col - the position of the seat in the row
+     * @param cols - number of seats across the row
+     * @return the seat number as the client would understand it
+     */
+    static int findSeatPerRow(int col, int cols) {
+        int seatNumber;
+        int middleSeat = (int) Math.ceil( (double) cols / 2);
+        if(col == 0) {
+            seatNumber = middleSeat;
+        } else {
+            if (col % 2 == 0) {
+                seatNumber = middleSeat - (col / 2);
+            } else {
+                seatNumber = middleSeat + ((col + 1) / 2);
+            }
+        }
+        return seatNumber;
+    }
+
+
+    /**
+     * Converts number to letter for seating assignments
+     *
+     * @param row the row in the array that makes the venue
+     * @return the letter format of the number if A-Z otherwise returns lawn for overflow
+     */
+    static String convertToLetter(int row) {
+        if(row < LAWN_ROW) {
+            return String.valueOf((char)(row + 'A'));
+        } else {
+            return "Lawn";
+        }
+    }
+
+    /**
+     * Finds the best seats for the number of seats being held
+     *
+     * @param numSeats the number of seats
+     * @return a set of the seats being held otherwise empty set
+     */
+    private HashSet<Seat> findSeats(int numSeats) {
+        HashSet<Seat> heldSeats = new HashSet<>();
+        if(numSeats > numberedSeatsAvailable()) {
+            return heldSeats;
+        } else {
+            for(int count = 0; count < numSeats; count++) {
+                heldSeats.add(takeSeat());
+            }
+            return heldSeats;
+        }
+    }
+
+
+    /**
+     * Creates a simple way to map the seats in the venue
+     *
+     * Made public so test can run against it
+     */
+    public static class Seat {
+        private int id;
+        private String seatNumber;
+        private int cols; //Number of seats across the row, to work out the seat number when first asked
+
+        /**
+         * Seat Constructor
+         * @param id - identification of the Seat
+         * @param seatNumber - seat number in a customer readable format
+         */
+        public Seat(int id, String seatNumber) {
+            this.id = id;
+            this.seatNumber = seatNumber;
+        }
+
+        /**
+         * Seat Constructor for a seat whose number is worked out from its priority when first asked
+         * @param id - identification of the Seat, its priority in the venue
+         * @param cols - number of seats across the row
+         */
+        Seat(int id, int cols) {
+            this.id = id;
+            this.cols = cols;
+        }
+
+        /**
+         * Identification of the Seat
+         * @return the id
+         */
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * Gets the seat number in a customer readable format
+         * @return seat number in a customer readable format
+         */
+        String getSeatNumber() {
+            if(seatNumber == null) {
+                seatNumber = convertToLetter(id / cols) + ":" + findSeatPerRow(id % cols, cols);
+            }
+            return seatNumber;
+        }
+    }
+
+    /**
+     * Seats and lawn spots of an expired hold waiting to go back to the venue
+     */
+    private static final class ExpiredHold extends ExpiryBatcher.Expired {
+        private final int seatHoldId; //Identification of the SeatHold
+        private final Set<Seat> seats; //The seats being released
+        private final int lawnSpots; //The lawn spots being released
+
+        ExpiredHold(int seatHoldId, Set<Seat> seats, int lawnSpots) {
+            this.seatHoldId = seatHoldId;
+            this.seats = seats;
+            this.lawnSpots = lawnSpots;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketEvents;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary snapshot of the holds and reservations of a venue
+ *
+ * A snapshot is fuzzy: the holds are read one by one while requests keep changing them,
+ * so it also records the journal position taken before the first hold was read. Every
+ * change the snapshot may have missed is in the journal from that position on, and the
+ * events are idempotent, so loading the snapshot and replaying the tail of the journal
+ * always ends on the state the venue was in.
+ *
+ * The seats available are not stored, they are every seat that is not in a hold.
+ *
+ * The file is the venue size, the journal position, one record per hold and a CRC32 of
+ * everything before it. It is written to a temporary file and moved over the old
+ * snapshot, so a crash while writing leaves the previous snapshot in place.
+ */
+class VenueSnapshot {
+    private static final int MAGIC = 0x544b5331; //Marks the file as a venue snapshot
+    private static final byte HOLD = 1; //Record of a hold
+    private static final byte END = 0; //Record after the last hold
+
+    /**
+     * Writes a snapshot of the holds, replacing the previous snapshot
+     *
+     * @param file snapshot file
+     * @param rows rows of the venue
+     * @param cols cols of the venue
+     * @param journalPosition journal position taken before the holds were read
+     * @param seatHolds the holds of the venue, expired holds are skipped
+     * @throws UncheckedIOException if the snapshot can not be written
+     */
+    static void write(Path file, int rows, int cols, long journalPosition, Iterable<SeatHold> seatHolds) throws RuntimeException {
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try(FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            CheckedOutputStream checked = new CheckedOutputStream(new BufferedOutputStream(Channels.newOutputStream(channel), 1 << 16), new CRC32());
+            DataOutputStream output = new DataOutputStream(checked);
+            output.writeInt(MAGIC);
+            output.writeInt(rows);
+            output.writeInt(cols);
+            output.writeLong(journalPosition);
+
+            for(SeatHold seatHold : seatHolds) {
+                CompactSeatHoldImpl hold = (CompactSeatHoldImpl) seatHold;
+                if(hold.getNumberOfSeatsOnHold() == 0 || hold.isReleased()) {
+                    continue;
+                }
+                output.writeByte(HOLD);
+                output.writeInt(hold.getId());
+                output.writeBoolean(hold.hasReserved());
+                output.writeLong(System.currentTimeMillis() + hold.holdTimeRemaining());
+                output.writeBoolean(hold.getEmail() != null);
+                if(hold.getEmail() != null) {
+                    output.writeUTF(hold.getEmail());
+                }
+                int[] seatIds = hold.getSeatIds();
+                output.writeInt(seatIds.length);
+                for(int seatId : seatIds) {
+                    output.writeInt(seatId);
+                }
+            }
+            output.writeByte(END);
+            output.writeLong(checked.getChecksum().getValue());
+            output.flush();
+            channel.force(true);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        try {
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Reads a snapshot back as the hold and reserve events that rebuild it
+     *
+     * The whole file is checked before the events are sent, so a corrupt snapshot sends none.
+     *
+     * @param file snapshot file
+     * @param rows rows of the venue
+     * @param cols cols of the venue
+     * @param events receives the holds of the snapshot
+     * @return the journal position to replay the rest of the changes from, -1 if the snapshot is corrupt
+     * @throws RuntimeException if the snapshot is of another venue
+     */
+    static long read(Path file, int rows, int cols, TicketEvents events) throws RuntimeException {
+        int snapshotRows;
+        int snapshotCols;
+        long journalPosition;
+        List<SnapshotHold> holds = new ArrayList<>();
+        try(InputStream stream = Files.newInputStream(file)) {
+            CheckedInputStream checked = new CheckedInputStream(new BufferedInputStream(stream, 1 << 16), new CRC32());
+            DataInputStream input = new DataInputStream(checked);
+            if(input.readInt() != MAGIC) {
+                return -1;
+            }
+            snapshotRows = input.readInt();
+            snapshotCols = input.readInt();
+            journalPosition = input.readLong();
+
+            while(input.readByte() == HOLD) {
+                SnapshotHold hold = new SnapshotHold();
+                hold.seatHoldId = input.readInt();
+                hold.reserved = input.readBoolean();
+                hold.expiresAt = input.readLong();
+                hold.customerEmail = input.readBoolean() ? input.readUTF() : null;
+                int numSeats = input.readInt();
+                if(numSeats < 0 || numSeats > (long) snapshotRows * snapshotCols) {
+                    return -1;
+                }
+                hold.seatIds = new int[numSeats];
+                for(int index = 0; index < numSeats; index++) {
+                    hold.seatIds[index] = input.readInt();
+                }
+                holds.add(hold);
+            }
+            long checksum = checked.getChecksum().getValue();
+            if(input.readLong() != checksum) {
+                return -1;
+            }
+        } catch (EOFException | UTFDataFormatException e) {
+            return -1;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        if(snapshotRows != rows || snapshotCols != cols) {
+            throw new RuntimeException("Snapshot is of a venue of another size!");
+        }
+        for(SnapshotHold hold : holds) {
+            events.hold(hold.seatHoldId, hold.customerEmail, hold.expiresAt, hold.seatIds);
+            if(hold.reserved) {
+                events.reserve(hold.seatHoldId);
+            }
+        }
+        return journalPosition;
+    }
+
+    /**
+     * A hold read from a snapshot, kept until the checksum of the snapshot is checked
+     */
+    private static final class SnapshotHold {
+        private int seatHoldId;
+        private boolean reserved;
+        private long expiresAt;
+        private String customerEmail;
+        private int[] seatIds;
+    }
+}
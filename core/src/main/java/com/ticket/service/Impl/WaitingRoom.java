@@ -0,0 +1,455 @@
+package com.ticket.service.Impl;
+
+import com.ticket.service.SeatHoldFactory;
+import com.ticket.service.interfaces.CustomerIndexedTicketService;
+import com.ticket.service.interfaces.HoldChangingTicketService;
+import com.ticket.service.interfaces.PriceTier;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.SeatMap;
+import com.ticket.service.interfaces.SeatMapTicketService;
+import com.ticket.service.interfaces.TicketService;
+import com.ticket.service.interfaces.TieredTicketService;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+
+/**
+ * Waiting room in front of the holds of a Ticket Service
+ *
+ * Customers that want to hold seats take a place in line and are let in first come first
+ * served by a token bucket, at most the admission rate per second after an initial burst,
+ * so the seats only ever see as many customers as they can serve. A customer is turned
+ * away without ever reaching the seats when the venue, or the tiers the party takes seats
+ * in, has fewer seats available than the party asks for, whether on arrival, while waiting
+ * or once let in, and when the line is full. Only a look at the seats available is paid for a customer turned away.
+ *
+ * The place of a customer is a number, so the position in line is how many numbers are
+ * ahead of it that have not been let in. A customer that leaves the line still uses up
+ * its turn when its number comes up. The optional features are passed on to the service
+ * behind the room, which throws UnsupportedOperationException for the ones it does not have.
+ */
+public class WaitingRoom implements CustomerIndexedTicketService, TieredTicketService,
+        HoldChangingTicketService, SeatMapTicketService {
+    private static final long MAX_NAP = TimeUnit.SECONDS.toNanos(1); //Longest a customer waits before looking at the seats again
+
+    private final TicketService ticketService; //The service customers are let in to
+    private final double admissionRate; //Customers let in per second
+    private final int burst; //Most customers let in at once after the room was idle
+    private final int capacity; //Most customers waiting in line
+    private final long maxWait; //Milliseconds a customer of findAndHoldSeats waits before giving up
+    private long issued; //Numbers handed out, guarded by this
+    private long admitted; //Numbers below this have been let in, guarded by this
+    private double tokens; //Customers that can be let in right away, guarded by this
+    private long refilledAt; //System.nanoTime the tokens were last topped up, guarded by this
+    private volatile boolean soldOut; //Determines if the last look found the venue sold out
+    private final LongAdder admissions; //Customers let in
+    private final LongAdder soldOutTurnedAway; //Customers turned away as the venue had too few seats
+    private final LongAdder fullTurnedAway; //Customers turned away as the line was full
+    private final LongAdder timedOut; //Customers that gave up waiting
+
+    /**
+     * Waiting Room Constructor
+     * @param ticketService - the service customers are let in to
+     * @param admissionRate - customers let in per second
+     * @param burst - most customers let in at once after the room was idle, at least 1
+     * @param capacity - most customers waiting in line
+     * @param maxWait - milliseconds a customer of findAndHoldSeats waits before giving up
+     */
+    public WaitingRoom(TicketService ticketService, double admissionRate, int burst, int capacity, long maxWait) throws RuntimeException {
+        if(admissionRate <= 0 || burst <= 0 || capacity <= 0) {
+            throw new RuntimeException("Admission rate, burst and capacity must be positive!");
+        }
+        this.ticketService = ticketService;
+        this.admissionRate = admissionRate;
+        this.burst = burst;
+        this.capacity = capacity;
+        this.maxWait = maxWait;
+        this.tokens = burst;
+        this.refilledAt = System.nanoTime();
+        this.admissions = new LongAdder();
+        this.soldOutTurnedAway = new LongAdder();
+        this.fullTurnedAway = new LongAdder();
+        this.timedOut = new LongAdder();
+    }
+
+    @Override
+    public int numSeatsAvailable() {
+        return ticketService.numSeatsAvailable();
+    }
+
+    /**
+     * Waits in line, then finds and holds the seats
+     *
+     * @param numSeats the number of seats to find and hold
+     * @param customerEmail unique identifier for the customer
+     * @return the hold, with no seats if the customer was turned away or gave up waiting
+     */
+    @Override
+    public SeatHold findAndHoldSeats(int numSeats, String customerEmail) {
+        Place place = join(numSeats);
+        if(!await(place, maxWait)) {
+            return emptyHold(customerEmail);
+        }
+        return findAndHoldSeats(place, customerEmail);
+    }
+
+    /**
+     * Waits in line, then finds and holds the seats once per idempotency key
+     *
+     * A retry of a request that already made its hold gets it back right away, without a
+     * place in line, so it is never turned away by the seats its own hold took, a full line
+     * or a long wait, and it does not use up a turn.
+     */
+    @Override
+    public SeatHold findAndHoldSeats(int numSeats, String customerEmail, String idempotencyKey) {
+        SeatHold seatHold = idempotencyKey == null ? null : CustomerIndexedTicketService.of(ticketService).findHold(customerEmail, idempotencyKey);
+        if(seatHold != null) {
+            return seatHold;
+        }
+        Place place = join(numSeats);
+        if(!await(place, maxWait)) {
+            return emptyHold(customerEmail);
+        }
+        return findAndHoldSeats(place, customerEmail, idempotencyKey);
+    }
+
+    /**
+     * Waits in line, then finds and holds the seats in the tiers the customer accepts
+     *
+     * The customer is only turned away for the seats of those tiers, so a sold out tier
+     * sends its customers home even while the rest of the venue has seats.
+     */
+    @Override
+    public SeatHold findAndHoldSeatsInTiers(int numSeats, String customerEmail, Predicate<PriceTier> tiers) {
+        Place place = join(numSeats, tiers);
+        if(!await(place, maxWait) || !use(place)) {
+            return emptyHold(customerEmail);
+        }
+        SeatHold seatHold = TieredTicketService.of(ticketService).findAndHoldSeatsInTiers(place.numSeats, customerEmail, tiers);
+        //Wakes the line if this hold sold the venue out
+        seatsAvailable();
+        return seatHold;
+    }
+
+    @Override
+    public List<PriceTier> getPriceTiers() {
+        return TieredTicketService.of(ticketService).getPriceTiers();
+    }
+
+    @Override
+    public int numSeatsAvailable(String tierName) {
+        return TieredTicketService.of(ticketService).numSeatsAvailable(tierName);
+    }
+
+    @Override
+    public SeatHold findHold(String customerEmail, String idempotencyKey) {
+        return CustomerIndexedTicketService.of(ticketService).findHold(customerEmail, idempotencyKey);
+    }
+
+    @Override
+    public List<SeatHold> findHolds(String customerEmail) {
+        return CustomerIndexedTicketService.of(ticketService).findHolds(customerEmail);
+    }
+
+    @Override
+    public boolean releaseSeats(int seatHoldId, String customerEmail, int[] seatIds) {
+        return HoldChangingTicketService.of(ticketService).releaseSeats(seatHoldId, customerEmail, seatIds);
+    }
+
+    @Override
+    public boolean extendHold(int seatHoldId, String customerEmail, long millis) {
+        return HoldChangingTicketService.of(ticketService).extendHold(seatHoldId, customerEmail, millis);
+    }
+
+    @Override
+    public SeatMap getSeatMap() {
+        return SeatMapTicketService.of(ticketService).getSeatMap();
+    }
+
+    @Override
+    public Reservation reserveSeats(int seatHoldId, String customerEmail) {
+        return ticketService.reserveSeats(seatHoldId, customerEmail);
+    }
+
+    /**
+     * Takes a place in line
+     *
+     * @param numSeats the number of seats the party needs
+     * @return the place, turned away right away if the venue has too few seats or the line is full
+     */
+    public Place join(int numSeats) {
+        return join(numSeats, null);
+    }
+
+    /**
+     * Takes a place in line for seats of some tiers
+     *
+     * @param numSeats the number of seats the party needs
+     * @param tiers the tiers the party takes seats in, null for any seat of the venue
+     * @return the place, turned away right away if the tiers have too few seats or the line is full
+     */
+    private Place join(int numSeats, Predicate<PriceTier> tiers) {
+        if(hasTooFewSeats(numSeats, tiers)) {
+            soldOutTurnedAway.increment();
+            return new Place(this, -1, numSeats, tiers, Place.SOLD_OUT);
+        }
+        synchronized(this) {
+            refill();
+            if(issued - admitted >= capacity) {
+                fullTurnedAway.increment();
+                return new Place(this, -1, numSeats, tiers, Place.FULL);
+            }
+            return new Place(this, issued++, numSeats, tiers, Place.WAITING);
+        }
+    }
+
+    /**
+     * Waits until the place is let in or turned away
+     *
+     * @param place a place taken with join
+     * @param timeout milliseconds to wait at most
+     * @return true if the place was let in, false if it was turned away or gave up
+     */
+    public boolean await(Place place, long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        while(true) {
+            //Looks at the seats before taking the lock, so a count never holds up the line
+            boolean soldOutSeen = soldOut;
+            boolean tooFewSeats = hasTooFewSeats(place.numSeats, place.tiers);
+            synchronized(this) {
+                if(place.state != Place.WAITING) {
+                    return place.state == Place.ADMITTED;
+                }
+                refill();
+                if(place.number < admitted) {
+                    if(tooFewSeats) {
+                        place.state = Place.SOLD_OUT;
+                        soldOutTurnedAway.increment();
+                        return false;
+                    }
+                    place.state = Place.ADMITTED;
+                    admissions.increment();
+                    return true;
+                }
+                if(tooFewSeats) {
+                    place.state = Place.SOLD_OUT;
+                    soldOutTurnedAway.increment();
+                    return false;
+                }
+                if(soldOut != soldOutSeen) {
+                    //The venue sold out after the look, and the wake up came before this wait
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if(remaining <= 0) {
+                    place.state = Place.GAVE_UP;
+                    timedOut.increment();
+                    return false;
+                }
+                //Sleeps until about when the turn of the place comes, checking on the seats now and then
+                double ahead = place.number - admitted + 1 - tokens;
+                long nap = Math.min(Math.min(remaining, MAX_NAP), Math.max(1, (long) (ahead / admissionRate * TimeUnit.SECONDS.toNanos(1))));
+                try {
+                    TimeUnit.NANOSECONDS.timedWait(this, nap);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    place.state = Place.GAVE_UP;
+                    timedOut.increment();
+                    return false;
+                }
+            }
+        }
+    }
+
+    /**
+     * Finds and holds the seats of a place that was let in, once
+     *
+     * @param place a place let in
+     * @param customerEmail unique identifier for the customer
+     * @return the hold, with no seats if the place was not let in or already held its seats
+     */
+    public SeatHold findAndHoldSeats(Place place, String customerEmail) {
+        return findAndHoldSeats(place, customerEmail, null);
+    }
+
+    /**
+     * Finds and holds the seats of a place that was let in, once per idempotency key
+     *
+     * @param place a place let in
+     * @param customerEmail unique identifier for the customer
+     * @param idempotencyKey key of the request chosen by the client, null for none
+     * @return the hold, with no seats if the place was not let in or already held its seats
+     */
+    public SeatHold findAndHoldSeats(Place place, String customerEmail, String idempotencyKey) {
+        if(!use(place)) {
+            return emptyHold(customerEmail);
+        }
+        SeatHold seatHold = idempotencyKey == null ? ticketService.findAndHoldSeats(place.numSeats, customerEmail)
+                : CustomerIndexedTicketService.of(ticketService).findAndHoldSeats(place.numSeats, customerEmail, idempotencyKey);
+        //Wakes the line if this hold sold the venue out
+        seatsAvailable();
+        return seatHold;
+    }
+
+    /**
+     * Uses up a place that was let in, a place only ever holds seats once
+     *
+     * @param place the place
+     * @return true if the place was let in and had not held its seats yet
+     */
+    private synchronized boolean use(Place place) {
+        if(place.state != Place.ADMITTED) {
+            return false;
+        }
+        place.state = Place.USED;
+        return true;
+    }
+
+    /**
+     * Gets the number of customers waiting in line
+     *
+     * @return the length of the line
+     */
+    public synchronized int getQueueLength() {
+        refill();
+        return (int) (issued - admitted);
+    }
+
+    public long getAdmissions() {
+        return admissions.sum();
+    }
+
+    public long getSoldOutTurnedAway() {
+        return soldOutTurnedAway.sum();
+    }
+
+    public long getFullTurnedAway() {
+        return fullTurnedAway.sum();
+    }
+
+    public long getTimedOut() {
+        return timedOut.sum();
+    }
+
+    /**
+     * Looks at the seats of the tiers a party takes seats in
+     *
+     * @param numSeats the number of seats the party needs
+     * @param tiers the tiers the party takes seats in, null for any seat of the venue
+     * @return true if the tiers have fewer seats available than the party needs
+     */
+    private boolean hasTooFewSeats(int numSeats, Predicate<PriceTier> tiers) {
+        if(tiers == null) {
+            return seatsAvailable() < numSeats;
+        }
+        TieredTicketService tieredTicketService = TieredTicketService.of(ticketService);
+        int seatsAvailable = 0;
+        for(PriceTier tier : tieredTicketService.getPriceTiers()) {
+            if(tiers.test(tier)) {
+                seatsAvailable += tieredTicketService.numSeatsAvailable(tier.getName());
+            }
+        }
+        return seatsAvailable < numSeats;
+    }
+
+    /**
+     * Looks at the seats available, waking the line when the venue just sold out
+     */
+    private int seatsAvailable() {
+        int seatsAvailable = ticketService.numSeatsAvailable();
+        boolean nowSoldOut = seatsAvailable == 0;
+        if(nowSoldOut != soldOut) {
+            soldOut = nowSoldOut;
+            if(nowSoldOut) {
+                //Everyone waiting is turned away now instead of at their next look
+                synchronized(this) {
+                    notifyAll();
+                }
+            }
+        }
+        return seatsAvailable;
+    }
+
+    /**
+     * Tops up the tokens for the time gone by and lets in as many of the line as they allow
+     */
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(burst, tokens + (now - refilledAt) * admissionRate / TimeUnit.SECONDS.toNanos(1));
+        refilledAt = now;
+        long letIn = Math.min((long) tokens, issued - admitted);
+        admitted += letIn;
+        tokens -= letIn;
+    }
+
+    private static SeatHold emptyHold(String customerEmail) {
+        //Id 0 is never handed out, so the hold can not be reserved
+        return SeatHoldFactory.create(0, new int[0], customerEmail, 0, 1, seatIds -> {});
+    }
+
+    /**
+     * Place of a customer in the line of a waiting room
+     */
+    public static class Place {
+        private static final int WAITING = 0; //In line
+        private static final int ADMITTED = 1; //Let in and can hold seats
+        private static final int USED = 2; //Let in and held seats
+        private static final int SOLD_OUT = 3; //Turned away, the venue had too few seats
+        private static final int FULL = 4; //Turned away, the line was full
+        private static final int GAVE_UP = 5; //Left the line before being let in
+
+        private final WaitingRoom waitingRoom; //Room the place is in
+        private final long number; //Number of the place, -1 when turned away on arrival
+        private final int numSeats; //Number of seats the party needs
+        private final Predicate<PriceTier> tiers; //Tiers the party takes seats in, null for any seat of the venue
+        private int state; //Where the customer is, guarded by the waiting room
+
+        private Place(WaitingRoom waitingRoom, long number, int numSeats, Predicate<PriceTier> tiers, int state) {
+            this.waitingRoom = waitingRoom;
+            this.number = number;
+            this.numSeats = numSeats;
+            this.tiers = tiers;
+            this.state = state;
+        }
+
+        /**
+         * Gets the number of customers ahead in line
+         *
+         * @return the position, 0 once let in, -1 if turned away
+         */
+        public long getPosition() {
+            synchronized(waitingRoom) {
+                if(state == WAITING) {
+                    waitingRoom.refill();
+                    return Math.max(0, number - waitingRoom.admitted);
+                }
+                return state == ADMITTED || state == USED ? 0 : -1;
+            }
+        }
+
+        /**
+         * Checks if the place has been let in
+         *
+         * @return true if let in
+         */
+        public boolean isAdmitted() {
+            synchronized(waitingRoom) {
+                return state == ADMITTED || state == USED;
+            }
+        }
+
+        /**
+         * Checks if the customer was turned away or left the line
+         *
+         * @return true if the customer can no longer be let in
+         */
+        public boolean isTurnedAway() {
+            synchronized(waitingRoom) {
+                return state == SOLD_OUT || state == FULL || state == GAVE_UP;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.InstrumentedTicketService;
+import com.ticket.service.Impl.LoadGenerator;
+import com.ticket.service.Impl.LoadReport;
+import com.ticket.service.Impl.TicketMetrics;
+import com.ticket.service.Impl.WaitingRoom;
+import com.ticket.service.interfaces.TicketService;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Runs an on sale against a venue from the command line
+ *
+ * Options are name=value pairs, any left out keep their default:
+ * venue=9x33 rows and columns of the venue
+ * hold=60 seconds a hold lasts
+ * service=concurrent the service under load, concurrent or synchronized
+ * threads=8 threads the customers are spread over
+ * rate=10000 customers arriving per second
+ * duration=30 seconds customers keep arriving
+ * party=40,30,15,10,5 weight of each party size, from a party of one up
+ * conversion=0.7 share of the customers holding seats that reserve them, the rest abandon their hold
+ * admission=0 customers a waiting room lets in per second, 0 for no waiting room
+ */
+public class LoadTest {
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        options.put("venue", "9x33");
+        options.put("hold", "60");
+        options.put("service", "concurrent");
+        options.put("threads", "8");
+        options.put("rate", "10000");
+        options.put("duration", "30");
+        options.put("party", "40,30,15,10,5");
+        options.put("conversion", "0.7");
+        options.put("admission", "0");
+        for(String arg : args) {
+            String[] option = arg.split("=", 2);
+            if(option.length != 2 || !options.containsKey(option[0])) {
+                System.out.println("Option not recognized: " + arg);
+                System.exit(1);
+            }
+            options.put(option[0], option[1]);
+        }
+
+        String[] venue = options.get("venue").split("x");
+        int rows = Integer.parseInt(venue[0]);
+        int cols = Integer.parseInt(venue[1]);
+        long hold = Long.parseLong(options.get("hold"));
+        String[] weights = options.get("party").split(",");
+        int[] partySizeWeights = new int[weights.length];
+        for(int size = 0; size < weights.length; size++) {
+            partySizeWeights[size] = Integer.parseInt(weights[size].trim());
+        }
+
+        TicketMetrics metrics = new TicketMetrics();
+        TicketService ticketService;
+        if(options.get("service").equals("concurrent")) {
+            ticketService = TicketServiceFactory.createInstrumented(rows, cols, hold, metrics);
+        } else if(options.get("service").equals("synchronized")) {
+            ticketService = new InstrumentedTicketService(TicketServiceFactory.create(rows, cols, hold), metrics);
+        } else {
+            System.out.println("Service not recognized: " + options.get("service"));
+            System.exit(1);
+            return;
+        }
+        double admission = Double.parseDouble(options.get("admission"));
+        if(admission > 0) {
+            ticketService = new WaitingRoom(ticketService, admission, (int) Math.ceil(admission / 10), 1000000, 10000);
+        }
+        LoadGenerator loadGenerator = new LoadGenerator(Integer.parseInt(options.get("threads")),
+                Double.parseDouble(options.get("rate")), partySizeWeights,
+                Double.parseDouble(options.get("conversion")), Long.parseLong(options.get("duration")) * 1000);
+
+        System.out.println("On sale of a " + rows + "x" + cols + " venue: " + options);
+        metrics.startReporting(System.out::println, 1);
+        LoadReport report = loadGenerator.run(ticketService, hold * 1000 + 5000);
+        metrics.stopReporting();
+        System.out.println(report);
+        System.exit(report.isConsistent() ? 0 : 2);
+    }
+}
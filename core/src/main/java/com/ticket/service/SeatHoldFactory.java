@@ -0,0 +1,24 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.CompactSeatHoldImpl;
+import com.ticket.service.Impl.SeatHoldImpl;
+import com.ticket.service.Impl.TicketServiceImpl;
+import com.ticket.service.interfaces.SeatHold;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.function.Consumer;
+
+public class SeatHoldFactory {
+    public static SeatHold create(int seatHoldId, HashSet<TicketServiceImpl.Seat> heldSeats, String customerEmail, long duration, int cols, Consumer<Set<TicketServiceImpl.Seat>> seatReleaser) {
+        return new SeatHoldImpl(seatHoldId, heldSeats, customerEmail, duration, cols, seatReleaser);
+    }
+
+    public static SeatHold create(int seatHoldId, HashSet<TicketServiceImpl.Seat> heldSeats, int lawnSpots, String customerEmail, long duration, int cols, Consumer<Set<TicketServiceImpl.Seat>> seatReleaser) {
+        return new SeatHoldImpl(seatHoldId, heldSeats, lawnSpots, customerEmail, duration, cols, seatReleaser);
+    }
+
+    public static SeatHold create(int seatHoldId, int[] heldSeatIds, String customerEmail, long duration, int cols, Consumer<int[]> seatReleaser) {
+        return new CompactSeatHoldImpl(seatHoldId, heldSeatIds, customerEmail, duration, cols, seatReleaser);
+    }
+}
@@ -0,0 +1,15 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.HashedWheelExpiryScheduler;
+import com.ticket.service.Impl.PartitionedTicketCatalog;
+import com.ticket.service.interfaces.TicketCatalog;
+
+public class TicketCatalogFactory {
+    public static TicketCatalog create() {
+        return new PartitionedTicketCatalog();
+    }
+
+    public static TicketCatalog create(int partitions) throws RuntimeException {
+        return new PartitionedTicketCatalog(partitions, HashedWheelExpiryScheduler.getDefault());
+    }
+}
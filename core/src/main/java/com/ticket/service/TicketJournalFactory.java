@@ -0,0 +1,16 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.MappedJournal;
+import com.ticket.service.interfaces.TicketJournal;
+
+import java.nio.file.Path;
+
+public class TicketJournalFactory {
+    public static TicketJournal create(Path file) throws RuntimeException {
+        return new MappedJournal(file);
+    }
+
+    public static TicketJournal create(Path file, int regionSize) throws RuntimeException {
+        return new MappedJournal(file, regionSize);
+    }
+}
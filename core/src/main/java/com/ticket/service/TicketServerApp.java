@@ -0,0 +1,52 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.TicketServer;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Serves a venue over the network until the process is stopped
+ *
+ * Options are name=value pairs, any left out keep their default:
+ * port=7070 port to listen on
+ * venue=9x33 rows and columns of the venue
+ * hold=60 seconds a hold lasts
+ * loops=number of cores selector loops the connections are spread over
+ */
+public class TicketServerApp {
+    public static void main(String[] args) throws Exception {
+        int port = 7070;
+        int rows = 9;
+        int cols = 33;
+        long hold = 60;
+        int loops = Runtime.getRuntime().availableProcessors();
+        for(String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length == 2 ? option[1] : "";
+            switch(option[0]) {
+                case "port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "venue":
+                    rows = Integer.parseInt(value.split("x")[0]);
+                    cols = Integer.parseInt(value.split("x")[1]);
+                    break;
+                case "hold":
+                    hold = Long.parseLong(value);
+                    break;
+                case "loops":
+                    loops = Integer.parseInt(value);
+                    break;
+                default:
+                    System.out.println("Option not recognized: " + arg);
+                    System.exit(1);
+            }
+        }
+
+        TicketServer server = new TicketServer(TicketServiceFactory.createConcurrent(rows, cols, hold),
+                new InetSocketAddress(port), loops, e -> System.out.println("Server error: " + e.getMessage()));
+        System.out.println("Serving a " + rows + "x" + cols + " venue on port " + server.getPort() + " with " + loops + " loops");
+        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,60 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.ConcurrentTicketServiceImpl;
+import com.ticket.service.Impl.EventLoopTicketService;
+import com.ticket.service.Impl.HashedWheelExpiryScheduler;
+import com.ticket.service.Impl.InstrumentedExpiryScheduler;
+import com.ticket.service.Impl.InstrumentedTicketService;
+import com.ticket.service.Impl.PooledTicketService;
+import com.ticket.service.Impl.TicketMetrics;
+import com.ticket.service.Impl.TicketServiceImpl;
+import com.ticket.service.interfaces.AsyncTicketService;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.PriceTier;
+import com.ticket.service.interfaces.TicketJournal;
+import com.ticket.service.interfaces.TicketService;
+
+public class TicketServiceFactory {
+    public static TicketServiceImpl create(int rows, int cols, long duration) throws RuntimeException {
+        return new TicketServiceImpl(rows, cols, duration);
+    }
+
+    public static TicketServiceImpl create(int rows, int cols, long duration, ExpiryScheduler expiryScheduler) throws RuntimeException {
+        return new TicketServiceImpl(rows, cols, duration, expiryScheduler);
+    }
+
+    public static ConcurrentTicketServiceImpl createConcurrent(int rows, int cols, long duration) throws RuntimeException {
+        return new ConcurrentTicketServiceImpl(rows, cols, duration);
+    }
+
+    public static ConcurrentTicketServiceImpl createConcurrent(int rows, int cols, long duration, ExpiryScheduler expiryScheduler) throws RuntimeException {
+        return new ConcurrentTicketServiceImpl(rows, cols, duration, expiryScheduler);
+    }
+
+    public static ConcurrentTicketServiceImpl createConcurrent(int rows, int cols, long duration, int maxSeatsPerCustomer) throws RuntimeException {
+        ConcurrentTicketServiceImpl ticketService = new ConcurrentTicketServiceImpl(rows, cols, duration);
+        ticketService.setMaxSeatsPerCustomer(maxSeatsPerCustomer);
+        return ticketService;
+    }
+
+    public static ConcurrentTicketServiceImpl createConcurrent(int rows, int cols, long duration, TicketJournal journal) throws RuntimeException {
+        return new ConcurrentTicketServiceImpl(rows, cols, duration, HashedWheelExpiryScheduler.getDefault(), journal);
+    }
+
+    public static ConcurrentTicketServiceImpl createConcurrent(PriceTier[] priceTiers, int cols, long duration) throws RuntimeException {
+        return new ConcurrentTicketServiceImpl(priceTiers, cols, duration, HashedWheelExpiryScheduler.getDefault(), null, null);
+    }
+
+    public static InstrumentedTicketService createInstrumented(int rows, int cols, long duration, TicketMetrics metrics) throws RuntimeException {
+        ExpiryScheduler expiryScheduler = new InstrumentedExpiryScheduler(HashedWheelExpiryScheduler.getDefault(), metrics);
+        return new InstrumentedTicketService(new ConcurrentTicketServiceImpl(rows, cols, duration, expiryScheduler), metrics);
+    }
+
+    public static TicketService createPooled(int rows, int cols, long duration) throws RuntimeException {
+        return new PooledTicketService(rows, cols, duration);
+    }
+
+    public static AsyncTicketService createEventLoop(int rows, int cols, long duration) throws RuntimeException {
+        return new EventLoopTicketService(rows, cols, duration);
+    }
+}
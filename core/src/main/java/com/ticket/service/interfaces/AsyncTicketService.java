@@ -0,0 +1,61 @@
+package com.ticket.service.interfaces;
+
+import java.util.concurrent.CompletableFuture;
+
+public interface AsyncTicketService {
+    /**
+     * The number of seats in the venue that are neither held nor reserved
+     *
+     * @return the number of tickets available in the venue
+     */
+    int numSeatsAvailable();
+
+    /**
+     * Find and hold the best available seats for a customer
+     *
+     * @param numSeats      the number of seats to find and hold
+     * @param customerEmail unique identifier for the customer
+     * @return a future of the SeatHold object identifying the specific seats and related
+     * information
+     */
+    CompletableFuture<SeatHold> findAndHoldSeats(int numSeats, String customerEmail);
+
+    /**
+     * Commit seats held for a specific customer
+     *
+     * @param seatHoldId    the seat hold identifier
+     * @param customerEmail the email address of the customer to which the
+     *                      seat hold is assigned
+     * @return a future of the reservation with its confirmation code, otherwise why the seats were not reserved
+     */
+    CompletableFuture<Reservation> reserveSeats(int seatHoldId, String customerEmail);
+
+    /**
+     * Find and hold the best available seats for a batch of customers
+     *
+     * The whole batch takes one trip to the writer and is handled as
+     * TicketService.findAndHoldSeats(int[], String[]) describes.
+     *
+     * @param numSeats       the number of seats to find and hold for each request
+     * @param customerEmails unique identifier for the customer of each request
+     * @return a future of the SeatHold of each request, in the order of the batch
+     */
+    CompletableFuture<SeatHold[]> findAndHoldSeats(int[] numSeats, String[] customerEmails);
+
+    /**
+     * Commit the seats of a batch of holds
+     *
+     * The whole batch takes one trip to the writer and is handled as
+     * TicketService.reserveSeats(int[], String[]) describes.
+     *
+     * @param seatHoldIds    the seat hold identifiers
+     * @param customerEmails the email address of the customer of each hold
+     * @return a future of the reservation of each hold, in the order of the batch
+     */
+    CompletableFuture<Reservation[]> reserveSeats(int[] seatHoldIds, String[] customerEmails);
+
+    /**
+     * Stops the service, requests already queued are still answered
+     */
+    void shutdown();
+}
@@ -0,0 +1,51 @@
+package com.ticket.service.interfaces;
+
+import java.util.List;
+
+public interface CustomerIndexedTicketService extends TicketService {
+    /**
+     * Find and hold the best available seats for a customer, once per idempotency key
+     *
+     * A client that retries a request, e.g. after a timeout, sends the same key again and
+     * gets back the hold the first request made, as long as it has not expired, instead of
+     * holding more seats.
+     *
+     * @param numSeats       the number of seats to find and hold
+     * @param customerEmail  unique identifier for the customer
+     * @param idempotencyKey key of the request chosen by the client, null for none
+     * @return a SeatHold object identifying the specific seats and related
+     * information
+     */
+    SeatHold findAndHoldSeats(int numSeats, String customerEmail, String idempotencyKey);
+
+    /**
+     * Finds the hold an earlier request of a customer made with an idempotency key
+     *
+     * @param customerEmail  unique identifier for the customer
+     * @param idempotencyKey key of the request chosen by the client
+     * @return the hold, on hold or reserved, null if the customer has none made with the key
+     */
+    SeatHold findHold(String customerEmail, String idempotencyKey);
+
+    /**
+     * Finds the holds of a customer, on hold or reserved
+     *
+     * @param customerEmail the email address of the customer
+     * @return the holds of the customer, oldest first
+     */
+    List<SeatHold> findHolds(String customerEmail);
+
+    /**
+     * Gets a ticket service as one that indexes the holds of its customers
+     *
+     * @param ticketService the ticket service
+     * @return the same ticket service
+     * @throws UnsupportedOperationException if the service does not index the holds of its customers
+     */
+    static CustomerIndexedTicketService of(TicketService ticketService) throws RuntimeException {
+        if(!(ticketService instanceof CustomerIndexedTicketService)) {
+            throw new UnsupportedOperationException("Ticket service does not index holds by customer!");
+        }
+        return (CustomerIndexedTicketService) ticketService;
+    }
+}
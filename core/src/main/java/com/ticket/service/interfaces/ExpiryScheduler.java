@@ -0,0 +1,66 @@
+package com.ticket.service.interfaces;
+
+public interface ExpiryScheduler {
+    /**
+     * Schedules a task to run once the delay has passed
+     *
+     * @param task  the task to run when the delay expires
+     * @param delay the delay in milliseconds
+     * @return a handle that can cancel the task before it runs
+     */
+    Timeout schedule(Runnable task, long delay);
+
+    /**
+     * Runs a task that follows up on expiries, e.g. returning their seats, as soon as the scheduler can
+     *
+     * It runs like a task scheduled with no delay but is not an expiry itself, so schedulers
+     * that count expiries leave it out.
+     *
+     * @param task the task to run
+     */
+    default void execute(Runnable task) {
+        schedule(task, 0);
+    }
+
+    /**
+     * Told by a hold each time it expires and gives its seats back, for schedulers that measure expiries
+     *
+     * A timeout that releases a batch of holds tells it once per hold released, and a hold
+     * that was reserved or only waits longer because it was extended does not tell it.
+     *
+     * @param lagNanos nanoseconds the hold expired after its deadline
+     */
+    default void expired(long lagNanos) {
+    }
+
+    /**
+     * Stops the scheduler, tasks that have not run yet are dropped
+     */
+    void shutdown();
+
+    /**
+     * Handle to a scheduled task
+     */
+    interface Timeout {
+        /**
+         * Cancels the task so it never runs
+         *
+         * @return true if the task was cancelled, false if it already ran or was cancelled
+         */
+        boolean cancel();
+
+        /**
+         * Checks if the task has been cancelled
+         *
+         * @return true if cancelled, false otherwise
+         */
+        boolean isCancelled();
+
+        /**
+         * Checks if the task has already run
+         *
+         * @return true if the delay expired and the task ran, false otherwise
+         */
+        boolean isExpired();
+    }
+}
@@ -0,0 +1,43 @@
+package com.ticket.service.interfaces;
+
+public interface HoldChangingTicketService extends TicketService {
+    /**
+     * Gives back part of the seats of a hold, the rest stay on hold until the same deadline
+     *
+     * Giving back every seat of the hold releases the hold as if it had expired.
+     *
+     * @param seatHoldId    the seat hold identifier
+     * @param customerEmail the email address of the customer to which the
+     *                      seat hold is assigned
+     * @param seatIds       ids of the seats to give back, as SeatHold.getSeatIds gives them
+     * @return true if the seats went back to the venue, false if the hold is not on hold for
+     * the customer or one of the seats is not in it
+     */
+    boolean releaseSeats(int seatHoldId, String customerEmail, int[] seatIds);
+
+    /**
+     * Moves the deadline of a hold later, for a customer that needs more time to check out
+     *
+     * @param seatHoldId    the seat hold identifier
+     * @param customerEmail the email address of the customer to which the
+     *                      seat hold is assigned
+     * @param millis        milliseconds added to the hold
+     * @return true if the hold was extended, false if it is not on hold for the customer
+     * @throws RuntimeException if millis is not positive
+     */
+    boolean extendHold(int seatHoldId, String customerEmail, long millis) throws RuntimeException;
+
+    /**
+     * Gets a ticket service as one that changes the seats of a hold
+     *
+     * @param ticketService the ticket service
+     * @return the same ticket service
+     * @throws UnsupportedOperationException if the service can not change the seats of a hold
+     */
+    static HoldChangingTicketService of(TicketService ticketService) throws RuntimeException {
+        if(!(ticketService instanceof HoldChangingTicketService)) {
+            throw new UnsupportedOperationException("Ticket service can not change the seats of a hold!");
+        }
+        return (HoldChangingTicketService) ticketService;
+    }
+}
@@ -0,0 +1,24 @@
+package com.ticket.service.interfaces;
+
+public interface PriceTier {
+    /**
+     * Gets the name of the tier, unique in its venue
+     *
+     * @return the name, e.g. Orchestra
+     */
+    String getName();
+
+    /**
+     * Gets the rows of the tier, the tiers of a venue are stacked from the stage back
+     *
+     * @return the number of rows
+     */
+    int getRows();
+
+    /**
+     * Gets the price of a seat of the tier
+     *
+     * @return the price in cents
+     */
+    int getPrice();
+}
@@ -0,0 +1,64 @@
+package com.ticket.service.interfaces;
+
+public interface Reservation {
+    /**
+     * Outcome of a reservation
+     */
+    enum Status {
+        RESERVED, //Seats were reserved and a confirmation code given
+        NOT_FOUND, //No hold has the id
+        ALREADY_RESERVED, //The hold was reserved before
+        EMAIL_MISMATCH, //The email is missing or is not the one the hold is for
+        EXPIRED //The hold expired before it was reserved
+    }
+
+    /**
+     * Gets the outcome of the reservation
+     *
+     * @return the status
+     */
+    Status getStatus();
+
+    /**
+     * Checks if the seats were reserved
+     *
+     * @return true if the status is RESERVED
+     */
+    boolean isReserved();
+
+    /**
+     * Gets the confirmation code of the reservation
+     *
+     * @return the code, null unless the seats were reserved
+     */
+    String getCode();
+
+    /**
+     * Gets the identification of the SeatHold that was asked to be reserved
+     *
+     * @return the seat hold id
+     */
+    int getSeatHoldId();
+
+    /**
+     * Gets the email the reservation was asked for
+     *
+     * @return the email
+     */
+    String getCustomerEmail();
+
+    /**
+     * Gets the ids of the seats of the hold
+     *
+     * @return the seat ids, empty if no hold was found
+     */
+    int[] getSeatIds();
+
+    /**
+     * Gets the message for the customer, built when called
+     *
+     * @return the confirmation code and seats, otherwise why the seats were not reserved
+     */
+    @Override
+    String toString();
+}
@@ -1,7 +1,5 @@
 package com.ticket.service.interfaces;
 
-import java.util.TimerTask;
-
 public interface SeatHold {
     /**
      * The Identification of the SeatHold
@@ -17,6 +15,12 @@ public interface SeatHold {
      */
     String displaySeatsOnHold();
 
+    /**
+     * Gets the ids of the seats being held, as the venue numbers its seats
+     *
+     * @return the seat ids
+     */
+    int[] getSeatIds();
 
     /**
      * Displays the remaining time before the ticket expires and the seat return to pool
@@ -33,11 +37,11 @@ public interface SeatHold {
     String getEmail();
 
     /**
-     * Gets the TimerTask which will release the holds on all the seats
+     * Starts the countdown that will release the holds on all the seats
      *
-     * @return the TimerTask objects
+     * @param scheduler the scheduler that runs the release once the hold expires
      */
-    TimerTask getHoldExpires();
+    void scheduleExpiry(ExpiryScheduler scheduler);
 
     /**
      * Checks if the seats have already been reserved
@@ -46,9 +50,11 @@ public interface SeatHold {
     boolean hasReserved();
 
     /**
-     * Marks the hold as reserved so the TimeTask wont remove the reserved seats
+     * Marks the hold as reserved and cancels the expiry so the reserved seats are never released
+     *
+     * @return true if the hold was reserved, false if it was already reserved or has expired
      */
-    void markReserved();
+    boolean markReserved();
 
     /**
      * Gets the number of seats being held
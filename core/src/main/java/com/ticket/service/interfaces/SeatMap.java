@@ -0,0 +1,56 @@
+package com.ticket.service.interfaces;
+
+public interface SeatMap {
+    /**
+     * Status of a seat
+     */
+    enum Status {
+        AVAILABLE, //Neither held nor reserved
+        HELD, //On hold for a customer
+        RESERVED //Sold
+    }
+
+    /**
+     * Gets the version of the map, a later map of the same venue has a higher version when anything changed
+     *
+     * @return the version
+     */
+    long getVersion();
+
+    /**
+     * Gets the rows of the venue
+     *
+     * @return the number of rows
+     */
+    int getRows();
+
+    /**
+     * Gets the seats across each row
+     *
+     * @return the number of cols
+     */
+    int getCols();
+
+    /**
+     * Gets the status of a seat
+     *
+     * @param seatId id of the seat, row * cols + position in the row
+     * @return the status of the seat when the map was taken
+     */
+    Status getStatus(int seatId);
+
+    /**
+     * Counts the seats available on the map
+     *
+     * @return the number of seats available
+     */
+    int getSeatsAvailable();
+
+    /**
+     * Finds the rows that changed since an earlier map, so a client only has to redraw those
+     *
+     * @param older an earlier map of the same venue, null for none
+     * @return the rows that changed in order, every row if older is null or of another venue
+     */
+    int[] changedRows(SeatMap older);
+}
@@ -0,0 +1,27 @@
+package com.ticket.service.interfaces;
+
+public interface SeatMapTicketService extends TicketService {
+    /**
+     * Gets the status of every seat of the venue, for drawing the seat map
+     *
+     * Reading the map never holds up the requests that change the seats, and a map that
+     * is read again before anything changed is the same map.
+     *
+     * @return the seat map
+     */
+    SeatMap getSeatMap();
+
+    /**
+     * Gets a ticket service as one that keeps a seat map
+     *
+     * @param ticketService the ticket service
+     * @return the same ticket service
+     * @throws UnsupportedOperationException if the service does not keep a seat map
+     */
+    static SeatMapTicketService of(TicketService ticketService) throws RuntimeException {
+        if(!(ticketService instanceof SeatMapTicketService)) {
+            throw new UnsupportedOperationException("Ticket service does not keep a seat map!");
+        }
+        return (SeatMapTicketService) ticketService;
+    }
+}
@@ -0,0 +1,48 @@
+package com.ticket.service.interfaces;
+
+public interface TicketCatalog {
+    /**
+     * Adds a show with its own venue to the catalog
+     *
+     * @param showId   unique identifier for the show
+     * @param rows     rows of the venue
+     * @param cols     cols of the venue
+     * @param duration duration of the expiration hold in seconds
+     */
+    void addShow(String showId, int rows, int cols, long duration);
+
+    /**
+     * The number of seats for a show that are neither held nor reserved
+     *
+     * @param showId the show identifier
+     * @return the number of tickets available for the show
+     */
+    int numSeatsAvailable(String showId);
+
+    /**
+     * Find and hold the best available seats of a show for a customer
+     *
+     * @param showId        the show identifier
+     * @param numSeats      the number of seats to find and hold
+     * @param customerEmail unique identifier for the customer
+     * @return a SeatHold object identifying the specific seats and related
+     * information
+     */
+    SeatHold findAndHoldSeats(String showId, int numSeats, String customerEmail);
+
+    /**
+     * Commit seats of a show held for a specific customer
+     *
+     * @param showId        the show identifier
+     * @param seatHoldId    the seat hold identifier
+     * @param customerEmail the email address of the customer to which the
+     *                      seat hold is assigned
+     * @return the reservation with its confirmation code, otherwise why the seats were not reserved
+     */
+    Reservation reserveSeats(String showId, int seatHoldId, String customerEmail);
+
+    /**
+     * Stops the workers of the catalog
+     */
+    void shutdown();
+}
@@ -0,0 +1,46 @@
+package com.ticket.service.interfaces;
+
+/**
+ * The changes made to a venue, in the order they were made
+ */
+public interface TicketEvents {
+    /**
+     * Seats were put on hold
+     *
+     * @param seatHoldId    the seat hold identifier
+     * @param customerEmail the email address of the customer
+     * @param expiresAt     wall clock time in milliseconds the hold expires at
+     * @param seatIds       ids of the seats on hold
+     */
+    void hold(int seatHoldId, String customerEmail, long expiresAt, int[] seatIds);
+
+    /**
+     * A hold was reserved
+     *
+     * @param seatHoldId the seat hold identifier
+     */
+    void reserve(int seatHoldId);
+
+    /**
+     * Part of the seats of a hold went back to the venue, the rest stay on hold
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param seatIds    ids of the seats that went back
+     */
+    void release(int seatHoldId, int[] seatIds);
+
+    /**
+     * The deadline of a hold was moved later
+     *
+     * @param seatHoldId the seat hold identifier
+     * @param expiresAt  wall clock time in milliseconds the hold now expires at
+     */
+    void extend(int seatHoldId, long expiresAt);
+
+    /**
+     * A hold expired and its seats went back to the venue
+     *
+     * @param seatHoldId the seat hold identifier
+     */
+    void expire(int seatHoldId);
+}
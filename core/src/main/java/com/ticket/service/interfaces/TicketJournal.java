@@ -0,0 +1,44 @@
+package com.ticket.service.interfaces;
+
+/**
+ * Append only log of the changes made to a venue
+ *
+ * Every hold, reservation, expiry, partial release and extension is appended as an event, so the holds and reservations
+ * of a venue can be rebuilt after a restart by replaying the events in order. Appending
+ * does not wait for the disk, flush does.
+ */
+public interface TicketJournal extends TicketEvents {
+    /**
+     * Waits until every event appended so far is durable
+     */
+    void flush();
+
+    /**
+     * Gets the position after the last event appended, where the next event will go
+     *
+     * @return the position
+     */
+    long position();
+
+    /**
+     * Replays every event of the journal in the order it was appended
+     *
+     * @param events receives the events
+     */
+    default void replay(TicketEvents events) {
+        replay(events, 0);
+    }
+
+    /**
+     * Replays the events of the journal appended from a position on
+     *
+     * @param events receives the events
+     * @param from a position returned by position(), 0 for the start of the journal
+     */
+    void replay(TicketEvents events, long from);
+
+    /**
+     * Flushes the journal and closes it
+     */
+    void close();
+}
@@ -0,0 +1,84 @@
+package com.ticket.service.interfaces;
+
+public interface TicketService {
+    /**
+     * The number of seats in the venue that are neither held nor reserved
+     *
+     * @return the number of tickets available in the venue
+     */
+    int numSeatsAvailable();
+
+    /**
+     * Find and hold the best available seats for a customer
+     *
+     * @param numSeats      the number of seats to find and hold
+     * @param customerEmail unique identifier for the customer
+     * @return a SeatHold object identifying the specific seats and related
+     * information
+     */
+    SeatHold findAndHoldSeats(int numSeats, String customerEmail);
+
+    /**
+     * Commit seats held for a specific customer
+     *
+     * @param seatHoldId    the seat hold identifier
+     * @param customerEmail the email address of the customer to which the
+     *                      seat hold is assigned
+     * @return the reservation with its confirmation code, otherwise why the seats were not reserved
+     */
+    Reservation reserveSeats(int seatHoldId, String customerEmail);
+
+    /**
+     * Find and hold the best available seats for a batch of customers
+     *
+     * Each request is handled as if findAndHoldSeats was called for it on its own, in the
+     * order of the batch. A request that can not be filled gets a hold with no seats and
+     * does not stop the rest of the batch.
+     *
+     * @param numSeats       the number of seats to find and hold for each request
+     * @param customerEmails unique identifier for the customer of each request
+     * @return the SeatHold of each request, in the order of the batch
+     * @throws RuntimeException if the arrays are not the same length
+     */
+    default SeatHold[] findAndHoldSeats(int[] numSeats, String[] customerEmails) throws RuntimeException {
+        checkBatch(numSeats.length, customerEmails.length);
+        SeatHold[] seatHolds = new SeatHold[numSeats.length];
+        for(int index = 0; index < numSeats.length; index++) {
+            seatHolds[index] = findAndHoldSeats(numSeats[index], customerEmails[index]);
+        }
+        return seatHolds;
+    }
+
+    /**
+     * Commit the seats of a batch of holds
+     *
+     * Each hold is reserved as if reserveSeats was called for it on its own, in the order
+     * of the batch, so one hold failing does not stop the rest of the batch.
+     *
+     * @param seatHoldIds    the seat hold identifiers
+     * @param customerEmails the email address of the customer of each hold
+     * @return the reservation of each hold, in the order of the batch
+     * @throws RuntimeException if the arrays are not the same length
+     */
+    default Reservation[] reserveSeats(int[] seatHoldIds, String[] customerEmails) throws RuntimeException {
+        checkBatch(seatHoldIds.length, customerEmails.length);
+        Reservation[] reservations = new Reservation[seatHoldIds.length];
+        for(int index = 0; index < seatHoldIds.length; index++) {
+            reservations[index] = reserveSeats(seatHoldIds[index], customerEmails[index]);
+        }
+        return reservations;
+    }
+
+    /**
+     * Checks that every request of a batch has a customer
+     *
+     * @param requests  number of requests in the batch
+     * @param customers number of customer emails in the batch
+     * @throws RuntimeException if they are not the same
+     */
+    static void checkBatch(int requests, int customers) throws RuntimeException {
+        if(requests != customers) {
+            throw new RuntimeException("Batch requests must be the same length!");
+        }
+    }
+}
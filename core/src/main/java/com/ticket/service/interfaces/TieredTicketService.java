@@ -0,0 +1,51 @@
+package com.ticket.service.interfaces;
+
+import java.util.List;
+import java.util.function.Predicate;
+
+public interface TieredTicketService extends TicketService {
+    /**
+     * Find and hold the best available seats for a customer in the price tiers they accept
+     *
+     * Only the tiers accepted are searched, so how many seats of the other tiers are sold
+     * makes no difference to the request, e.g. tier -> tier.getPrice() <= 5000 keeps the
+     * seats to the tiers under $50.
+     *
+     * @param numSeats      the number of seats to find and hold
+     * @param customerEmail unique identifier for the customer
+     * @param tiers         accepts the tiers the seats can come from
+     * @return a SeatHold object identifying the specific seats and related
+     * information, with no seats if the tiers accepted can not fill the request
+     */
+    SeatHold findAndHoldSeatsInTiers(int numSeats, String customerEmail, Predicate<PriceTier> tiers);
+
+    /**
+     * Gets the price tiers of the venue
+     *
+     * @return the tiers from the stage back
+     */
+    List<PriceTier> getPriceTiers();
+
+    /**
+     * The number of seats of a price tier that are neither held nor reserved
+     *
+     * @param tierName the name of the tier
+     * @return the number of tickets available in the tier
+     * @throws RuntimeException if the venue has no tier of that name
+     */
+    int numSeatsAvailable(String tierName) throws RuntimeException;
+
+    /**
+     * Gets a ticket service as one that sells by price tier
+     *
+     * @param ticketService the ticket service
+     * @return the same ticket service
+     * @throws UnsupportedOperationException if the service does not sell by price tier
+     */
+    static TieredTicketService of(TicketService ticketService) throws RuntimeException {
+        if(!(ticketService instanceof TieredTicketService)) {
+            throw new UnsupportedOperationException("Ticket service does not sell by price tier!");
+        }
+        return (TieredTicketService) ticketService;
+    }
+}
@@ -0,0 +1,623 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.ConcurrentTicketServiceImpl;
+import com.ticket.service.Impl.HashedWheelExpiryScheduler;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.SeatMap;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class ConcurrentTicketServiceTest {
+    private static final int THREADS = 8;
+
+    ConcurrentTicketServiceImpl ticketService;
+
+    @Before
+    public void setUp() throws RuntimeException {
+        //One sec hold expiration for testing
+        ticketService = TicketServiceFactory.createConcurrent(10, 10, 1);
+    }
+
+    @Test
+    public void testInvalidVenueSizes() throws RuntimeException {
+        try {
+            ticketService = TicketServiceFactory.createConcurrent(0, 10, 1);
+            fail("Ticket Service cant not have 0 rows");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Rows and Columns cannot be zero!");
+        }
+    }
+
+    @Test
+    public void testFindAndHoldSeats() throws Exception {
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+        SeatHold seatHold = ticketService.findAndHoldSeats(10, "123@gmail.com");
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 10);
+        assertEquals(ticketService.numSeatsAvailable(), 90);
+        assertEquals(seatHold.displaySeatsOnHold(), "A:1, A:2, A:3, A:4, A:5, A:6, A:7, A:8, A:9, A:10");
+        seatHold = ticketService.findAndHoldSeats(91, "123@gmail.com");
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 0);
+        Thread.sleep(2000);
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+    }
+
+    @Test
+    public void testGroupsSitTogether() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(10, "123@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "A:1, A:2, A:3, A:4, A:5, A:6, A:7, A:8, A:9, A:10");
+        seatHold = ticketService.findAndHoldSeats(7, "123@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "B:2, B:3, B:4, B:5, B:6, B:7, B:8");
+        //Only B:1, B:9 and B:10 are left in row B so the group moves back a row
+        seatHold = ticketService.findAndHoldSeats(3, "555@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "C:4, C:5, C:6");
+        seatHold = ticketService.findAndHoldSeats(2, "555@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "B:9, B:10");
+        seatHold = ticketService.findAndHoldSeats(1, "555@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "B:1");
+        assertEquals(ticketService.numSeatsAvailable(), 77);
+    }
+
+    @Test
+    public void testSplitWhenNoBlockFits() throws Exception {
+        ConcurrentTicketServiceImpl venue = TicketServiceFactory.createConcurrent(2, 4, 1);
+        assertEquals(venue.findAndHoldSeats(3, "123@gmail.com").displaySeatsOnHold(), "A:1, A:2, A:3");
+        assertEquals(venue.findAndHoldSeats(3, "123@gmail.com").displaySeatsOnHold(), "B:1, B:2, B:3");
+        assertEquals(venue.findAndHoldSeats(2, "123@gmail.com").displaySeatsOnHold(), "A:4, B:4");
+        assertEquals(venue.numSeatsAvailable(), 0);
+        Thread.sleep(2000);
+        assertEquals(venue.findAndHoldSeats(8, "123@gmail.com").getNumberOfSeatsOnHold(), 8);
+    }
+
+    @Test
+    public void testReserveSeats() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "123@gmail.com");
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "fake@gmail.com").toString(), "Customer Email either does not exist in our system or does not match up with hold Id.");
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).isReserved());
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).toString(), "Reservation code has already been given.");
+        assertEquals(ticketService.reserveSeats(123456, seatHold.getEmail()).toString(), "No hold found with ID of 123456");
+        Thread.sleep(2000);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+    }
+
+    @Test
+    public void testExpiredHoldsAreEvicted() throws Exception {
+        SeatHold expiredHold = ticketService.findAndHoldSeats(3, "123@gmail.com");
+        Thread.sleep(1500);
+        //Kept for as long as a hold lasts once it expired
+        assertEquals(ticketService.reserveSeats(expiredHold.getId(), "123@gmail.com").toString(), "The hold has expired for seats A:4, A:5, A:6");
+
+        SeatHold seatHold = ticketService.findAndHoldSeats(3, "123@gmail.com");
+        assertEquals(seatHold.getId(), expiredHold.getId() + 1);
+        Thread.sleep(1500);
+        assertEquals(ticketService.reserveSeats(expiredHold.getId(), "123@gmail.com").toString(), "No hold found with ID of " + expiredHold.getId());
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").toString(), "The hold has expired for seats A:4, A:5, A:6");
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+    }
+
+    @Test
+    public void testRetriedHoldsAreIdempotent() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(4, "123@gmail.com", "order-1");
+        SeatHold retried = ticketService.findAndHoldSeats(4, "123@gmail.com", "order-1");
+        assertSame(retried, seatHold);
+        assertEquals(ticketService.numSeatsAvailable(), 96);
+        assertEquals(ticketService.findAndHoldSeats(2, "123@gmail.com", "order-2").getNumberOfSeatsOnHold(), 2);
+        //The key belongs to the customer that used it
+        assertEquals(ticketService.findAndHoldSeats(4, "456@gmail.com", "order-1").getNumberOfSeatsOnHold(), 4);
+        assertEquals(ticketService.numSeatsAvailable(), 90);
+
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").isReserved());
+        assertSame(ticketService.findAndHoldSeats(4, "123@gmail.com", "order-1"), seatHold);
+        assertEquals(ticketService.findHolds("123@gmail.com").size(), 2);
+
+        //Once the other holds expired only the reservation is left, and a retry holds seats again
+        Thread.sleep(1500);
+        assertEquals(ticketService.findHolds("123@gmail.com"), Collections.singletonList(seatHold));
+        assertTrue(ticketService.findHolds("456@gmail.com").isEmpty());
+        assertEquals(ticketService.findAndHoldSeats(2, "123@gmail.com", "order-2").getNumberOfSeatsOnHold(), 2);
+    }
+
+    @Test
+    public void testConcurrentRetriesMakeOneHold() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<SeatHold>> retries = new ArrayList<>();
+            for(int retry = 0; retry < 50; retry++) {
+                retries.add(executor.submit(() -> ticketService.findAndHoldSeats(3, "123@gmail.com", "order-1")));
+            }
+            SeatHold seatHold = retries.get(0).get();
+            for(Future<SeatHold> retry : retries) {
+                assertSame(retry.get(), seatHold);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+    }
+
+    @Test
+    public void testSeatLimitPerCustomer() throws Exception {
+        ticketService = TicketServiceFactory.createConcurrent(10, 10, 1, 6);
+        SeatHold seatHold = ticketService.findAndHoldSeats(4, "123@gmail.com");
+        assertEquals(ticketService.findAndHoldSeats(3, "123@gmail.com").getNumberOfSeatsOnHold(), 0);
+        assertEquals(ticketService.findAndHoldSeats(2, "123@gmail.com").getNumberOfSeatsOnHold(), 2);
+        assertEquals(ticketService.findAndHoldSeats(6, "456@gmail.com").getNumberOfSeatsOnHold(), 6);
+        //Batches are held one request at a time against the limit
+        SeatHold[] seatHolds = ticketService.findAndHoldSeats(new int[]{1, 5}, new String[]{"123@gmail.com", "789@gmail.com"});
+        assertEquals(seatHolds[0].getNumberOfSeatsOnHold(), 0);
+        assertEquals(seatHolds[1].getNumberOfSeatsOnHold(), 5);
+
+        //Reserved seats count against the limit, expired ones do not
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").isReserved());
+        Thread.sleep(1500);
+        assertEquals(ticketService.findAndHoldSeats(3, "123@gmail.com").getNumberOfSeatsOnHold(), 0);
+        assertEquals(ticketService.findAndHoldSeats(2, "123@gmail.com").getNumberOfSeatsOnHold(), 2);
+    }
+
+    @Test
+    public void testReleasePartOfAHold() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(4, "123@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "A:4, A:5, A:6, A:7");
+        int[] seatIds = seatHold.getSeatIds();
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "456@gmail.com", new int[] {seatIds[0]}));
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {99}));
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {seatIds[0], seatIds[0]}));
+
+        assertTrue(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {seatIds[3]}));
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 3);
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").toString().endsWith("for seats: A:4, A:5, A:6"));
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {seatIds[0]}));
+
+        //Giving back every seat releases the hold
+        SeatHold otherHold = ticketService.findAndHoldSeats(2, "456@gmail.com");
+        assertTrue(ticketService.releaseSeats(otherHold.getId(), "456@gmail.com", otherHold.getSeatIds()));
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+        assertEquals(ticketService.reserveSeats(otherHold.getId(), "456@gmail.com").getStatus(), Reservation.Status.EXPIRED);
+        assertTrue(ticketService.findHolds("456@gmail.com").isEmpty());
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+    }
+
+    @Test
+    public void testExtendHold() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "123@gmail.com");
+        SeatHold otherHold = ticketService.findAndHoldSeats(5, "456@gmail.com");
+        assertFalse(ticketService.extendHold(seatHold.getId(), "456@gmail.com", 2000));
+        assertTrue(ticketService.extendHold(seatHold.getId(), "123@gmail.com", 1000));
+        assertTrue(ticketService.extendHold(seatHold.getId(), "123@gmail.com", 1000));
+        assertTrue(seatHold.holdTimeRemaining() > 2000);
+
+        //Only the hold that was not extended expires at the first deadline
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+        assertFalse(ticketService.extendHold(otherHold.getId(), "456@gmail.com", 1000));
+        Thread.sleep(2000);
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+        try {
+            ticketService.extendHold(seatHold.getId(), "123@gmail.com", 0);
+            fail("Extension must be positive");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Extension must be positive!");
+        }
+    }
+
+    @Test
+    public void testBatchHoldAndReserve() throws Exception {
+        SeatHold[] seatHolds = ticketService.findAndHoldSeats(new int[]{10, 7, 90}, new String[]{"123@gmail.com", "456@gmail.com", "789@gmail.com"});
+        assertEquals(seatHolds[0].displaySeatsOnHold(), "A:1, A:2, A:3, A:4, A:5, A:6, A:7, A:8, A:9, A:10");
+        assertEquals(seatHolds[1].displaySeatsOnHold(), "B:2, B:3, B:4, B:5, B:6, B:7, B:8");
+        //The last request can not be filled, the rest of the batch still holds its seats
+        assertEquals(seatHolds[2].getNumberOfSeatsOnHold(), 0);
+        assertEquals(ticketService.numSeatsAvailable(), 83);
+
+        Reservation[] reservations = ticketService.reserveSeats(new int[]{seatHolds[0].getId(), seatHolds[1].getId(), 123456}, new String[]{"123@gmail.com", "123@gmail.com", "123@gmail.com"});
+        assertTrue(reservations[0].isReserved());
+        assertEquals(reservations[1].getStatus(), Reservation.Status.EMAIL_MISMATCH);
+        assertEquals(reservations[2].getStatus(), Reservation.Status.NOT_FOUND);
+
+        //The holds of the batch expire together, the reserved one keeps its seats
+        Thread.sleep(2000);
+        assertEquals(ticketService.numSeatsAvailable(), 90);
+
+        try {
+            ticketService.findAndHoldSeats(new int[]{1, 2}, new String[]{"123@gmail.com"});
+            fail("Every request of a batch needs a customer");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Batch requests must be the same length!");
+        }
+    }
+
+    @Test
+    public void testConcurrentHoldsNeverShareASeat() throws Exception {
+        final ConcurrentTicketServiceImpl venue = TicketServiceFactory.createConcurrent(20, 26, 60);
+        final Queue<SeatHold> holds = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                Random random = new Random();
+                while(venue.numSeatsAvailable() > 0) {
+                    SeatHold seatHold = venue.findAndHoldSeats(1 + random.nextInt(8), "123@gmail.com");
+                    if(seatHold.getNumberOfSeatsOnHold() > 0) {
+                        holds.add(seatHold);
+                    }
+                }
+                return null;
+            }
+        });
+
+        Set<String> heldSeats = new HashSet<>();
+        int numberOfSeatsOnHold = 0;
+        for(SeatHold seatHold : holds) {
+            for(String seat : seatsOf(seatHold)) {
+                assertTrue("Seat " + seat + " was held twice", heldSeats.add(seat));
+            }
+            numberOfSeatsOnHold += seatHold.getNumberOfSeatsOnHold();
+        }
+        assertEquals(numberOfSeatsOnHold, 20 * 26);
+        assertEquals(heldSeats.size(), 20 * 26);
+        assertEquals(venue.numSeatsAvailable(), 0);
+    }
+
+    @Test
+    public void testConcurrentReservesWhileHoldsExpire() throws Exception {
+        final ConcurrentTicketServiceImpl venue = TicketServiceFactory.createConcurrent(20, 26, 1);
+        final Queue<SeatHold> reserved = new ConcurrentLinkedQueue<>();
+        final long end = System.currentTimeMillis() + 3000;
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                Random random = new Random();
+                while(System.currentTimeMillis() < end) {
+                    SeatHold seatHold = venue.findAndHoldSeats(1 + random.nextInt(4), "123@gmail.com");
+                    //Reserves about one hold out of ten, the rest expire back to the venue
+                    if(seatHold.getNumberOfSeatsOnHold() > 0 && random.nextInt(10) == 0
+                            && venue.reserveSeats(seatHold.getId(), "123@gmail.com").isReserved()) {
+                        reserved.add(seatHold);
+                    }
+                }
+                return null;
+            }
+        });
+
+        Set<String> reservedSeats = new HashSet<>();
+        for(SeatHold seatHold : reserved) {
+            for(String seat : seatsOf(seatHold)) {
+                assertTrue("Seat " + seat + " was sold twice", reservedSeats.add(seat));
+            }
+        }
+        Thread.sleep(2000);
+        assertEquals(venue.numSeatsAvailable(), 20 * 26 - reservedSeats.size());
+    }
+
+    @Test
+    public void testReservationDetails() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(3, "123@gmail.com");
+        Reservation reservation = ticketService.reserveSeats(seatHold.getId(), "123@gmail.com");
+        assertEquals(reservation.getStatus(), Reservation.Status.RESERVED);
+        assertEquals(reservation.getSeatHoldId(), seatHold.getId());
+        assertEquals(reservation.getCustomerEmail(), "123@gmail.com");
+        assertArrayEquals(reservation.getSeatIds(), seatHold.getSeatIds());
+        assertTrue(reservation.getCode().matches("[0-9A-HJKMNP-TV-Z]{26}"));
+        assertEquals(reservation.toString(), "Reservation code is " + reservation.getCode() + " for 123@gmail.com for seats: A:4, A:5, A:6");
+
+        Reservation again = ticketService.reserveSeats(seatHold.getId(), "123@gmail.com");
+        assertEquals(again.getStatus(), Reservation.Status.ALREADY_RESERVED);
+        assertNull(again.getCode());
+        Reservation missing = ticketService.reserveSeats(123456, "123@gmail.com");
+        assertEquals(missing.getStatus(), Reservation.Status.NOT_FOUND);
+        assertEquals(missing.getSeatIds().length, 0);
+    }
+
+    @Test
+    public void testConfirmationCodesAreUnique() throws Exception {
+        final ConcurrentTicketServiceImpl venue = TicketServiceFactory.createConcurrent(40, 50, 60);
+        final Set<String> codes = ConcurrentHashMap.newKeySet();
+
+        runConcurrently(new Callable<Void>() {
+            @Override
+            public Void call() throws Exception {
+                for(int index = 0; index < 250; index++) {
+                    SeatHold seatHold = venue.findAndHoldSeats(1, "123@gmail.com");
+                    Reservation reservation = venue.reserveSeats(seatHold.getId(), "123@gmail.com");
+                    assertTrue(reservation.isReserved());
+                    assertTrue("Code " + reservation.getCode() + " was given twice", codes.add(reservation.getCode()));
+                }
+                return null;
+            }
+        });
+        assertEquals(codes.size(), THREADS * 250);
+    }
+
+    @Test
+    public void testSeatMap() throws Exception {
+        SeatMap empty = ticketService.getSeatMap();
+        assertEquals(empty.getRows(), 10);
+        assertEquals(empty.getCols(), 10);
+        assertEquals(empty.getSeatsAvailable(), 100);
+        assertSame(ticketService.getSeatMap(), empty);
+
+        SeatHold reserved = ticketService.findAndHoldSeats(3, "123@gmail.com");
+        SeatHold expiring = ticketService.findAndHoldSeats(2, "456@gmail.com");
+        ticketService.reserveSeats(reserved.getId(), "123@gmail.com");
+        SeatMap seatMap = ticketService.getSeatMap();
+        assertTrue(seatMap.getVersion() > empty.getVersion());
+        assertEquals(seatMap.getSeatsAvailable(), 95);
+        for(int seatId : reserved.getSeatIds()) {
+            assertEquals(seatMap.getStatus(seatId), SeatMap.Status.RESERVED);
+        }
+        for(int seatId : expiring.getSeatIds()) {
+            assertEquals(seatMap.getStatus(seatId), SeatMap.Status.HELD);
+        }
+        assertEquals(seatMap.getStatus(99), SeatMap.Status.AVAILABLE);
+        assertArrayEquals(seatMap.changedRows(empty), new int[] {0});
+        assertEquals(seatMap.changedRows(null).length, 10);
+        assertEquals(empty.getStatus(reserved.getSeatIds()[0]), SeatMap.Status.AVAILABLE);
+
+        Thread.sleep(1500);
+        SeatMap expired = ticketService.getSeatMap();
+        assertEquals(expired.getSeatsAvailable(), 97);
+        for(int seatId : expiring.getSeatIds()) {
+            assertEquals(expired.getStatus(seatId), SeatMap.Status.AVAILABLE);
+        }
+        try {
+            expired.getStatus(100);
+            fail("Seat 100 is not in a venue of 100 seats");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Seat is not in the venue!");
+        }
+    }
+
+    @Test
+    public void testSeatMapReadWhileSeatsAreSold() throws Exception {
+        final ConcurrentTicketServiceImpl venue = TicketServiceFactory.createConcurrent(50, 50, 60);
+        final AtomicInteger sellers = new AtomicInteger(THREADS / 2);
+
+        runConcurrently(new Callable<Void>() {
+            private final AtomicInteger roles = new AtomicInteger();
+
+            @Override
+            public Void call() throws Exception {
+                if(roles.getAndIncrement() % 2 == 0) {
+                    for(int index = 0; index < 200; index++) {
+                        SeatHold seatHold = venue.findAndHoldSeats(1 + index % 4, "123@gmail.com");
+                        assertTrue(venue.reserveSeats(seatHold.getId(), "123@gmail.com").isReserved());
+                    }
+                    sellers.decrementAndGet();
+                    return null;
+                }
+                //A seat once sold stays sold on every later map, and the map never goes back a version
+                SeatMap last = venue.getSeatMap();
+                while(sellers.get() > 0) {
+                    SeatMap seatMap = venue.getSeatMap();
+                    assertTrue(seatMap.getVersion() >= last.getVersion());
+                    for(int row : seatMap.changedRows(last)) {
+                        for(int seatId = row * 50; seatId < (row + 1) * 50; seatId++) {
+                            if(last.getStatus(seatId) == SeatMap.Status.RESERVED) {
+                                assertEquals(seatMap.getStatus(seatId), SeatMap.Status.RESERVED);
+                            }
+                        }
+                    }
+                    last = seatMap;
+                }
+                return null;
+            }
+        });
+        SeatMap seatMap = venue.getSeatMap();
+        assertEquals(seatMap.getSeatsAvailable(), venue.numSeatsAvailable());
+        assertEquals(seatMap.getSeatsAvailable(), 2500 - THREADS / 2 * 500);
+    }
+
+    @Test
+    public void testSeatMapShowsWholeHolds() throws Exception {
+        final ConcurrentTicketServiceImpl venue = TicketServiceFactory.createConcurrent(10, 10, 60);
+        final AtomicInteger sellers = new AtomicInteger(THREADS / 2);
+
+        runConcurrently(new Callable<Void>() {
+            private final AtomicInteger roles = new AtomicInteger();
+
+            @Override
+            public Void call() throws Exception {
+                if(roles.getAndIncrement() % 2 == 0) {
+                    //Holds of 25 seats span three rows of 10
+                    for(int index = 0; index < 500; index++) {
+                        SeatHold seatHold = venue.findAndHoldSeats(25, "123@gmail.com");
+                        assertTrue(venue.releaseSeats(seatHold.getId(), "123@gmail.com", seatHold.getSeatIds()));
+                    }
+                    sellers.decrementAndGet();
+                    return null;
+                }
+                //A map never shows part of a hold
+                while(sellers.get() > 0) {
+                    assertEquals((100 - venue.getSeatMap().getSeatsAvailable()) % 25, 0);
+                }
+                return null;
+            }
+        });
+        assertEquals(venue.getSeatMap().getSeatsAvailable(), 100);
+    }
+
+    @Test(timeout = 60000)
+    public void testSeatMapKeepsUpWithBusyWriters() throws Exception {
+        final ConcurrentTicketServiceImpl venue = TicketServiceFactory.createConcurrent(10, 10, 60);
+        final AtomicInteger readers = new AtomicInteger(THREADS / 4);
+
+        runConcurrently(new Callable<Void>() {
+            private final AtomicInteger roles = new AtomicInteger();
+
+            @Override
+            public Void call() throws Exception {
+                if(roles.getAndIncrement() % 4 != 0) {
+                    //Writers hold and give back blocks of 4 for as long as the readers read
+                    while(readers.get() > 0) {
+                        SeatHold seatHold = venue.findAndHoldSeats(4, "123@gmail.com");
+                        assertTrue(venue.releaseSeats(seatHold.getId(), "123@gmail.com", seatHold.getSeatIds()));
+                    }
+                    return null;
+                }
+                //Every reader gets its maps however busy the writers keep the rows
+                SeatMap last = venue.getSeatMap();
+                for(int read = 0; read < 2000; read++) {
+                    SeatMap seatMap = venue.getSeatMap();
+                    assertTrue(seatMap.getVersion() >= last.getVersion());
+                    assertEquals((100 - seatMap.getSeatsAvailable()) % 4, 0);
+                    last = seatMap;
+                }
+                readers.decrementAndGet();
+                return null;
+            }
+        });
+        assertEquals(venue.getSeatMap().getSeatsAvailable(), 100);
+    }
+
+    @Test
+    public void testExpiredHoldsReleasedTogether() throws Exception {
+        //The wheel hands the expired tasks to the test instead of running them
+        List<Runnable> expired = new CopyOnWriteArrayList<>();
+        HashedWheelExpiryScheduler scheduler = new HashedWheelExpiryScheduler(10, 64, expired::add);
+        try {
+            ticketService = TicketServiceFactory.createConcurrent(10, 10, 1, scheduler);
+            for(int index = 0; index < 20; index++) {
+                assertEquals(ticketService.findAndHoldSeats(2, index + "@gmail.com").getNumberOfSeatsOnHold(), 2);
+            }
+            waitFor(expired, 20);
+            for(Runnable holdExpires : expired) {
+                holdExpires.run();
+            }
+            //Every hold expired but the seats and the holds of the customers only go back with the release of the batch
+            assertEquals(ticketService.getSeatMap().getSeatsAvailable(), 60);
+            assertEquals(ticketService.findHolds("0@gmail.com").size(), 1);
+            //The count already has them, and reading it gives nothing back
+            assertEquals(ticketService.numSeatsAvailable(), 100);
+            assertEquals(ticketService.numSeatsAvailable("General"), 100);
+            assertEquals(ticketService.getSeatMap().getSeatsAvailable(), 60);
+
+            waitFor(expired, 21);
+            expired.get(20).run();
+            assertEquals(ticketService.getSeatMap().getSeatsAvailable(), 100);
+            assertTrue(ticketService.findHolds("0@gmail.com").isEmpty());
+            assertEquals(ticketService.numSeatsAvailable(), 100);
+            SeatHold seatHold = ticketService.findAndHoldSeats(10, "123@gmail.com");
+            assertEquals(seatHold.displaySeatsOnHold(), "A:1, A:2, A:3, A:4, A:5, A:6, A:7, A:8, A:9, A:10");
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testBatchExpiryCountsOnlyHoldsWithSeats() throws Exception {
+        final HashedWheelExpiryScheduler wheel = new HashedWheelExpiryScheduler();
+        final AtomicInteger expiries = new AtomicInteger();
+        ExpiryScheduler scheduler = new ExpiryScheduler() {
+            @Override
+            public Timeout schedule(Runnable task, long delay) {
+                return wheel.schedule(task, delay);
+            }
+
+            @Override
+            public void expired(long lagNanos) {
+                expiries.incrementAndGet();
+            }
+
+            @Override
+            public void shutdown() {
+                wheel.shutdown();
+            }
+        };
+        try {
+            ticketService = TicketServiceFactory.createConcurrent(10, 10, 1, scheduler);
+            SeatHold[] seatHolds = ticketService.findAndHoldSeats(new int[]{2, 200, 0, 3}, new String[]{"123@gmail.com", "456@gmail.com", "789@gmail.com", "012@gmail.com"});
+            assertEquals(seatHolds[1].getNumberOfSeatsOnHold(), 0);
+            for(int wait = 0; wait < 300 && ticketService.numSeatsAvailable() < 100; wait++) {
+                Thread.sleep(10);
+            }
+            assertEquals(ticketService.numSeatsAvailable(), 100);
+            assertEquals(expiries.get(), 2);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    @Test
+    public void testExpiredSeatsOutlastARefusedRelease() throws Exception {
+        List<Runnable> expired = new CopyOnWriteArrayList<>();
+        final HashedWheelExpiryScheduler wheel = new HashedWheelExpiryScheduler(10, 64, expired::add);
+        final AtomicBoolean refuse = new AtomicBoolean(true);
+        //Refuses the first release it is handed
+        ExpiryScheduler scheduler = new ExpiryScheduler() {
+            @Override
+            public Timeout schedule(Runnable task, long delay) {
+                return wheel.schedule(task, delay);
+            }
+
+            @Override
+            public void execute(Runnable task) {
+                if(refuse.getAndSet(false)) {
+                    throw new RejectedExecutionException("Scheduler is full!");
+                }
+                wheel.execute(task);
+            }
+
+            @Override
+            public void shutdown() {
+                wheel.shutdown();
+            }
+        };
+        try {
+            ticketService = TicketServiceFactory.createConcurrent(10, 10, 1, scheduler);
+            ticketService.findAndHoldSeats(2, "123@gmail.com");
+            ticketService.findAndHoldSeats(2, "456@gmail.com");
+            waitFor(expired, 2);
+            try {
+                expired.get(0).run();
+                fail("The release was refused");
+            } catch (RejectedExecutionException e) {
+                assertEquals(e.getMessage(), "Scheduler is full!");
+            }
+
+            //The next hold that expires hands over the release for both
+            expired.get(1).run();
+            waitFor(expired, 3);
+            expired.get(2).run();
+            assertEquals(ticketService.getSeatMap().getSeatsAvailable(), 100);
+        } finally {
+            scheduler.shutdown();
+        }
+    }
+
+    private static void waitFor(List<Runnable> expired, int tasks) throws InterruptedException {
+        for(int wait = 0; wait < 300 && expired.size() < tasks; wait++) {
+            Thread.sleep(10);
+        }
+        assertEquals(expired.size(), tasks);
+    }
+
+    /**
+     * Runs the task on all the test threads at once and waits for them to finish
+     */
+    private static void runConcurrently(Callable<Void> task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<Void>> futures = executor.invokeAll(Collections.nCopies(THREADS, task));
+            for(Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static List<String> seatsOf(SeatHold seatHold) {
+        return Arrays.asList(seatHold.displaySeatsOnHold().split(", "));
+    }
+}
@@ -0,0 +1,148 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.EventLoopTicketService;
+import com.ticket.service.interfaces.AsyncTicketService;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.junit.Assert.*;
+
+public class EventLoopTicketServiceTest {
+    AsyncTicketService ticketService;
+
+    @Before
+    public void setUp() throws RuntimeException {
+        //One sec hold expiration for testing
+        ticketService = TicketServiceFactory.createEventLoop(10, 10, 1);
+    }
+
+    @After
+    public void tearDown() {
+        ticketService.shutdown();
+    }
+
+    @Test
+    public void testFindAndHoldSeats() throws Exception {
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+        SeatHold seatHold = ticketService.findAndHoldSeats(10, "123@gmail.com").get();
+        assertEquals(seatHold.displaySeatsOnHold(), "A:1, A:2, A:3, A:4, A:5, A:6, A:7, A:8, A:9, A:10");
+        assertEquals(ticketService.numSeatsAvailable(), 90);
+        seatHold = ticketService.findAndHoldSeats(7, "123@gmail.com").get();
+        assertEquals(seatHold.displaySeatsOnHold(), "B:2, B:3, B:4, B:5, B:6, B:7, B:8");
+        seatHold = ticketService.findAndHoldSeats(84, "123@gmail.com").get();
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 0);
+        assertEquals(ticketService.numSeatsAvailable(), 83);
+        //Expired holds are released by the writer loop
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+    }
+
+    @Test
+    public void testReserveSeats() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "123@gmail.com").get();
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "fake@gmail.com").get().toString(), "Customer Email either does not exist in our system or does not match up with hold Id.");
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).get().isReserved());
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).get().toString(), "Reservation code has already been given.");
+        assertEquals(ticketService.reserveSeats(123456, seatHold.getEmail()).get().toString(), "No hold found with ID of 123456");
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+    }
+
+    @Test
+    public void testBatchHoldAndReserve() throws Exception {
+        SeatHold[] seatHolds = ticketService.findAndHoldSeats(new int[]{10, 95, 5}, new String[]{"123@gmail.com", "456@gmail.com", "789@gmail.com"}).get();
+        assertEquals(seatHolds[0].getNumberOfSeatsOnHold(), 10);
+        assertEquals(seatHolds[1].getNumberOfSeatsOnHold(), 0);
+        assertEquals(seatHolds[2].displaySeatsOnHold(), "B:3, B:4, B:5, B:6, B:7");
+        assertEquals(ticketService.numSeatsAvailable(), 85);
+
+        Reservation[] reservations = ticketService.reserveSeats(new int[]{seatHolds[2].getId(), seatHolds[2].getId()}, new String[]{"789@gmail.com", "789@gmail.com"}).get();
+        assertTrue(reservations[0].isReserved());
+        assertEquals(reservations[1].getStatus(), Reservation.Status.ALREADY_RESERVED);
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+    }
+
+    @Test
+    public void testManyProducersThroughASmallRing() throws Exception {
+        final AsyncTicketService venue = new EventLoopTicketService(20, 26, 60, 8);
+        final Queue<Future<SeatHold>> holds = new ConcurrentLinkedQueue<>();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> producers = new ArrayList<>();
+            for(int producer = 0; producer < 8; producer++) {
+                producers.add(executor.submit(() -> {
+                    for(int hold = 0; hold < 100; hold++) {
+                        holds.add(venue.findAndHoldSeats(1, "123@gmail.com"));
+                    }
+                }));
+            }
+            for(Future<?> producer : producers) {
+                producer.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Set<String> heldSeats = new HashSet<>();
+        int numberOfSeatsOnHold = 0;
+        for(Future<SeatHold> future : holds) {
+            SeatHold seatHold = future.get(5, TimeUnit.SECONDS);
+            if(seatHold.getNumberOfSeatsOnHold() > 0) {
+                assertTrue("Seat was held twice", heldSeats.add(seatHold.displaySeatsOnHold()));
+                numberOfSeatsOnHold++;
+            }
+        }
+        assertEquals(numberOfSeatsOnHold, 20 * 26);
+        assertEquals(venue.numSeatsAvailable(), 0);
+        venue.shutdown();
+    }
+
+    @Test
+    public void testShutdown() throws Exception {
+        ticketService.shutdown();
+        try {
+            ticketService.findAndHoldSeats(1, "123@gmail.com").get();
+            fail("Service is shut down");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "Ticket service has been shut down!");
+        }
+    }
+
+    @Test
+    public void testRequestsRacingShutdownAreAnswered() throws Exception {
+        AsyncTicketService venue = TicketServiceFactory.createEventLoop(100, 100, 60);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<CompletableFuture<SeatHold>>>> threads = new ArrayList<>();
+            for(int thread = 0; thread < 4; thread++) {
+                threads.add(executor.submit(() -> {
+                    List<CompletableFuture<SeatHold>> futures = new ArrayList<>();
+                    for(int index = 0; index < 2000; index++) {
+                        futures.add(venue.findAndHoldSeats(1, "123@gmail.com"));
+                    }
+                    return futures;
+                }));
+            }
+            venue.shutdown();
+            //Every request is either answered or failed, none is left waiting
+            for(Future<List<CompletableFuture<SeatHold>>> thread : threads) {
+                for(CompletableFuture<SeatHold> future : thread.get()) {
+                    try {
+                        future.get(5, TimeUnit.SECONDS);
+                    } catch (ExecutionException e) {
+                        assertEquals(e.getCause().getMessage(), "Ticket service has been shut down!");
+                    }
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
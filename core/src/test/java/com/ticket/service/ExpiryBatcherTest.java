@@ -0,0 +1,68 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.ExpiryBatcher;
+import com.ticket.service.Impl.HashedWheelExpiryScheduler;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ExpiryBatcherTest {
+    HashedWheelExpiryScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        //The wheel keeps the releases to itself, the test runs them
+        scheduler = new HashedWheelExpiryScheduler(10, 64, task -> { });
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testFailedReleaseGivesEveryHoldBackOnce() {
+        List<Integer> returned = new ArrayList<>();
+        boolean[] fail = {true};
+        ExpiryBatcher<Hold> batcher = new ExpiryBatcher<>(scheduler, holds -> {
+            for(Hold hold : holds) {
+                if(hold.markReturned()) {
+                    //Fails partway through the chunk, after the first hold is back
+                    if(hold.seats == 2 && fail[0]) {
+                        fail[0] = false;
+                        throw new IllegalStateException("Row is corrupt!");
+                    }
+                    returned.add(hold.seats);
+                }
+            }
+        });
+        for(int seats = 1; seats <= 3; seats++) {
+            batcher.add(new Hold(seats));
+        }
+        try {
+            batcher.release();
+            fail("The releaser failed");
+        } catch (IllegalStateException e) {
+            assertEquals(e.getMessage(), "Row is corrupt!");
+        }
+        assertFalse(batcher.isEmpty());
+
+        //Only the hold the releaser never took is given back again
+        batcher.release();
+        assertTrue(batcher.isEmpty());
+        assertEquals(returned.toString(), "[1, 3]");
+    }
+
+    private static final class Hold extends ExpiryBatcher.Expired {
+        private final int seats;
+
+        Hold(int seats) {
+            this.seats = seats;
+        }
+    }
+}
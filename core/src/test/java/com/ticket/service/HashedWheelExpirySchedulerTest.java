@@ -0,0 +1,121 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.HashedWheelExpiryScheduler;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class HashedWheelExpirySchedulerTest {
+    private static final long TICK = 10; //Milliseconds of a tick of the wheel
+    private static final int WHEEL = 8; //Buckets of the wheel
+    private ExpiryScheduler scheduler;
+
+    @Before
+    public void setUp() {
+        //Small wheel so the timeouts below need several rounds
+        scheduler = new HashedWheelExpiryScheduler(TICK, WHEEL, null);
+    }
+
+    @After
+    public void tearDown() {
+        scheduler.shutdown();
+    }
+
+    @Test
+    public void testInvalidWheel() {
+        try {
+            new HashedWheelExpiryScheduler(0, 8, null);
+            fail("Scheduler can not have a 0 tick");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Tick and wheel size must be positive!");
+        }
+    }
+
+    @Test
+    public void testExpiresWithinOneTick() throws Exception {
+        //Lets the wheel thread start and go round the whole wheel before anything is timed
+        for(int warmUp = 0; warmUp < WHEEL * 2; warmUp++) {
+            final CountDownLatch ticked = new CountDownLatch(1);
+            scheduler.schedule(ticked::countDown, TICK);
+            assertTrue(ticked.await(2, TimeUnit.SECONDS));
+        }
+
+        final CountDownLatch latch = new CountDownLatch(1);
+        final long[] expiredAt = new long[1];
+        long start = System.nanoTime();
+        ExpiryScheduler.Timeout timeout = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                expiredAt[0] = System.nanoTime();
+                latch.countDown();
+            }
+        }, 200);
+        assertTrue(latch.await(2, TimeUnit.SECONDS));
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(expiredAt[0] - start);
+        assertTrue("Expired early after " + elapsed, elapsed >= 200);
+        //One tick late at most, with a turn of the wheel to spare for the machine
+        assertTrue("Expired late after " + elapsed, elapsed < 200 + TICK + TICK * WHEEL);
+        assertTrue(timeout.isExpired());
+        assertFalse(timeout.cancel());
+    }
+
+    @Test
+    public void testCancel() throws Exception {
+        final AtomicInteger expired = new AtomicInteger();
+        ExpiryScheduler.Timeout timeout = scheduler.schedule(new Runnable() {
+            @Override
+            public void run() {
+                expired.incrementAndGet();
+            }
+        }, 50);
+        assertTrue(timeout.cancel());
+        assertFalse(timeout.cancel());
+        assertTrue(timeout.isCancelled());
+        Thread.sleep(200);
+        assertEquals(expired.get(), 0);
+        assertFalse(timeout.isExpired());
+    }
+
+    @Test
+    public void testManyTimeouts() throws Exception {
+        final int count = 100000;
+        final CountDownLatch latch = new CountDownLatch(count / 2);
+        Runnable task = new Runnable() {
+            @Override
+            public void run() {
+                latch.countDown();
+            }
+        };
+        for(int i = 0; i < count; i++) {
+            ExpiryScheduler.Timeout timeout = scheduler.schedule(task, i % 500);
+            //Cancels every other timeout the way a reservation would
+            if(i % 2 == 1) {
+                timeout.cancel();
+            }
+        }
+        assertTrue(latch.await(5, TimeUnit.SECONDS));
+        Thread.sleep(100);
+        assertEquals(latch.getCount(), 0);
+    }
+
+    @Test
+    public void testReserveCancelsHoldExpiry() throws Exception {
+        TicketService ticketService = TicketServiceFactory.create(10, 10, 1, scheduler);
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "123@gmail.com");
+        assertTrue(seatHold.markReserved());
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+        seatHold = ticketService.findAndHoldSeats(5, "123@gmail.com");
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+    }
+}
@@ -0,0 +1,53 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.LoadGenerator;
+import com.ticket.service.Impl.LoadReport;
+import com.ticket.service.interfaces.TicketService;
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class LoadGeneratorTest {
+    @Test
+    public void testOnSaleKeepsInventoryConsistent() throws Exception {
+        //One sec hold expiration for testing
+        TicketService ticketService = TicketServiceFactory.createConcurrent(10, 10, 1);
+        LoadGenerator loadGenerator = new LoadGenerator(4, 2000, new int[]{4, 3, 2, 1}, 0.5, 1000);
+        LoadReport report = loadGenerator.run(ticketService, 5000);
+
+        assertTrue(report.toString(), report.isConsistent());
+        assertEquals(report.getOversold(), 0);
+        assertEquals(report.getHolds() + report.getFailedHolds(), report.getArrivals());
+        assertEquals(report.getReservations() + report.getFailedReservations() + report.getAbandoned(), report.getHolds());
+        assertTrue(report.getReservations() > 0);
+        assertTrue(report.getAbandoned() > 0);
+        assertEquals(report.getSeatsAvailable(), 100 - report.getSeatsReserved());
+        assertEquals(report.getHoldLatency().getCount(), report.getArrivals());
+    }
+
+    @Test
+    public void testSynchronizedServiceUnderLoad() throws Exception {
+        TicketService ticketService = TicketServiceFactory.create(5, 20, 1);
+        LoadReport report = new LoadGenerator(4, 1000, new int[]{1, 1}, 1, 500).run(ticketService, 5000);
+
+        assertTrue(report.toString(), report.isConsistent());
+        assertEquals(report.getAbandoned(), 0);
+        assertEquals(report.getSeatsAvailable(), 100 - report.getSeatsReserved());
+    }
+
+    @Test
+    public void testVenueWithALawnIsNotOversold() throws Exception {
+        //Rows past the lettered ones all show up as Lawn, so only the seat ids tell the seats apart
+        TicketService ticketService = TicketServiceFactory.createConcurrent(30, 10, 1);
+        LoadReport report = new LoadGenerator(4, 2000, new int[]{1, 1}, 1, 500).run(ticketService, 5000);
+
+        assertTrue(report.toString(), report.isConsistent());
+        assertEquals(report.getSeatsReserved(), 300);
+        assertEquals(report.getOversold(), 0);
+    }
+
+    @Test(expected = RuntimeException.class)
+    public void testPartySizesNeedAWeight() {
+        new LoadGenerator(1, 100, new int[]{0, 0}, 0.5, 1000);
+    }
+}
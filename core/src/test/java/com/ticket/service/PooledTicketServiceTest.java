@@ -0,0 +1,106 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.PooledTicketService;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.Assert.*;
+
+public class PooledTicketServiceTest {
+    TicketService ticketService;
+
+    @Before
+    public void setUp() throws RuntimeException {
+        //One sec hold expiration for testing
+        ticketService = TicketServiceFactory.createPooled(10, 10, 1);
+    }
+
+    @Test
+    public void testHoldAndReserve() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(4, "123@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "A:4, A:5, A:6, A:7");
+        assertEquals(ticketService.numSeatsAvailable(), 96);
+        assertEquals(ticketService.findAndHoldSeats(101, "123@gmail.com").getNumberOfSeatsOnHold(), 0);
+
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "456@gmail.com").getStatus(), Reservation.Status.EMAIL_MISMATCH);
+        Reservation reservation = ticketService.reserveSeats(seatHold.getId(), "123@gmail.com");
+        assertTrue(reservation.isReserved());
+        assertEquals(reservation.getCode().length(), 26);
+        assertArrayEquals(reservation.getSeatIds(), seatHold.getSeatIds());
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").getStatus(), Reservation.Status.ALREADY_RESERVED);
+        assertEquals(ticketService.reserveSeats(seatHold.getId() + 1, "123@gmail.com").getStatus(), Reservation.Status.NOT_FOUND);
+    }
+
+    @Test
+    public void testExpiredHoldsGoBackToThePool() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(2, "123@gmail.com");
+        int expiredId = seatHold.getId();
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+        assertEquals(ticketService.reserveSeats(expiredId, "123@gmail.com").getStatus(), Reservation.Status.EXPIRED);
+
+        //The record of the expired hold is used again, so the old id and the old hold find no seats
+        SeatHold recycled = ticketService.findAndHoldSeats(3, "456@gmail.com");
+        assertNotEquals(recycled.getId(), expiredId);
+        assertEquals(ticketService.reserveSeats(expiredId, "123@gmail.com").getStatus(), Reservation.Status.NOT_FOUND);
+        assertEquals(seatHold.getId(), expiredId);
+        assertEquals(seatHold.getEmail(), "123@gmail.com");
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 0);
+        assertEquals(seatHold.getSeatIds().length, 0);
+        assertEquals(seatHold.displaySeatsOnHold(), "");
+        assertFalse(seatHold.markReserved());
+        assertEquals(recycled.getNumberOfSeatsOnHold(), 3);
+
+        //A reserved record is never used again, so its reservation keeps its seats
+        Reservation reservation = ticketService.reserveSeats(recycled.getId(), "456@gmail.com");
+        assertTrue(reservation.isReserved());
+        Thread.sleep(1500);
+        assertEquals(ticketService.findAndHoldSeats(2, "789@gmail.com").getNumberOfSeatsOnHold(), 2);
+        assertTrue(reservation.isReserved());
+        assertArrayEquals(reservation.getSeatIds(), recycled.getSeatIds());
+        assertEquals(reservation.getSeatHoldId(), recycled.getId());
+        assertEquals(recycled.getNumberOfSeatsOnHold(), 3);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+    }
+
+    @Test
+    public void testHoldAndReserveAllocateNothing() throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PooledTicketService pooled = (PooledTicketService) TicketServiceFactory.createPooled(100, 100, 1);
+        int[] seatIds = new int[2];
+        long[] code = new long[2];
+        //Grows the pool, warms up the hold and reserve paths, then lets every hold that was not reserved expire
+        holdAndReserve(pooled, 1000, 100, seatIds, code);
+        Thread.sleep(1500);
+
+        long threadId = Thread.currentThread().getId();
+        //What reading the counter allocates by itself
+        long overhead = -threads.getThreadAllocatedBytes(threadId);
+        overhead += threads.getThreadAllocatedBytes(threadId);
+        long before = threads.getThreadAllocatedBytes(threadId);
+        holdAndReserve(pooled, 900, 100, seatIds, code);
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before - overhead;
+        assertEquals(allocated, 0);
+
+        assertEquals(PooledTicketService.renderCode(code).length(), 26);
+    }
+
+    /**
+     * Holds two seats per request and reserves one hold in every reserveEvery
+     */
+    private void holdAndReserve(PooledTicketService pooled, int requests, int reserveEvery, int[] seatIds, long[] code) {
+        for(int index = 0; index < requests; index++) {
+            int seatHoldId = pooled.holdSeats(2, "123@gmail.com");
+            assertTrue(seatHoldId >= 0);
+            assertEquals(pooled.copySeatIds(seatHoldId, seatIds), 2);
+            if(index % reserveEvery == 0) {
+                assertEquals(pooled.reserve(seatHoldId, "123@gmail.com", code), Reservation.Status.RESERVED);
+            }
+        }
+    }
+}
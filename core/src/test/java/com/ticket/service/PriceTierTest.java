@@ -0,0 +1,134 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.ConcurrentTicketServiceImpl;
+import com.ticket.service.Impl.PriceTierImpl;
+import com.ticket.service.interfaces.PriceTier;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TieredTicketService;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class PriceTierTest {
+    ConcurrentTicketServiceImpl ticketService;
+
+    @Before
+    public void setUp() throws RuntimeException {
+        //One sec hold expiration for testing
+        ticketService = TicketServiceFactory.createConcurrent(new PriceTier[] {
+                new PriceTierImpl("Orchestra", 2, 12000),
+                new PriceTierImpl("Mezzanine", 3, 8000),
+                new PriceTierImpl("Balcony", 5, 4000)}, 10, 1);
+    }
+
+    @Test
+    public void testHoldInTier() throws Exception {
+        assertEquals(ticketService.getPriceTiers().size(), 3);
+        assertEquals(ticketService.getPriceTiers().get(1).getName(), "Mezzanine");
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+        assertEquals(ticketService.numSeatsAvailable("Mezzanine"), 30);
+
+        SeatHold mezzanine = ticketService.findAndHoldSeatsInTiers(4, "123@gmail.com", tier -> tier.getName().equals("Mezzanine"));
+        assertEquals(mezzanine.displaySeatsOnHold(), "C:4, C:5, C:6, C:7");
+        assertEquals(ticketService.numSeatsAvailable("Mezzanine"), 26);
+        assertEquals(ticketService.numSeatsAvailable("Orchestra"), 20);
+        assertEquals(ticketService.numSeatsAvailable(), 96);
+
+        SeatHold cheap = ticketService.findAndHoldSeatsInTiers(2, "456@gmail.com", tier -> tier.getPrice() <= 5000);
+        assertEquals(cheap.displaySeatsOnHold(), "F:5, F:6");
+        assertTrue(ticketService.reserveSeats(cheap.getId(), "456@gmail.com").isReserved());
+
+        //Untiered holds still get the best seats of the whole venue
+        assertEquals(ticketService.findAndHoldSeats(1, "789@gmail.com").displaySeatsOnHold(), "A:5");
+
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable("Mezzanine"), 30);
+        assertEquals(ticketService.numSeatsAvailable("Orchestra"), 20);
+        assertEquals(ticketService.numSeatsAvailable("Balcony"), 48);
+    }
+
+    @Test
+    public void testSoldOutTier() throws Exception {
+        SeatHold orchestra = ticketService.findAndHoldSeatsInTiers(20, "123@gmail.com", tier -> tier.getPrice() >= 10000);
+        assertEquals(orchestra.getNumberOfSeatsOnHold(), 20);
+        assertEquals(ticketService.findAndHoldSeatsInTiers(1, "456@gmail.com", tier -> tier.getPrice() >= 10000).getNumberOfSeatsOnHold(), 0);
+        assertEquals(ticketService.findAndHoldSeats(1, "456@gmail.com").displaySeatsOnHold(), "C:5");
+
+        //A group no tier can fit gets the best seats of the tiers in order
+        SeatHold spread = ticketService.findAndHoldSeatsInTiers(35, "789@gmail.com", tier -> tier.getPrice() < 10000);
+        assertEquals(spread.getNumberOfSeatsOnHold(), 35);
+        assertEquals(ticketService.numSeatsAvailable("Mezzanine"), 0);
+        assertEquals(ticketService.numSeatsAvailable("Balcony"), 44);
+
+        //Tiers that together can not fill the group give back what they claimed
+        assertEquals(ticketService.findAndHoldSeatsInTiers(45, "789@gmail.com", tier -> tier.getPrice() < 10000).getNumberOfSeatsOnHold(), 0);
+        assertEquals(ticketService.numSeatsAvailable("Balcony"), 44);
+        assertEquals(ticketService.findAndHoldSeatsInTiers(1, "789@gmail.com", tier -> false).getNumberOfSeatsOnHold(), 0);
+    }
+
+    @Test
+    public void testConcurrentHoldsNeverOversellATier() throws Exception {
+        ticketService = TicketServiceFactory.createConcurrent(new PriceTier[] {
+                new PriceTierImpl("Orchestra", 5, 12000),
+                new PriceTierImpl("Balcony", 20, 4000)}, 20, 60);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Integer>> threads = new ArrayList<>();
+            for(int thread = 0; thread < 8; thread++) {
+                final String customerEmail = thread + "@gmail.com";
+                threads.add(executor.submit(() -> {
+                    int held = 0;
+                    for(int index = 0; index < 50; index++) {
+                        held += ticketService.findAndHoldSeatsInTiers(1 + index % 3, customerEmail, tier -> tier.getName().equals("Orchestra")).getNumberOfSeatsOnHold();
+                        held += ticketService.findAndHoldSeats(2, customerEmail).getNumberOfSeatsOnHold();
+                    }
+                    return held;
+                }));
+            }
+            int held = 0;
+            for(Future<Integer> thread : threads) {
+                held += thread.get();
+            }
+            assertEquals(ticketService.numSeatsAvailable("Orchestra"), 0);
+            assertEquals(ticketService.numSeatsAvailable("Balcony"), 400 - (held - 100));
+            assertEquals(ticketService.getSeatMap().getSeatsAvailable(), ticketService.numSeatsAvailable());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidTiers() throws RuntimeException {
+        try {
+            new PriceTierImpl("Orchestra", 2, -1);
+            fail("Price tier can not have a negative price");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Price cannot be negative!");
+        }
+        try {
+            TicketServiceFactory.createConcurrent(new PriceTier[] {new PriceTierImpl("Orchestra", 2, 100), new PriceTierImpl("Orchestra", 2, 50)}, 10, 1);
+            fail("Price tier names have to be unique");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Price tier names must be unique!");
+        }
+        try {
+            ticketService.numSeatsAvailable("Box");
+            fail("Venue has no Box tier");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "No price tier named Box!");
+        }
+        try {
+            TieredTicketService.of(TicketServiceFactory.create(10, 10, 1)).numSeatsAvailable("Orchestra");
+            fail("Ticket Service does not sell by price tier");
+        } catch (UnsupportedOperationException e) {
+            assertEquals(e.getMessage(), "Ticket service does not sell by price tier!");
+        }
+    }
+}
@@ -24,12 +24,12 @@ public class SeatHoldTest {
         seats.add(seat);
         seat = new TicketServiceImpl.Seat( 8, "C:2");
         seats.add(seat);
-        seatHold = SeatHoldFactory.create(seats, "123@gmail.com", 10000, 3, queue);
+        seatHold = SeatHoldFactory.create(1, seats, "123@gmail.com", 10000, 3, queue::addAll);
     }
 
     @Test
     public void getId() throws Exception {
-        assertTrue(seatHold.getId() > 0);
+        assertEquals(seatHold.getId(), 1);
     }
 
     @Test
@@ -63,4 +63,12 @@ public class SeatHoldTest {
     public void getNumberOfSeatsOnHold() throws Exception {
         assertEquals(seatHold.getNumberOfSeatsOnHold(), 3);
     }
+
+    @Test
+    public void compactDisplaySeatsOnHold() throws Exception {
+        //Seat ids are row * cols + position, row 27 and after are lawn seats
+        SeatHold compactHold = SeatHoldFactory.create(2, new int[] {8, 4, 5, 3 * 28}, "123@gmail.com", 10000, 3, null);
+        assertEquals(compactHold.displaySeatsOnHold(), "B:2, B:3, C:3, Lawn");
+        assertEquals(compactHold.getNumberOfSeatsOnHold(), 4);
+    }
 }
\ No newline at end of file
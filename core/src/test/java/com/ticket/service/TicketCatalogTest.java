@@ -0,0 +1,98 @@
+package com.ticket.service;
+
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketCatalog;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class TicketCatalogTest {
+    TicketCatalog ticketCatalog;
+
+    @Before
+    public void setUp() throws RuntimeException {
+        ticketCatalog = TicketCatalogFactory.create(4);
+        //One sec hold expiration for testing
+        ticketCatalog.addShow("matinee", 10, 10, 1);
+        ticketCatalog.addShow("evening", 9, 33, 1);
+    }
+
+    @After
+    public void tearDown() {
+        ticketCatalog.shutdown();
+    }
+
+    @Test
+    public void testShowsAreIndependent() throws Exception {
+        assertEquals(ticketCatalog.numSeatsAvailable("matinee"), 100);
+        assertEquals(ticketCatalog.numSeatsAvailable("evening"), 297);
+        SeatHold seatHold = ticketCatalog.findAndHoldSeats("matinee", 10, "123@gmail.com");
+        assertEquals(seatHold.displaySeatsOnHold(), "A:1, A:2, A:3, A:4, A:5, A:6, A:7, A:8, A:9, A:10");
+        assertEquals(ticketCatalog.numSeatsAvailable("matinee"), 90);
+        assertEquals(ticketCatalog.numSeatsAvailable("evening"), 297);
+        assertTrue(ticketCatalog.reserveSeats("matinee", seatHold.getId(), "123@gmail.com").isReserved());
+        assertEquals(ticketCatalog.reserveSeats("evening", seatHold.getId(), "123@gmail.com").toString(), "No hold found with ID of " + seatHold.getId());
+    }
+
+    @Test
+    public void testHoldsExpireOnTheirShow() throws Exception {
+        ticketCatalog.findAndHoldSeats("matinee", 5, "123@gmail.com");
+        ticketCatalog.findAndHoldSeats("evening", 7, "123@gmail.com");
+        assertEquals(ticketCatalog.numSeatsAvailable("matinee"), 95);
+        assertEquals(ticketCatalog.numSeatsAvailable("evening"), 290);
+        Thread.sleep(2000);
+        assertEquals(ticketCatalog.numSeatsAvailable("matinee"), 100);
+        assertEquals(ticketCatalog.numSeatsAvailable("evening"), 297);
+    }
+
+    @Test
+    public void testUnknownAndDuplicateShows() {
+        try {
+            ticketCatalog.findAndHoldSeats("late", 1, "123@gmail.com");
+            fail("Show late is not in the catalog");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "No show found with ID of late");
+        }
+        try {
+            ticketCatalog.addShow("matinee", 10, 10, 1);
+            fail("Show matinee is already in the catalog");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Show matinee already exists!");
+        }
+    }
+
+    @Test
+    public void testConcurrentHoldsAcrossShows() throws Exception {
+        for(int show = 0; show < 16; show++) {
+            ticketCatalog.addShow("show" + show, 10, 10, 60);
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for(int client = 0; client < 32; client++) {
+                final String showId = "show" + (client % 16);
+                futures.add(executor.submit(() -> {
+                    for(int hold = 0; hold < 25; hold++) {
+                        assertEquals(ticketCatalog.findAndHoldSeats(showId, 2, "123@gmail.com").getNumberOfSeatsOnHold(), 2);
+                    }
+                }));
+            }
+            for(Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        for(int show = 0; show < 16; show++) {
+            assertEquals(ticketCatalog.numSeatsAvailable("show" + show), 0);
+        }
+    }
+}
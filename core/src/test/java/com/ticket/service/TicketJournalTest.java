@@ -0,0 +1,248 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.ConcurrentTicketServiceImpl;
+import com.ticket.service.Impl.HashedWheelExpiryScheduler;
+import com.ticket.service.Impl.PeriodicSnapshots;
+import com.ticket.service.interfaces.ExpiryScheduler;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketEvents;
+import com.ticket.service.interfaces.TicketJournal;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.*;
+
+public class TicketJournalTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    Path file;
+    ExpiryScheduler expiryScheduler;
+
+    @Before
+    public void setUp() throws Exception {
+        file = folder.newFolder().toPath().resolve("venue.journal");
+        expiryScheduler = new HashedWheelExpiryScheduler(10, 64, null);
+    }
+
+    @After
+    public void tearDown() {
+        expiryScheduler.shutdown();
+    }
+
+    @Test
+    public void testRecoverHoldsAndReservations() throws Exception {
+        TicketJournal journal = TicketJournalFactory.create(file);
+        ConcurrentTicketServiceImpl ticketService = new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler, journal);
+        SeatHold reservedHold = ticketService.findAndHoldSeats(10, "123@gmail.com");
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "456@gmail.com");
+        assertTrue(ticketService.reserveSeats(reservedHold.getId(), "123@gmail.com").isReserved());
+        journal.close();
+
+        //The restarted venue has the same holds and reservations
+        journal = TicketJournalFactory.create(file);
+        ticketService = new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler, journal);
+        assertEquals(ticketService.numSeatsAvailable(), 85);
+        assertEquals(ticketService.reserveSeats(reservedHold.getId(), "123@gmail.com").toString(), "Reservation code has already been given.");
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").toString(), "Customer Email either does not exist in our system or does not match up with hold Id.");
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), "456@gmail.com").toString().contains("B:3, B:4, B:5, B:6, B:7"));
+        assertEquals(ticketService.findAndHoldSeats(10, "789@gmail.com").displaySeatsOnHold(), "C:1, C:2, C:3, C:4, C:5, C:6, C:7, C:8, C:9, C:10");
+        journal.close();
+    }
+
+    @Test
+    public void testExpiredHoldsAreNotRecovered() throws Exception {
+        TicketJournal journal = TicketJournalFactory.create(file);
+        ConcurrentTicketServiceImpl ticketService = new ConcurrentTicketServiceImpl(10, 10, 1, expiryScheduler, journal);
+        ticketService.findAndHoldSeats(5, "123@gmail.com");
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+
+        //This hold expires while the venue is down
+        expiryScheduler.shutdown();
+        SeatHold seatHold = ticketService.findAndHoldSeats(7, "123@gmail.com");
+        journal.close();
+        Thread.sleep(1200);
+
+        expiryScheduler = new HashedWheelExpiryScheduler(10, 64, null);
+        journal = TicketJournalFactory.create(file);
+        ticketService = new ConcurrentTicketServiceImpl(10, 10, 1, expiryScheduler, journal);
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").toString(), "No hold found with ID of " + seatHold.getId());
+        journal.close();
+    }
+
+    @Test
+    public void testRecoverReleasedSeatsAndExtendedHolds() throws Exception {
+        TicketJournal journal = TicketJournalFactory.create(file);
+        ConcurrentTicketServiceImpl ticketService = new ConcurrentTicketServiceImpl(10, 10, 1, expiryScheduler, journal);
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "123@gmail.com");
+        int[] seatIds = seatHold.getSeatIds();
+        assertTrue(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {seatIds[0], seatIds[1]}));
+        assertTrue(ticketService.extendHold(seatHold.getId(), "123@gmail.com", 60000));
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+        journal.close();
+
+        //Without the extension the hold would expire while the venue is down
+        Thread.sleep(1200);
+        journal = TicketJournalFactory.create(file);
+        ticketService = new ConcurrentTicketServiceImpl(10, 10, 1, expiryScheduler, journal);
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+        Reservation reservation = ticketService.reserveSeats(seatHold.getId(), "123@gmail.com");
+        assertTrue(reservation.isReserved());
+        assertArrayEquals(reservation.getSeatIds(), new int[] {seatIds[2], seatIds[3], seatIds[4]});
+        journal.close();
+    }
+
+    @Test
+    public void testRecoverFromSnapshotAndJournalTail() throws Exception {
+        Path snapshot = file.resolveSibling("venue.snapshot");
+        TicketJournal journal = TicketJournalFactory.create(file);
+        ConcurrentTicketServiceImpl ticketService = new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler, journal, snapshot);
+        SeatHold reservedHold = ticketService.findAndHoldSeats(10, "123@gmail.com");
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "456@gmail.com");
+        assertTrue(ticketService.reserveSeats(reservedHold.getId(), "123@gmail.com").isReserved());
+        ticketService.writeSnapshot(snapshot);
+
+        //Changes after the snapshot are only in the journal
+        SeatHold lateHold = ticketService.findAndHoldSeats(10, "789@gmail.com");
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), "456@gmail.com").isReserved());
+        journal.close();
+
+        journal = TicketJournalFactory.create(file);
+        ticketService = new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler, journal, snapshot);
+        assertEquals(ticketService.numSeatsAvailable(), 75);
+        assertEquals(ticketService.reserveSeats(reservedHold.getId(), "123@gmail.com").toString(), "Reservation code has already been given.");
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "456@gmail.com").toString(), "Reservation code has already been given.");
+        assertTrue(ticketService.reserveSeats(lateHold.getId(), "789@gmail.com").toString().contains("C:1, C:2, C:3, C:4, C:5, C:6, C:7, C:8, C:9, C:10"));
+        journal.close();
+
+        journal = TicketJournalFactory.create(file);
+        try {
+            new ConcurrentTicketServiceImpl(10, 11, 60, expiryScheduler, journal, snapshot);
+            fail("Snapshot is of a 10x10 venue");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Snapshot is of a venue of another size!");
+        } finally {
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testRecoverPastACorruptSnapshot() throws Exception {
+        Path snapshot = file.resolveSibling("venue.snapshot");
+        TicketJournal journal = TicketJournalFactory.create(file);
+        ConcurrentTicketServiceImpl ticketService = new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler, journal, snapshot);
+        SeatHold reservedHold = ticketService.findAndHoldSeats(10, "123@gmail.com");
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "456@gmail.com");
+        assertTrue(ticketService.reserveSeats(reservedHold.getId(), "123@gmail.com").isReserved());
+        ticketService.writeSnapshot(snapshot);
+        SeatHold lateHold = ticketService.findAndHoldSeats(10, "789@gmail.com");
+        journal.close();
+
+        //A flipped bit in a hold and a snapshot cut short both leave the whole journal to replay
+        byte[] bytes = Files.readAllBytes(snapshot);
+        bytes[bytes.length / 2] ^= 1;
+        for(byte[] corrupt : new byte[][] {bytes, Arrays.copyOf(bytes, bytes.length - 3)}) {
+            Files.write(snapshot, corrupt);
+            journal = TicketJournalFactory.create(file);
+            ticketService = new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler, journal, snapshot);
+            assertEquals(ticketService.numSeatsAvailable(), 75);
+            assertEquals(ticketService.reserveSeats(reservedHold.getId(), "123@gmail.com").getStatus(), Reservation.Status.ALREADY_RESERVED);
+            assertEquals(ticketService.findHolds("456@gmail.com").get(0).getId(), seatHold.getId());
+            assertEquals(ticketService.findHolds("789@gmail.com").get(0).getId(), lateHold.getId());
+            journal.close();
+        }
+    }
+
+    @Test
+    public void testPeriodicSnapshots() throws Exception {
+        Path snapshot = file.resolveSibling("venue.snapshot");
+        TicketJournal journal = TicketJournalFactory.create(file);
+        ConcurrentTicketServiceImpl ticketService = new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler, journal, snapshot);
+        ticketService.findAndHoldSeats(10, "123@gmail.com");
+        BlockingQueue<RuntimeException> failures = new ArrayBlockingQueue<>(10);
+        PeriodicSnapshots snapshots = new PeriodicSnapshots(ticketService, snapshot, 1, failures::offer);
+        try {
+            for(int wait = 0; wait < 300 && !Files.exists(snapshot); wait++) {
+                Thread.sleep(10);
+            }
+            assertTrue(Files.exists(snapshot));
+            assertTrue(failures.isEmpty());
+        } finally {
+            snapshots.shutdown();
+            journal.close();
+        }
+
+        //A venue without a journal can not be snapshot, each failure goes to the handler
+        snapshots = new PeriodicSnapshots(new ConcurrentTicketServiceImpl(10, 10, 60, expiryScheduler), snapshot, 1, failures::offer);
+        try {
+            RuntimeException failure = failures.poll(3, TimeUnit.SECONDS);
+            assertNotNull(failure);
+            assertEquals(failure.getMessage(), "Snapshots need a journal!");
+        } finally {
+            snapshots.shutdown();
+        }
+    }
+
+    @Test
+    public void testEventsSpanRegionsAndReopen() throws Exception {
+        //Small regions so the events roll over many of them
+        TicketJournal journal = TicketJournalFactory.create(file, 256);
+        for(int hold = 0; hold < 100; hold++) {
+            journal.hold(hold, "123@gmail.com", 0, new int[] {hold});
+        }
+        journal.close();
+
+        journal = TicketJournalFactory.create(file, 4096);
+        for(int hold = 0; hold < 50; hold++) {
+            journal.reserve(hold);
+        }
+        journal.flush();
+
+        final AtomicInteger holds = new AtomicInteger();
+        final AtomicInteger reserves = new AtomicInteger();
+        journal.replay(new TicketEvents() {
+            @Override
+            public void hold(int seatHoldId, String customerEmail, long expiresAt, int[] seatIds) {
+                assertEquals(seatIds[0], holds.getAndIncrement());
+                assertEquals(customerEmail, "123@gmail.com");
+            }
+
+            @Override
+            public void reserve(int seatHoldId) {
+                assertEquals(seatHoldId, reserves.getAndIncrement());
+            }
+
+            @Override
+            public void expire(int seatHoldId) {
+                fail("No hold expired");
+            }
+
+            @Override
+            public void release(int seatHoldId, int[] seatIds) {
+                fail("No seats were released");
+            }
+
+            @Override
+            public void extend(int seatHoldId, long expiresAt) {
+                fail("No hold was extended");
+            }
+        });
+        assertEquals(holds.get(), 100);
+        assertEquals(reserves.get(), 50);
+        journal.close();
+    }
+}
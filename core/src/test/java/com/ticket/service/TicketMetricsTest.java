@@ -0,0 +1,132 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.InstrumentedTicketService;
+import com.ticket.service.Impl.LatencyHistogram;
+import com.ticket.service.Impl.MetricsSnapshot;
+import com.ticket.service.Impl.TicketMetrics;
+import com.ticket.service.interfaces.SeatHold;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.*;
+
+public class TicketMetricsTest {
+    TicketMetrics metrics;
+    InstrumentedTicketService ticketService;
+
+    @Before
+    public void setUp() throws RuntimeException {
+        metrics = new TicketMetrics();
+        //One sec hold expiration for testing
+        ticketService = TicketServiceFactory.createInstrumented(10, 10, 1, metrics);
+    }
+
+    @Test
+    public void testCountsAndGauge() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(10, "123@gmail.com");
+        ticketService.findAndHoldSeats(5, "123@gmail.com");
+        ticketService.findAndHoldSeats(500, "123@gmail.com");
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").isReserved());
+        ticketService.reserveSeats(seatHold.getId(), "123@gmail.com");
+
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(snapshot.getHolds(), 2);
+        assertEquals(snapshot.getFailedHolds(), 1);
+        assertEquals(snapshot.getReservations(), 1);
+        assertEquals(snapshot.getFailedReservations(), 1);
+        assertEquals(snapshot.getSeatsAvailable(), 85);
+        assertEquals(snapshot.getHoldLatency().getCount(), 3);
+        assertEquals(snapshot.getReserveLatency().getCount(), 2);
+
+        //The reserved hold is cancelled, only the other one expires
+        Thread.sleep(1500);
+        snapshot = metrics.snapshot();
+        assertEquals(snapshot.getExpiries(), 1);
+        assertEquals(snapshot.getSeatsAvailable(), 90);
+        assertTrue(snapshot.getExpiryLag().getMax() < TimeUnit.MILLISECONDS.toNanos(500));
+    }
+
+    @Test
+    public void testReporter() throws Exception {
+        BlockingQueue<MetricsSnapshot> reports = new ArrayBlockingQueue<>(10);
+        ticketService.findAndHoldSeats(1, "123@gmail.com");
+        metrics.startReporting(reports::offer, 1);
+        MetricsSnapshot report = reports.poll(3, TimeUnit.SECONDS);
+        metrics.stopReporting();
+        assertNotNull(report);
+        assertEquals(report.getHolds(), 1);
+
+        //A failing reporter stops the reports and its error reaches the caller
+        Future<?> reporting = metrics.startReporting(snapshot -> {
+            throw new RuntimeException("Reporter is down!");
+        }, 1);
+        try {
+            reporting.get(3, TimeUnit.SECONDS);
+            fail("Reporter failed");
+        } catch (ExecutionException e) {
+            assertEquals(e.getCause().getMessage(), "Reporter is down!");
+        } finally {
+            metrics.stopReporting();
+        }
+    }
+
+    @Test
+    public void testExpiriesCountHolds() throws Exception {
+        //A batch shares one timeout, each hold it releases is an expiry and the reserved one is not
+        SeatHold[] seatHolds = ticketService.findAndHoldSeats(new int[] {1, 2, 3}, new String[] {"1@gmail.com", "2@gmail.com", "3@gmail.com"});
+        assertTrue(ticketService.reserveSeats(seatHolds[0].getId(), "1@gmail.com").isReserved());
+        //An extended hold waits out the extension before it expires, once
+        SeatHold extended = ticketService.findAndHoldSeats(4, "4@gmail.com");
+        assertTrue(ticketService.extendHold(extended.getId(), "4@gmail.com", 1000));
+
+        Thread.sleep(1500);
+        assertEquals(metrics.snapshot().getExpiries(), 2);
+        Thread.sleep(1000);
+        MetricsSnapshot snapshot = metrics.snapshot();
+        assertEquals(snapshot.getExpiries(), 3);
+        assertEquals(snapshot.getExpiryLag().getCount(), 3);
+        assertEquals(snapshot.getSeatsAvailable(), 99);
+    }
+
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for(long micros = 1; micros <= 10000; micros++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(micros));
+        }
+        assertEquals(histogram.getCount(), 10000);
+        assertEquals(histogram.getMax(), TimeUnit.MICROSECONDS.toNanos(10000));
+        assertWithin(histogram.getValueAtPercentile(50), TimeUnit.MICROSECONDS.toNanos(5000));
+        assertWithin(histogram.getValueAtPercentile(99), TimeUnit.MICROSECONDS.toNanos(9900));
+        assertEquals(histogram.getValueAtPercentile(100), TimeUnit.MICROSECONDS.toNanos(10000));
+    }
+
+    @Test
+    public void testRecordingAllocatesNothing() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LatencyHistogram histogram = new LatencyHistogram();
+        //Warms up the recording path so the JIT and class loading are out of the way
+        for(int value = 0; value < 100000; value++) {
+            histogram.record(value);
+        }
+        long threadId = Thread.currentThread().getId();
+        long before = threads.getThreadAllocatedBytes(threadId);
+        for(int value = 0; value < 100000; value++) {
+            histogram.record(value * 31L);
+        }
+        long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        //Reading the counter allocates a little on its own, far less than a byte per record
+        assertTrue("Recording allocated " + allocated + " bytes", allocated < 1024);
+    }
+
+    private static void assertWithin(long actual, long expected) {
+        assertTrue(actual + " is not within 7% of " + expected, Math.abs(actual - expected) <= expected * 0.07);
+    }
+}
@@ -0,0 +1,306 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.TicketServer;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class TicketServerTest {
+    TicketServer server;
+    Socket socket;
+    DataOutputStream out;
+    DataInputStream in;
+
+    @Before
+    public void setUp() throws Exception {
+        //One sec hold expiration for testing
+        server = new TicketServer(TicketServiceFactory.createConcurrent(10, 10, 1), new InetSocketAddress("localhost", 0), 2);
+        socket = connect();
+        out = new DataOutputStream(socket.getOutputStream());
+        in = new DataInputStream(socket.getInputStream());
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        socket.close();
+        server.shutdown();
+    }
+
+    @Test
+    public void testHoldAndReserve() throws Exception {
+        assertEquals(available(), 100);
+
+        out.write(hold(10, "123@gmail.com"));
+        assertEquals(in.readInt(), 9);
+        assertEquals(in.readByte(), TicketServer.OK);
+        int seatHoldId = in.readInt();
+        assertEquals(in.readInt(), 10);
+        assertEquals(available(), 90);
+
+        assertEquals(reserve(seatHoldId, "fake@gmail.com"), Reservation.Status.EMAIL_MISMATCH);
+        assertEquals(reserve(seatHoldId, "123@gmail.com"), Reservation.Status.RESERVED);
+        String code = TicketServer.renderCode(in.readLong(), in.readLong());
+        assertTrue(code.matches("[0-9A-Z]{26}"));
+        assertEquals(reserve(seatHoldId, "123@gmail.com"), Reservation.Status.ALREADY_RESERVED);
+        assertEquals(reserve(seatHoldId + 1000, "123@gmail.com"), Reservation.Status.NOT_FOUND);
+        Thread.sleep(1500);
+        assertEquals(available(), 90);
+    }
+
+    @Test
+    public void testPipelinedRequestsAnswerInOrder() throws Exception {
+        ByteArrayOutputStream requests = new ByteArrayOutputStream();
+        for(int request = 0; request < 50; request++) {
+            requests.write(hold(1, request + "@gmail.com"));
+        }
+        requests.write(frame(new byte[]{TicketServer.AVAILABLE}));
+        out.write(requests.toByteArray());
+        out.flush();
+
+        int lastId = 0;
+        for(int request = 0; request < 50; request++) {
+            assertEquals(in.readInt(), 9);
+            assertEquals(in.readByte(), TicketServer.OK);
+            int seatHoldId = in.readInt();
+            assertTrue(seatHoldId > lastId);
+            lastId = seatHoldId;
+            assertEquals(in.readInt(), 1);
+        }
+        assertEquals(in.readInt(), 5);
+        assertEquals(in.readByte(), TicketServer.OK);
+        assertEquals(in.readInt(), 50);
+    }
+
+    @Test
+    public void testPipelineLongerThanTheBuffers() throws Exception {
+        //Answers outgrow the buffers of the connection, so the server has to write and carry on
+        byte[] available = frame(new byte[]{TicketServer.AVAILABLE});
+        Thread writer = new Thread(() -> {
+            try {
+                for(int request = 0; request < 20000; request++) {
+                    out.write(available);
+                }
+                out.flush();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        });
+        writer.start();
+        for(int answer = 0; answer < 20000; answer++) {
+            assertEquals(in.readInt(), 5);
+            assertEquals(in.readByte(), TicketServer.OK);
+            assertEquals(in.readInt(), 100);
+        }
+        writer.join();
+    }
+
+    @Test
+    public void testMalformedRequests() throws Exception {
+        out.write(frame(new byte[]{42}));
+        in.readInt();
+        assertEquals(in.readByte(), TicketServer.ERROR);
+        assertEquals(in.readByte(), TicketServer.UNKNOWN_OPERATION);
+
+        out.write(frame(new byte[]{TicketServer.HOLD, 0, 0}));
+        in.readInt();
+        assertEquals(in.readByte(), TicketServer.ERROR);
+        assertEquals(in.readByte(), TicketServer.MALFORMED);
+
+        //The connection is still usable after a malformed request
+        assertEquals(available(), 100);
+    }
+
+    @Test
+    public void testServiceErrorAnswersOnlyItsRequest() throws Exception {
+        TicketService closedVenue = new TicketService() {
+            @Override
+            public int numSeatsAvailable() {
+                return 100;
+            }
+
+            @Override
+            public SeatHold findAndHoldSeats(int numSeats, String customerEmail) {
+                throw new RuntimeException("Venue is closed!");
+            }
+
+            @Override
+            public Reservation reserveSeats(int seatHoldId, String customerEmail) {
+                throw new RuntimeException("Venue is closed!");
+            }
+        };
+        TicketServer closedServer = new TicketServer(closedVenue, new InetSocketAddress("localhost", 0), 1);
+        try (Socket client = new Socket("localhost", closedServer.getPort())) {
+            ByteArrayOutputStream requests = new ByteArrayOutputStream();
+            requests.write(frame(new byte[]{TicketServer.AVAILABLE}));
+            requests.write(hold(1, "123@gmail.com"));
+            requests.write(frame(new byte[]{TicketServer.AVAILABLE}));
+            client.getOutputStream().write(requests.toByteArray());
+
+            DataInputStream answers = new DataInputStream(client.getInputStream());
+            answers.readInt();
+            assertEquals(answers.readByte(), TicketServer.OK);
+            assertEquals(answers.readInt(), 100);
+            answers.readInt();
+            assertEquals(answers.readByte(), TicketServer.ERROR);
+            assertEquals(answers.readByte(), TicketServer.FAILED);
+            answers.readInt();
+            assertEquals(answers.readByte(), TicketServer.OK);
+            assertEquals(answers.readInt(), 100);
+        } finally {
+            closedServer.shutdown();
+        }
+    }
+
+    @Test
+    public void testCodeOfAnyReservationIsSentAsLongs() throws Exception {
+        //A reservation that only has its code as text
+        Reservation reservation = new Reservation() {
+            @Override
+            public Status getStatus() {
+                return Status.RESERVED;
+            }
+
+            @Override
+            public boolean isReserved() {
+                return true;
+            }
+
+            @Override
+            public String getCode() {
+                return "1ZZZZZZZZZZZZ0000000000001";
+            }
+
+            @Override
+            public int getSeatHoldId() {
+                return 1;
+            }
+
+            @Override
+            public String getCustomerEmail() {
+                return "123@gmail.com";
+            }
+
+            @Override
+            public int[] getSeatIds() {
+                return new int[0];
+            }
+        };
+        TicketService venue = new TicketService() {
+            @Override
+            public int numSeatsAvailable() {
+                return 100;
+            }
+
+            @Override
+            public SeatHold findAndHoldSeats(int numSeats, String customerEmail) {
+                throw new RuntimeException("Venue only reserves!");
+            }
+
+            @Override
+            public Reservation reserveSeats(int seatHoldId, String customerEmail) {
+                return reservation;
+            }
+        };
+        TicketServer textServer = new TicketServer(venue, new InetSocketAddress("localhost", 0), 1);
+        try (Socket client = new Socket("localhost", textServer.getPort())) {
+            client.getOutputStream().write(reservation(1, "123@gmail.com"));
+            DataInputStream answer = new DataInputStream(client.getInputStream());
+            assertEquals(answer.readInt(), 18);
+            assertEquals(answer.readByte(), TicketServer.OK);
+            assertEquals(answer.readByte(), Reservation.Status.RESERVED.ordinal());
+            assertEquals(TicketServer.renderCode(answer.readLong(), answer.readLong()), "1ZZZZZZZZZZZZ0000000000001");
+        } finally {
+            textServer.shutdown();
+        }
+    }
+
+    @Test
+    public void testManyConnections() throws Exception {
+        List<Socket> sockets = new ArrayList<>();
+        try {
+            for(int connection = 0; connection < 200; connection++) {
+                Socket client = connect();
+                sockets.add(client);
+                client.getOutputStream().write(hold(1, connection + "@gmail.com"));
+            }
+            int numberOfSeatsOnHold = 0;
+            for(Socket client : sockets) {
+                DataInputStream answer = new DataInputStream(client.getInputStream());
+                answer.readInt();
+                assertEquals(answer.readByte(), TicketServer.OK);
+                answer.readInt();
+                numberOfSeatsOnHold += answer.readInt();
+            }
+            assertEquals(numberOfSeatsOnHold, 100);
+            assertEquals(available(), 0);
+        } finally {
+            for(Socket client : sockets) {
+                client.close();
+            }
+        }
+    }
+
+    private Socket connect() throws IOException {
+        Socket client = new Socket("localhost", server.getPort());
+        client.setTcpNoDelay(true);
+        client.setSoTimeout(5000);
+        return client;
+    }
+
+    private int available() throws IOException {
+        out.write(frame(new byte[]{TicketServer.AVAILABLE}));
+        assertEquals(in.readInt(), 5);
+        assertEquals(in.readByte(), TicketServer.OK);
+        return in.readInt();
+    }
+
+    /**
+     * Sends a reservation and reads its status, a reserved one leaves the code to be read
+     */
+    private Reservation.Status reserve(int seatHoldId, String customerEmail) throws IOException {
+        out.write(reservation(seatHoldId, customerEmail));
+        in.readInt();
+        assertEquals(in.readByte(), TicketServer.OK);
+        return Reservation.Status.values()[in.readByte()];
+    }
+
+    private static byte[] reservation(int seatHoldId, String customerEmail) throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(request);
+        data.writeByte(TicketServer.RESERVE);
+        data.writeInt(seatHoldId);
+        data.writeUTF(customerEmail);
+        return frame(request.toByteArray());
+    }
+
+    private static byte[] hold(int numSeats, String customerEmail) throws IOException {
+        ByteArrayOutputStream request = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(request);
+        data.writeByte(TicketServer.HOLD);
+        data.writeInt(numSeats);
+        data.writeUTF(customerEmail);
+        return frame(request.toByteArray());
+    }
+
+    private static byte[] frame(byte[] request) throws IOException {
+        ByteArrayOutputStream frame = new ByteArrayOutputStream();
+        DataOutputStream data = new DataOutputStream(frame);
+        data.writeInt(request.length);
+        data.write(request);
+        return frame.toByteArray();
+    }
+}
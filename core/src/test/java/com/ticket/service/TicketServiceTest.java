@@ -1,14 +1,15 @@
 package com.ticket.service;
 
+import com.ticket.service.Impl.TicketServiceImpl;
+import com.ticket.service.interfaces.Reservation;
 import com.ticket.service.interfaces.SeatHold;
-import com.ticket.service.interfaces.TicketService;
 import org.junit.Before;
 import org.junit.Test;
 
 import static org.junit.Assert.*;
 
 public class TicketServiceTest {
-    TicketService ticketService;
+    TicketServiceImpl ticketService;
 
     @Before
     public void setUp() throws RuntimeException {
@@ -71,9 +72,9 @@ public class TicketServiceTest {
         assertEquals(seatHold.getNumberOfSeatsOnHold(), 5);
         assertEquals(ticketService.numSeatsAvailable(), 95);
         assertEquals(seatHold.displaySeatsOnHold(), "A:3, A:4, A:5, A:6, A:7");
-        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).contains("Reservation code"));
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).isReserved());
         //Test double confirm reserve
-        assertEquals(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()), "Reservation code has already been given.");
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).toString(), "Reservation code has already been given.");
     }
 
     @Test
@@ -82,7 +83,7 @@ public class TicketServiceTest {
         assertEquals(seatHold.getNumberOfSeatsOnHold(), 7);
         assertEquals(ticketService.numSeatsAvailable(), 93);
         assertEquals(seatHold.displaySeatsOnHold(), "A:2, A:3, A:4, A:5, A:6, A:7, A:8");
-        assertEquals(ticketService.reserveSeats(123456, seatHold.getEmail()), "No hold found with ID of 123456");
+        assertEquals(ticketService.reserveSeats(123456, seatHold.getEmail()).toString(), "No hold found with ID of 123456");
     }
 
     @Test
@@ -92,7 +93,7 @@ public class TicketServiceTest {
         assertEquals(ticketService.numSeatsAvailable(), 97);
         assertEquals(seatHold.displaySeatsOnHold(), "A:4, A:5, A:6");
         Thread.sleep(2000);
-        assertEquals(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()), "The hold has expired for seats A:4, A:5, A:6");
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).toString(), "The hold has expired for seats A:4, A:5, A:6");
     }
 
     @Test
@@ -100,7 +101,7 @@ public class TicketServiceTest {
         SeatHold seatHold = ticketService.findAndHoldSeats(5, "434@gmail.com");
         assertEquals(seatHold.getNumberOfSeatsOnHold(), 5);
         assertEquals(ticketService.numSeatsAvailable(), 95);
-        assertEquals(ticketService.reserveSeats(seatHold.getId(), "fake@gmail.com"), "Customer Email either does not exist in our system or does not match up with hold Id.");
+        assertEquals(ticketService.reserveSeats(seatHold.getId(), "fake@gmail.com").toString(), "Customer Email either does not exist in our system or does not match up with hold Id.");
     }
 
     @Test
@@ -109,13 +110,13 @@ public class TicketServiceTest {
         assertEquals(seatHold.getNumberOfSeatsOnHold(), 5);
         assertEquals(ticketService.numSeatsAvailable(), 95);
         assertEquals(seatHold.displaySeatsOnHold(), "A:3, A:4, A:5, A:6, A:7");
-        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).contains("Reservation code"));
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).isReserved());
 
         seatHold = ticketService.findAndHoldSeats(7, "123@gmail.com");
         assertEquals(seatHold.getNumberOfSeatsOnHold(), 7);
         assertEquals(ticketService.numSeatsAvailable(), 88);
         assertEquals(seatHold.displaySeatsOnHold(), "A:1, A:2, A:8, A:9, A:10, B:5, B:6");
-        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).contains("Reservation code"));
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), seatHold.getEmail()).isReserved());
 
         seatHold = ticketService.findAndHoldSeats(3, "555@gmail.com");
         assertEquals(seatHold.getNumberOfSeatsOnHold(), 3);
@@ -130,7 +131,7 @@ public class TicketServiceTest {
 
     @Test
     public void testLawnSeats() throws Exception {
-        TicketService badVenue = TicketServiceFactory.create(30, 2, 1);
+        TicketServiceImpl badVenue = TicketServiceFactory.create(30, 2, 1);
         assertEquals(badVenue.numSeatsAvailable(), 60);
         SeatHold seatHold = badVenue.findAndHoldSeats(60, "123@gamil.com");
         assertEquals(badVenue.numSeatsAvailable(), 0);
@@ -142,11 +143,83 @@ public class TicketServiceTest {
         Thread.sleep(2000);
         assertEquals(badVenue.numSeatsAvailable(), 60);
         seatHold = badVenue.findAndHoldSeats(54, "123@gamil.com");
-        assertTrue(badVenue.reserveSeats(seatHold.getId(), "123@gamil.com").contains("Reservation code"));
+        assertTrue(badVenue.reserveSeats(seatHold.getId(), "123@gamil.com").isReserved());
         assertEquals(badVenue.numSeatsAvailable(), 6);
         seatHold = badVenue.findAndHoldSeats(6, "abc@gamil.com");
         assertEquals(badVenue.numSeatsAvailable(), 0);
         assertEquals(seatHold.displaySeatsOnHold(), "Lawn, Lawn, Lawn, Lawn, Lawn, Lawn");
-        assertTrue(badVenue.reserveSeats(seatHold.getId(), "abc@gamil.com").contains("Reservation code"));
+        assertTrue(badVenue.reserveSeats(seatHold.getId(), "abc@gamil.com").isReserved());
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testFestivalLawn() throws Exception {
+        //27 lettered rows of 30 and 1000 rows of lawn, 30000 general admission spots
+        TicketServiceImpl festival = TicketServiceFactory.create(27 + 1000, 30, 1);
+        assertEquals(festival.numSeatsAvailable(), 27 * 30 + 30000);
+        SeatHold seats = festival.findAndHoldSeats(27 * 30 - 2, "123@gmail.com");
+        assertEquals(seats.getNumberOfSeatsOnHold(), 27 * 30 - 2);
+
+        SeatHold mixed = festival.findAndHoldSeats(4, "456@gmail.com");
+        assertEquals(mixed.getNumberOfSeatsOnHold(), 4);
+        assertEquals(mixed.getSeatIds().length, 2);
+        assertTrue(mixed.displaySeatsOnHold().endsWith(", Lawn, Lawn"));
+
+        SeatHold lawn = festival.findAndHoldSeats(29998, "789@gmail.com");
+        assertEquals(lawn.getNumberOfSeatsOnHold(), 29998);
+        assertEquals(lawn.getSeatIds().length, 0);
+        assertEquals(festival.numSeatsAvailable(), 0);
+        assertEquals(festival.findAndHoldSeats(1, "abc@gmail.com").getNumberOfSeatsOnHold(), 0);
+        assertTrue(festival.reserveSeats(lawn.getId(), "789@gmail.com").isReserved());
+
+        Thread.sleep(2000);
+        assertEquals(festival.numSeatsAvailable(), 27 * 30 + 2);
+        SeatHold rest = festival.findAndHoldSeats(27 * 30 + 2, "abc@gmail.com");
+        assertEquals(rest.getSeatIds().length, 27 * 30);
+        assertTrue(rest.displaySeatsOnHold().endsWith("[:30, Lawn, Lawn"));
+    }
+
+    @Test
+    public void testReleasePartOfAHold() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(4, "123@gmail.com");
+        int[] seatIds = seatHold.getSeatIds();
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "456@gmail.com", new int[] {seatIds[0]}));
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {99}));
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {seatIds[0], seatIds[0]}));
+
+        assertTrue(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {seatIds[3]}));
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 3);
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+        assertTrue(ticketService.reserveSeats(seatHold.getId(), "123@gmail.com").isReserved());
+        assertFalse(ticketService.releaseSeats(seatHold.getId(), "123@gmail.com", new int[] {seatIds[0]}));
+
+        //Giving back every seat releases the hold right away
+        SeatHold otherHold = ticketService.findAndHoldSeats(2, "456@gmail.com");
+        assertTrue(ticketService.releaseSeats(otherHold.getId(), "456@gmail.com", otherHold.getSeatIds()));
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+        assertEquals(ticketService.reserveSeats(otherHold.getId(), "456@gmail.com").getStatus(), Reservation.Status.EXPIRED);
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 97);
+    }
+
+    @Test
+    public void testExtendHold() throws Exception {
+        SeatHold seatHold = ticketService.findAndHoldSeats(5, "123@gmail.com");
+        SeatHold otherHold = ticketService.findAndHoldSeats(5, "456@gmail.com");
+        assertFalse(ticketService.extendHold(seatHold.getId(), "456@gmail.com", 2000));
+        assertTrue(ticketService.extendHold(seatHold.getId(), "123@gmail.com", 2000));
+        assertTrue(seatHold.holdTimeRemaining() > 2000);
+
+        //Only the hold that was not extended expires at the first deadline
+        Thread.sleep(1500);
+        assertEquals(ticketService.numSeatsAvailable(), 95);
+        assertFalse(ticketService.extendHold(otherHold.getId(), "456@gmail.com", 1000));
+        Thread.sleep(2000);
+        assertEquals(ticketService.numSeatsAvailable(), 100);
+        try {
+            ticketService.extendHold(seatHold.getId(), "123@gmail.com", 0);
+            fail("Extension must be positive");
+        } catch (RuntimeException e) {
+            assertEquals(e.getMessage(), "Extension must be positive!");
+        }
+    }
+}
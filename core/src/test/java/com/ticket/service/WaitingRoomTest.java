@@ -0,0 +1,134 @@
+package com.ticket.service;
+
+import com.ticket.service.Impl.PriceTierImpl;
+import com.ticket.service.Impl.WaitingRoom;
+import com.ticket.service.interfaces.PriceTier;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.TicketService;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.Assert.*;
+
+public class WaitingRoomTest {
+    @Test
+    public void testAdmissionRate() throws Exception {
+        WaitingRoom waitingRoom = new WaitingRoom(TicketServiceFactory.createConcurrent(10, 10, 60), 100, 1, 1000, 5000);
+        ExecutorService executor = Executors.newFixedThreadPool(20);
+        try {
+            long start = System.nanoTime();
+            List<Future<SeatHold>> holds = new ArrayList<>();
+            for(int customer = 0; customer < 20; customer++) {
+                final String customerEmail = customer + "@gmail.com";
+                holds.add(executor.submit(() -> waitingRoom.findAndHoldSeats(1, customerEmail)));
+            }
+            for(Future<SeatHold> hold : holds) {
+                assertEquals(hold.get().getNumberOfSeatsOnHold(), 1);
+            }
+            //One customer right away and then one every 10ms
+            assertTrue((System.nanoTime() - start) / 1000000 >= 150);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(waitingRoom.getAdmissions(), 20);
+        assertEquals(waitingRoom.getQueueLength(), 0);
+        assertEquals(waitingRoom.numSeatsAvailable(), 80);
+    }
+
+    @Test
+    public void testTurnedAwayWhenSoldOut() {
+        WaitingRoom waitingRoom = new WaitingRoom(TicketServiceFactory.createConcurrent(2, 5, 60), 1000, 10, 1000, 1000);
+        assertEquals(waitingRoom.findAndHoldSeats(8, "123@gmail.com").getNumberOfSeatsOnHold(), 8);
+
+        WaitingRoom.Place place = waitingRoom.join(3);
+        assertTrue(place.isTurnedAway());
+        assertEquals(place.getPosition(), -1);
+        SeatHold seatHold = waitingRoom.findAndHoldSeats(3, "456@gmail.com");
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 0);
+        assertEquals(waitingRoom.reserveSeats(seatHold.getId(), "456@gmail.com").toString(), "No hold found with ID of 0");
+        assertEquals(waitingRoom.getSoldOutTurnedAway(), 2);
+
+        //A party that still fits is let in
+        assertEquals(waitingRoom.findAndHoldSeats(2, "789@gmail.com").getNumberOfSeatsOnHold(), 2);
+    }
+
+    @Test
+    public void testLineLeavesOnceSoldOut() throws Exception {
+        TicketService ticketService = TicketServiceFactory.createConcurrent(10, 10, 60);
+        WaitingRoom waitingRoom = new WaitingRoom(ticketService, 0.1, 1, 1000, 60000);
+        WaitingRoom.Place first = waitingRoom.join(100);
+        List<WaitingRoom.Place> line = new ArrayList<>();
+        for(int customer = 0; customer < 3; customer++) {
+            line.add(waitingRoom.join(1));
+        }
+        assertTrue(waitingRoom.await(first, 0));
+        assertEquals(line.get(0).getPosition(), 0);
+        assertEquals(line.get(2).getPosition(), 2);
+        assertEquals(waitingRoom.getQueueLength(), 3);
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<Boolean>> waiting = new ArrayList<>();
+            for(WaitingRoom.Place place : line) {
+                waiting.add(executor.submit(() -> waitingRoom.await(place, 60000)));
+            }
+            assertEquals(waitingRoom.findAndHoldSeats(first, "123@gmail.com").getNumberOfSeatsOnHold(), 100);
+            long start = System.nanoTime();
+            for(Future<Boolean> place : waiting) {
+                assertFalse(place.get());
+            }
+            //Woken as soon as the venue sold out, not at their turn ten seconds apart
+            assertTrue((System.nanoTime() - start) / 1000000 < 500);
+        } finally {
+            executor.shutdownNow();
+        }
+        for(WaitingRoom.Place place : line) {
+            assertTrue(place.isTurnedAway());
+        }
+        //A place that was let in holds its seats once
+        assertEquals(waitingRoom.findAndHoldSeats(first, "123@gmail.com").getNumberOfSeatsOnHold(), 0);
+    }
+
+    @Test
+    public void testTurnedAwayWhenLineIsFull() {
+        WaitingRoom waitingRoom = new WaitingRoom(TicketServiceFactory.createConcurrent(10, 10, 60), 0.1, 1, 2, 1000);
+        assertTrue(waitingRoom.await(waitingRoom.join(1), 0));
+        assertFalse(waitingRoom.join(1).isTurnedAway());
+        assertFalse(waitingRoom.join(1).isTurnedAway());
+        assertTrue(waitingRoom.join(1).isTurnedAway());
+        assertEquals(waitingRoom.getFullTurnedAway(), 1);
+    }
+
+    @Test
+    public void testRetryGetsItsHoldWithoutWaiting() throws Exception {
+        WaitingRoom waitingRoom = new WaitingRoom(TicketServiceFactory.createConcurrent(10, 10, 60), 100, 1, 1000, 5000);
+        SeatHold seatHold = waitingRoom.findAndHoldSeats(100, "123@gmail.com", "checkout-1");
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 100);
+
+        //The venue is sold out by the hold itself, the retry still gets it back and uses no turn
+        SeatHold retry = waitingRoom.findAndHoldSeats(100, "123@gmail.com", "checkout-1");
+        assertEquals(retry.getId(), seatHold.getId());
+        assertEquals(waitingRoom.getAdmissions(), 1);
+        assertEquals(waitingRoom.findAndHoldSeats(100, "123@gmail.com", "checkout-2").getNumberOfSeatsOnHold(), 0);
+    }
+
+    @Test
+    public void testTurnedAwayWhenTiersSoldOut() {
+        WaitingRoom waitingRoom = new WaitingRoom(TicketServiceFactory.createConcurrent(new PriceTier[] {
+                new PriceTierImpl("Orchestra", 1, 12000),
+                new PriceTierImpl("Balcony", 9, 4000)}, 10, 60), 1000, 10, 1000, 1000);
+        assertEquals(waitingRoom.findAndHoldSeatsInTiers(10, "123@gmail.com", tier -> tier.getName().equals("Orchestra")).getNumberOfSeatsOnHold(), 10);
+
+        //The venue still has seats, the tier does not
+        SeatHold seatHold = waitingRoom.findAndHoldSeatsInTiers(2, "456@gmail.com", tier -> tier.getName().equals("Orchestra"));
+        assertEquals(seatHold.getNumberOfSeatsOnHold(), 0);
+        assertEquals(waitingRoom.getSoldOutTurnedAway(), 1);
+        assertEquals(waitingRoom.getAdmissions(), 1);
+        assertEquals(waitingRoom.findAndHoldSeatsInTiers(2, "789@gmail.com", tier -> tier.getPrice() < 5000).getNumberOfSeatsOnHold(), 2);
+    }
+}
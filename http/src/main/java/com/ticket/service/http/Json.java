@@ -0,0 +1,186 @@
+package com.ticket.service.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Just enough JSON for the ticket API, flat objects of strings, numbers, booleans and null
+ */
+final class Json {
+    private final String text; //Text being parsed
+    private int position; //Position of the next character to parse
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a flat JSON object
+     *
+     * @param text the JSON text
+     * @return the members of the object in the order they came, numbers as Long or Double
+     * @throws IllegalArgumentException if the text is not a flat JSON object
+     */
+    static Map<String, Object> parseObject(String text) {
+        Json json = new Json(text);
+        Map<String, Object> members = new LinkedHashMap<>();
+        json.expect('{');
+        if(!json.consume('}')) {
+            do {
+                String name = json.string();
+                json.expect(':');
+                members.put(name, json.value());
+            } while(json.consume(','));
+            json.expect('}');
+        }
+        json.skipWhitespace();
+        if(json.position != text.length()) {
+            throw new IllegalArgumentException("Request body has trailing characters!");
+        }
+        return members;
+    }
+
+    /**
+     * Writes a flat JSON object
+     *
+     * @param members names followed by their value, each value a String, Number, Boolean or null
+     * @return the JSON text
+     */
+    static String object(Object... members) {
+        StringBuilder json = new StringBuilder("{");
+        for(int index = 0; index < members.length; index += 2) {
+            if(index > 0) {
+                json.append(',');
+            }
+            quote(json, (String) members[index]);
+            json.append(':');
+            Object value = members[index + 1];
+            if(value instanceof String) {
+                quote(json, (String) value);
+            } else {
+                json.append(value);
+            }
+        }
+        return json.append('}').toString();
+    }
+
+    private static void quote(StringBuilder json, String string) {
+        json.append('"');
+        for(int index = 0; index < string.length(); index++) {
+            char c = string.charAt(index);
+            if(c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if(c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+
+    private Object value() {
+        skipWhitespace();
+        char c = peek();
+        if(c == '"') {
+            return string();
+        } else if(c == '-' || (c >= '0' && c <= '9')) {
+            return number();
+        } else if(text.startsWith("true", position)) {
+            position += 4;
+            return Boolean.TRUE;
+        } else if(text.startsWith("false", position)) {
+            position += 5;
+            return Boolean.FALSE;
+        } else if(text.startsWith("null", position)) {
+            position += 4;
+            return null;
+        }
+        throw new IllegalArgumentException("Request body has a value that is not supported at " + position + "!");
+    }
+
+    private Object number() {
+        int start = position;
+        while(position < text.length() && "+-0123456789.eE".indexOf(text.charAt(position)) >= 0) {
+            position++;
+        }
+        String number = text.substring(start, position);
+        try {
+            if(number.indexOf('.') < 0 && number.indexOf('e') < 0 && number.indexOf('E') < 0) {
+                return Long.parseLong(number);
+            }
+            return Double.parseDouble(number);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Request body has a malformed number at " + start + "!");
+        }
+    }
+
+    private String string() {
+        expect('"');
+        StringBuilder string = new StringBuilder();
+        while(true) {
+            char c = next();
+            if(c == '"') {
+                return string.toString();
+            } else if(c != '\\') {
+                string.append(c);
+                continue;
+            }
+            char escaped = next();
+            switch(escaped) {
+                case 'b': string.append('\b'); break;
+                case 'f': string.append('\f'); break;
+                case 'n': string.append('\n'); break;
+                case 'r': string.append('\r'); break;
+                case 't': string.append('\t'); break;
+                case 'u':
+                    if(position + 4 > text.length()) {
+                        throw new IllegalArgumentException("Request body ends in the middle of an escape!");
+                    }
+                    try {
+                        string.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw new IllegalArgumentException("Request body has a malformed escape at " + position + "!");
+                    }
+                    position += 4;
+                    break;
+                default: string.append(escaped);
+            }
+        }
+    }
+
+    private void expect(char expected) {
+        skipWhitespace();
+        if(next() != expected) {
+            throw new IllegalArgumentException("Request body is missing '" + expected + "' at " + (position - 1) + "!");
+        }
+    }
+
+    private boolean consume(char expected) {
+        skipWhitespace();
+        if(position < text.length() && text.charAt(position) == expected) {
+            position++;
+            return true;
+        }
+        return false;
+    }
+
+    private char peek() {
+        if(position >= text.length()) {
+            throw new IllegalArgumentException("Request body ends too soon!");
+        }
+        return text.charAt(position);
+    }
+
+    private char next() {
+        char c = peek();
+        position++;
+        return c;
+    }
+
+    private void skipWhitespace() {
+        while(position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package com.ticket.service.http;
+
+import com.ticket.service.TicketServiceFactory;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Serves a venue as an HTTP/JSON API until the process is stopped
+ *
+ * Options are name=value pairs, any left out keep their default:
+ * port=8080 port to listen on
+ * venue=9x33 rows and columns of the venue
+ * hold=60 seconds a hold lasts
+ */
+public class TicketHttpApp {
+    public static void main(String[] args) throws Exception {
+        int port = 8080;
+        int rows = 9;
+        int cols = 33;
+        long hold = 60;
+        for(String arg : args) {
+            String[] option = arg.split("=", 2);
+            String value = option.length == 2 ? option[1] : "";
+            switch(option[0]) {
+                case "port":
+                    port = Integer.parseInt(value);
+                    break;
+                case "venue":
+                    rows = Integer.parseInt(value.split("x")[0]);
+                    cols = Integer.parseInt(value.split("x")[1]);
+                    break;
+                case "hold":
+                    hold = Long.parseLong(value);
+                    break;
+                default:
+                    System.out.println("Option not recognized: " + arg);
+                    System.exit(1);
+            }
+        }
+
+        TicketHttpServer server = new TicketHttpServer(TicketServiceFactory.createConcurrent(rows, cols, hold),
+                new InetSocketAddress(port));
+        System.out.println("Serving a " + rows + "x" + cols + " venue on http://localhost:" + server.getPort());
+        Runtime.getRuntime().addShutdownHook(new Thread(server::shutdown));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,229 @@
+package com.ticket.service.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.ticket.service.interfaces.CustomerIndexedTicketService;
+import com.ticket.service.interfaces.Reservation;
+import com.ticket.service.interfaces.SeatHold;
+import com.ticket.service.interfaces.SeatMap;
+import com.ticket.service.interfaces.SeatMapTicketService;
+import com.ticket.service.interfaces.TicketService;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Serves a Ticket Service as an HTTP/JSON API, one virtual thread per request
+ *
+ * - GET /seats answers {"seatsAvailable":n}
+ * - GET /seatmap answers the version of the map and the seats of every row, A available,
+ * H held and R reserved, rows split by '/'. The version is the ETag, so a client that sends
+ * it back in If-None-Match gets 304 until a seat changes
+ * - POST /holds with {"numSeats":n,"customerEmail":"..."} answers 201 and the hold, or 409 when
+ * not enough seats are available. A request sent again with the same Idempotency-Key header
+ * gets back the hold the first one made
+ * - POST /holds/{id}/reservation with {"customerEmail":"..."} answers 200 with the status, the
+ * confirmation code and the message of the service, or 409 with the status and the message
+ * when the hold can not be reserved
+ *
+ * Every request runs on a virtual thread of its own, so a request blocked in the service,
+ * waiting on a row lock or on the journal reaching the disk, parks its virtual thread and
+ * leaves the carrier threads to the other requests instead of holding a platform thread
+ * of a fixed pool. On Java 21 a virtual thread waiting inside a synchronized block still
+ * holds its carrier, which the service only does for the few instructions of a seat change.
+ */
+public class TicketHttpServer {
+    private static final String HOLDS = "/holds"; //Path of the holds
+    private static final String RESERVATION = "/reservation"; //Path of the reservation of a hold
+    private static final int MAX_BODY = 16 * 1024; //Longest request body read
+
+    private final TicketService ticketService; //The service being served
+    private final HttpServer server; //Accepts the connections and parses the requests
+    private final ExecutorService executor; //Starts a virtual thread per request
+
+    /**
+     * Ticket Http Server Constructor, starts serving right away
+     * @param ticketService - the service being served, called from many threads at once
+     * @param address - address to listen on, port 0 picks a free port
+     * @throws UncheckedIOException if the address can not be listened on
+     */
+    public TicketHttpServer(TicketService ticketService, InetSocketAddress address) throws RuntimeException {
+        this.ticketService = ticketService;
+        this.executor = Executors.newVirtualThreadPerTaskExecutor();
+        try {
+            server = HttpServer.create(address, 1024);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        server.setExecutor(executor);
+        server.createContext("/seats", this::seats);
+        server.createContext("/seatmap", this::seatMap);
+        server.createContext(HOLDS, this::holds);
+        server.start();
+    }
+
+    /**
+     * Gets the port the server listens on
+     *
+     * @return the port
+     */
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops taking requests and waits for the ones running to finish
+     */
+    public void shutdown() {
+        server.stop(0);
+        executor.close();
+    }
+
+    private void seats(HttpExchange exchange) throws IOException {
+        try(exchange) {
+            if(!exchange.getRequestURI().getPath().equals("/seats")) {
+                send(exchange, 404, Json.object("error", "Not found."));
+            } else if(!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, Json.object("error", "Method not allowed."));
+            } else {
+                send(exchange, 200, Json.object("seatsAvailable", ticketService.numSeatsAvailable()));
+            }
+        }
+    }
+
+    private void seatMap(HttpExchange exchange) throws IOException {
+        try(exchange) {
+            if(!exchange.getRequestURI().getPath().equals("/seatmap")) {
+                send(exchange, 404, Json.object("error", "Not found."));
+                return;
+            } else if(!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, Json.object("error", "Method not allowed."));
+                return;
+            }
+            SeatMap seatMap;
+            try {
+                seatMap = SeatMapTicketService.of(ticketService).getSeatMap();
+            } catch (UnsupportedOperationException e) {
+                send(exchange, 501, Json.object("error", e.getMessage()));
+                return;
+            }
+            String etag = "\"" + seatMap.getVersion() + "\"";
+            exchange.getResponseHeaders().set("ETag", etag);
+            if(etag.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.sendResponseHeaders(304, -1);
+                return;
+            }
+            StringBuilder seats = new StringBuilder(seatMap.getRows() * (seatMap.getCols() + 1));
+            for(int seatId = 0; seatId < seatMap.getRows() * seatMap.getCols(); seatId++) {
+                if(seatId > 0 && seatId % seatMap.getCols() == 0) {
+                    seats.append('/');
+                }
+                seats.append(seatMap.getStatus(seatId).name().charAt(0));
+            }
+            send(exchange, 200, Json.object("version", seatMap.getVersion(), "rows", seatMap.getRows(), "cols", seatMap.getCols(),
+                    "seatsAvailable", seatMap.getSeatsAvailable(), "seats", seats.toString()));
+        }
+    }
+
+    private void holds(HttpExchange exchange) throws IOException {
+        try(exchange) {
+            String path = exchange.getRequestURI().getPath();
+            try {
+                if(!exchange.getRequestMethod().equals("POST")) {
+                    send(exchange, 405, Json.object("error", "Method not allowed."));
+                } else if(path.equals(HOLDS)) {
+                    hold(exchange, Json.parseObject(body(exchange)));
+                } else if(path.startsWith(HOLDS + "/") && path.endsWith(RESERVATION)) {
+                    int seatHoldId = Integer.parseInt(path.substring(HOLDS.length() + 1, path.length() - RESERVATION.length()));
+                    reserve(exchange, seatHoldId, Json.parseObject(body(exchange)));
+                } else {
+                    send(exchange, 404, Json.object("error", "Not found."));
+                }
+            } catch (IllegalArgumentException e) {
+                //A hold id that is not a number lands here too, as a NumberFormatException
+                send(exchange, 400, Json.object("error", e.getMessage()));
+            } catch (UnsupportedOperationException e) {
+                //An Idempotency-Key sent to a service that does not index the holds of its customers
+                send(exchange, 501, Json.object("error", e.getMessage()));
+            } catch (RuntimeException e) {
+                //The service failed the request, e.g. its journal has been closed
+                send(exchange, 500, Json.object("error", e.getMessage()));
+            }
+        }
+    }
+
+    private void hold(HttpExchange exchange, Map<String, Object> request) throws IOException {
+        int numSeats = (int) number(request, "numSeats");
+        String customerEmail = string(request, "customerEmail");
+        if(numSeats <= 0) {
+            throw new IllegalArgumentException("numSeats must be positive!");
+        }
+        String idempotencyKey = exchange.getRequestHeaders().getFirst("Idempotency-Key");
+        SeatHold seatHold = idempotencyKey == null ? ticketService.findAndHoldSeats(numSeats, customerEmail)
+                : CustomerIndexedTicketService.of(ticketService).findAndHoldSeats(numSeats, customerEmail, idempotencyKey);
+        if(seatHold.getNumberOfSeatsOnHold() == 0) {
+            send(exchange, 409, Json.object("error", "Could not hold that many seats.",
+                    "seatsAvailable", ticketService.numSeatsAvailable()));
+        } else {
+            send(exchange, 201, Json.object("seatHoldId", seatHold.getId(), "numberOfSeats", seatHold.getNumberOfSeatsOnHold(),
+                    "seats", seatHold.displaySeatsOnHold(), "holdTimeRemaining", seatHold.holdTimeRemaining()));
+        }
+    }
+
+    private void reserve(HttpExchange exchange, int seatHoldId, Map<String, Object> request) throws IOException {
+        Reservation reservation = ticketService.reserveSeats(seatHoldId, string(request, "customerEmail"));
+        if(reservation.isReserved()) {
+            send(exchange, 200, Json.object("seatHoldId", seatHoldId, "status", reservation.getStatus().name(),
+                    "code", reservation.getCode(), "message", reservation.toString()));
+        } else {
+            send(exchange, 409, Json.object("seatHoldId", seatHoldId, "status", reservation.getStatus().name(),
+                    "message", reservation.toString()));
+        }
+    }
+
+    private static long number(Map<String, Object> request, String name) {
+        Object value = request.get(name);
+        if(!(value instanceof Long)) {
+            throw new IllegalArgumentException(name + " must be a whole number!");
+        }
+        long number = (Long) value;
+        if(number > Integer.MAX_VALUE || number < Integer.MIN_VALUE) {
+            throw new IllegalArgumentException(name + " is too large!");
+        }
+        return number;
+    }
+
+    private static String string(Map<String, Object> request, String name) {
+        Object value = request.get(name);
+        if(!(value instanceof String)) {
+            throw new IllegalArgumentException(name + " must be a string!");
+        }
+        return (String) value;
+    }
+
+    private static String body(HttpExchange exchange) throws IOException {
+        try(InputStream in = exchange.getRequestBody()) {
+            byte[] body = in.readNBytes(MAX_BODY + 1);
+            if(body.length > MAX_BODY) {
+                throw new IllegalArgumentException("Request body is too large!");
+            }
+            return new String(body, StandardCharsets.UTF_8);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] body = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try(OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+}
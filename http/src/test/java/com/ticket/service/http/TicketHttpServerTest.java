@@ -0,0 +1,180 @@
+package com.ticket.service.http;
+
+import com.ticket.service.Impl.MappedJournal;
+import com.ticket.service.TicketServiceFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.Assert.*;
+
+public class TicketHttpServerTest {
+    TicketHttpServer server;
+    HttpClient client;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Before
+    public void setUp() throws RuntimeException {
+        //One sec hold expiration for testing
+        server = new TicketHttpServer(TicketServiceFactory.createConcurrent(10, 10, 1), new InetSocketAddress("localhost", 0));
+        client = HttpClient.newHttpClient();
+    }
+
+    @After
+    public void tearDown() {
+        server.shutdown();
+    }
+
+    @Test
+    public void testHoldAndReserve() throws Exception {
+        assertEquals(get("/seats").body(), "{\"seatsAvailable\":100}");
+
+        HttpResponse<String> hold = post("/holds", "{\"numSeats\": 10, \"customerEmail\": \"123@gmail.com\"}");
+        assertEquals(hold.statusCode(), 201);
+        Map<String, Object> seatHold = Json.parseObject(hold.body());
+        assertEquals(seatHold.get("numberOfSeats"), 10L);
+        assertEquals(seatHold.get("seats"), "A:1, A:2, A:3, A:4, A:5, A:6, A:7, A:8, A:9, A:10");
+        assertEquals(get("/seats").body(), "{\"seatsAvailable\":90}");
+
+        String reservation = "/holds/" + seatHold.get("seatHoldId") + "/reservation";
+        HttpResponse<String> refused = post(reservation, "{\"customerEmail\":\"fake@gmail.com\"}");
+        assertEquals(refused.statusCode(), 409);
+        assertEquals(Json.parseObject(refused.body()).get("status"), "EMAIL_MISMATCH");
+        assertEquals(Json.parseObject(refused.body()).get("message"), "Customer Email either does not exist in our system or does not match up with hold Id.");
+        HttpResponse<String> reserved = post(reservation, "{\"customerEmail\":\"123@gmail.com\"}");
+        assertEquals(reserved.statusCode(), 200);
+        Map<String, Object> confirmation = Json.parseObject(reserved.body());
+        assertEquals(confirmation.get("status"), "RESERVED");
+        assertTrue(((String) confirmation.get("message")).contains("Reservation code is " + confirmation.get("code")));
+
+        assertEquals(post("/holds", "{\"numSeats\":91,\"customerEmail\":\"123@gmail.com\"}").statusCode(), 409);
+        Thread.sleep(1500);
+        assertEquals(get("/seats").body(), "{\"seatsAvailable\":90}");
+    }
+
+    @Test
+    public void testRetriedHoldWithIdempotencyKey() throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri("/holds")).header("Idempotency-Key", "order-1")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"numSeats\":3,\"customerEmail\":\"123@gmail.com\"}")).build();
+        HttpResponse<String> hold = client.send(request, HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> retried = client.send(request, HttpResponse.BodyHandlers.ofString());
+        assertEquals(Json.parseObject(retried.body()).get("seatHoldId"), Json.parseObject(hold.body()).get("seatHoldId"));
+        assertEquals(get("/seats").body(), "{\"seatsAvailable\":97}");
+    }
+
+    @Test
+    public void testIdempotencyKeyWithoutCustomerIndex() throws Exception {
+        //The legacy service keeps no index of the holds of its customers
+        server.shutdown();
+        server = new TicketHttpServer(TicketServiceFactory.create(10, 10, 60), new InetSocketAddress("localhost", 0));
+        HttpRequest request = HttpRequest.newBuilder(uri("/holds")).header("Idempotency-Key", "order-1")
+                .POST(HttpRequest.BodyPublishers.ofString("{\"numSeats\":3,\"customerEmail\":\"123@gmail.com\"}")).build();
+        assertEquals(client.send(request, HttpResponse.BodyHandlers.ofString()).statusCode(), 501);
+        assertEquals(get("/seats").body(), "{\"seatsAvailable\":100}");
+    }
+
+    @Test
+    public void testBadRequests() throws Exception {
+        assertEquals(post("/holds", "{\"numSeats\":\"ten\",\"customerEmail\":\"123@gmail.com\"}").statusCode(), 400);
+        assertEquals(post("/holds", "{\"numSeats\":0,\"customerEmail\":\"123@gmail.com\"}").statusCode(), 400);
+        assertEquals(post("/holds", "{\"numSeats\":1").statusCode(), 400);
+        assertEquals(post("/holds/abc/reservation", "{\"customerEmail\":\"123@gmail.com\"}").statusCode(), 400);
+        assertEquals(post("/holds/1/cancel", "{}").statusCode(), 404);
+        assertEquals(get("/holds").statusCode(), 405);
+        assertEquals(get("/seats/1").statusCode(), 404);
+    }
+
+    @Test
+    public void testServiceFailure() throws Exception {
+        MappedJournal journal = new MappedJournal(folder.newFile("tickets.journal").toPath());
+        server.shutdown();
+        server = new TicketHttpServer(TicketServiceFactory.createConcurrent(10, 10, 60, journal), new InetSocketAddress("localhost", 0));
+        journal.close();
+        HttpResponse<String> hold = post("/holds", "{\"numSeats\":2,\"customerEmail\":\"123@gmail.com\"}");
+        assertEquals(hold.statusCode(), 500);
+        assertEquals(hold.body(), "{\"error\":\"Journal has been closed!\"}");
+    }
+
+    @Test
+    public void testSeatMap() throws Exception {
+        HttpResponse<String> empty = get("/seatmap");
+        assertEquals(empty.statusCode(), 200);
+        assertEquals(Json.parseObject(empty.body()).get("seatsAvailable"), 100L);
+        String etag = empty.headers().firstValue("ETag").get();
+        HttpRequest unchanged = HttpRequest.newBuilder(uri("/seatmap")).header("If-None-Match", etag).GET().build();
+        assertEquals(client.send(unchanged, HttpResponse.BodyHandlers.ofString()).statusCode(), 304);
+
+        HttpResponse<String> hold = post("/holds", "{\"numSeats\":2,\"customerEmail\":\"123@gmail.com\"}");
+        post("/holds/" + Json.parseObject(hold.body()).get("seatHoldId") + "/reservation", "{\"customerEmail\":\"123@gmail.com\"}");
+        post("/holds", "{\"numSeats\":2,\"customerEmail\":\"456@gmail.com\"}");
+        HttpResponse<String> changed = client.send(unchanged, HttpResponse.BodyHandlers.ofString());
+        assertEquals(changed.statusCode(), 200);
+        Map<String, Object> seatMap = Json.parseObject(changed.body());
+        assertEquals(seatMap.get("rows"), 10L);
+        assertEquals(seatMap.get("seatsAvailable"), 96L);
+        String[] rows = ((String) seatMap.get("seats")).split("/");
+        assertEquals(rows.length, 10);
+        assertEquals(rows[0], "AAAARRHHAA");
+        assertEquals(rows[9], "AAAAAAAAAA");
+        assertEquals(post("/seatmap", "{}").statusCode(), 405);
+    }
+
+    @Test
+    public void testConcurrentHolds() throws Exception {
+        //Holds that last long enough that none expire while the requests are served
+        server.shutdown();
+        server = new TicketHttpServer(TicketServiceFactory.createConcurrent(10, 10, 60), new InetSocketAddress("localhost", 0));
+        List<CompletableFuture<HttpResponse<String>>> holds = new ArrayList<>();
+        for(int hold = 0; hold < 200; hold++) {
+            HttpRequest request = HttpRequest.newBuilder(uri("/holds"))
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"numSeats\":1,\"customerEmail\":\"" + hold + "@gmail.com\"}")).build();
+            holds.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+        }
+        int held = 0;
+        for(CompletableFuture<HttpResponse<String>> hold : holds) {
+            if(hold.get().statusCode() == 201) {
+                held++;
+            }
+        }
+        assertEquals(held, 100);
+        assertEquals(get("/seats").body(), "{\"seatsAvailable\":0}");
+    }
+
+    @Test
+    public void testJson() {
+        Map<String, Object> members = Json.parseObject(" {\"a\" : \"x\\\"y\\u0041\", \"b\": -12, \"c\": 1.5, \"d\": true, \"e\": null} ");
+        assertEquals(members.get("a"), "x\"yA");
+        assertEquals(members.get("b"), -12L);
+        assertEquals(members.get("c"), 1.5);
+        assertEquals(members.get("d"), Boolean.TRUE);
+        assertTrue(members.containsKey("e"));
+        assertEquals(Json.object("a", "x\"y\n", "b", 2), "{\"a\":\"x\\\"y\\u000a\",\"b\":2}");
+    }
+
+    private HttpResponse<String> get(String path) throws Exception {
+        return client.send(HttpRequest.newBuilder(uri(path)).GET().build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(uri(path)).POST(HttpRequest.BodyPublishers.ofString(body)).build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private URI uri(String path) {
+        return URI.create("http://localhost:" + server.getPort() + path);
+    }
+}